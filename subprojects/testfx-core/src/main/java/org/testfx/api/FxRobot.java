@@ -26,6 +26,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import javafx.geometry.Bounds;
@@ -223,6 +224,22 @@ public class FxRobot implements FxRobotInterface {
         return context.getNodeFinder().lookup(predicate);
     }
 
+    /**
+     * Calls {@link org.testfx.service.finder.NodeFinder#lookup(Pattern)}, which uses the scene graph index
+     * if it is enabled.
+     */
+    public NodeQuery lookup(Pattern textPattern) {
+        return context.getNodeFinder().lookup(textPattern);
+    }
+
+    /**
+     * Calls {@link org.testfx.service.finder.NodeFinder#lookupByTextPrefix(String)}, which uses the scene
+     * graph index if it is enabled.
+     */
+    public NodeQuery lookupByTextPrefix(String textPrefix) {
+        return context.getNodeFinder().lookupByTextPrefix(textPrefix);
+    }
+
     @Override
     public Node rootNode(Window window) {
         return context.getNodeFinder().rootNode(window);
@@ -483,6 +500,27 @@ public class FxRobot implements FxRobotInterface {
         }
     }
 
+    //---------------------------------------------------------------------------------------------
+    // METHODS FOR BATCHED QUERIES.
+    //---------------------------------------------------------------------------------------------
+
+    /**
+     * Runs the lookups, locations and verifications added to the given {@link FxRobotBatch} in a single call on
+     * the FX application thread, so that they all see the same state of the scene graph.
+     *
+     * @param batchBuilder
+     *            adds the steps of the batch
+     * @return the results of the batch
+     * @throws AssertionError if a verification of the batch failed
+     */
+    public FxRobotBatch.Result batch(Consumer<FxRobotBatch> batchBuilder) {
+        FxRobotBatch batch = new FxRobotBatch(context);
+        batchBuilder.accept(batch);
+        FxRobotBatch.Result result = waitFor(asyncFx(batch::run));
+        result.rethrowFailure();
+        return result;
+    }
+
     //---------------------------------------------------------------------------------------------
     // METHODS FOR INTERACTION AND INTERRUPTION.
     //---------------------------------------------------------------------------------------------
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.Node;
+
+import org.hamcrest.Matcher;
+import org.testfx.api.annotation.Unstable;
+import org.testfx.util.BoundsQueryUtils;
+
+/**
+ * Collects node lookups, bounds and point locations and matcher verifications which {@link FxRobot#batch(Consumer)}
+ * then runs together in a single call on the JavaFX Application Thread. All steps of a batch therefore see the
+ * scene graph at the same point in time, and reading it costs one thread handoff instead of one per step.
+ * <p>
+ * The steps are run in the order they were added. The first step that fails stops the batch and its exception
+ * (e.g. an {@link AssertionError} of {@link #verify(String, Matcher)}) is rethrown on the calling thread.
+ */
+@Unstable(reason = "class was recently added")
+public class FxRobotBatch {
+
+    //---------------------------------------------------------------------------------------------
+    // PRIVATE FIELDS.
+    //---------------------------------------------------------------------------------------------
+
+    private final FxRobotContext context;
+    private final List<Consumer<Result>> steps = new ArrayList<>();
+
+    //---------------------------------------------------------------------------------------------
+    // CONSTRUCTORS.
+    //---------------------------------------------------------------------------------------------
+
+    FxRobotBatch(FxRobotContext context) {
+        this.context = context;
+    }
+
+    //---------------------------------------------------------------------------------------------
+    // METHODS.
+    //---------------------------------------------------------------------------------------------
+
+    /**
+     * Looks up all nodes that match the given query; see {@link Result#nodes(String)}.
+     */
+    public FxRobotBatch lookup(String query) {
+        steps.add(result -> result.nodes.put(query, queryAll(query)));
+        return this;
+    }
+
+    /**
+     * Locates the screen bounds of the first node that matches the given query; see {@link Result#bounds(String)}.
+     */
+    public FxRobotBatch bounds(String query) {
+        steps.add(result -> result.bounds.put(query, BoundsQueryUtils.boundsOnScreen(queryNode(query))));
+        return this;
+    }
+
+    /**
+     * Locates the point of the first node that matches the given query at the current
+     * {@link FxRobot#targetPos(javafx.geometry.Pos) target position}; see {@link Result#point(String)}.
+     */
+    public FxRobotBatch point(String query) {
+        steps.add(result -> {
+            Node node = queryNode(query);
+            result.points.put(query, context.getPointLocator().point(node).onNode(node)
+                .atPosition(context.getPointPosition()).query());
+        });
+        return this;
+    }
+
+    /**
+     * Verifies that the first node that matches the given query satisfies the given matcher, like
+     * {@link FxAssert#verifyThat(String, Matcher)} does. Throws an {@link FxRobotException} if no node
+     * matches the query.
+     */
+    public <T extends Node> FxRobotBatch verify(String query,
+                                                Matcher<T> nodeMatcher) {
+        return verify(query, nodeMatcher, Function.identity());
+    }
+
+    /**
+     * Verifies that the first node that matches the given query satisfies the given matcher, like
+     * {@link FxAssert#verifyThat(String, Matcher, Function)} does. Throws an {@link FxRobotException} if no node
+     * matches the query.
+     */
+    public <T extends Node> FxRobotBatch verify(String query,
+                                                Matcher<T> nodeMatcher,
+                                                Function<StringBuilder, StringBuilder> errorMessageMapper) {
+        steps.add(result -> {
+            @SuppressWarnings("unchecked")
+            T node = (T) queryNode(query);
+            FxAssert.verifyThat(node, nodeMatcher, errorMessageMapper);
+        });
+        return this;
+    }
+
+    //---------------------------------------------------------------------------------------------
+    // PACKAGE-PRIVATE METHODS.
+    //---------------------------------------------------------------------------------------------
+
+    /**
+     * Runs all steps; must be called on the JavaFX Application Thread.
+     */
+    Result run() {
+        Result result = new Result();
+        for (Consumer<Result> step : steps) {
+            try {
+                step.accept(result);
+            }
+            catch (RuntimeException | AssertionError failure) {
+                result.failure = failure;
+                break;
+            }
+        }
+        return result;
+    }
+
+    //---------------------------------------------------------------------------------------------
+    // PRIVATE METHODS.
+    //---------------------------------------------------------------------------------------------
+
+    private Set<Node> queryAll(String query) {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(context.getNodeFinder().lookup(query).queryAll()));
+    }
+
+    private Node queryNode(String query) {
+        Node node = context.getNodeFinder().lookup(query).query();
+        if (node == null) {
+            throw new FxRobotException("the query \"" + query + "\" returned no nodes.");
+        }
+        return node;
+    }
+
+    /**
+     * The results of a batch, keyed by the queries they were requested for.
+     */
+    public static final class Result {
+
+        private final Map<String, Set<Node>> nodes = new HashMap<>();
+        private final Map<String, Bounds> bounds = new HashMap<>();
+        private final Map<String, Point2D> points = new HashMap<>();
+        private Throwable failure;
+
+        private Result() {
+        }
+
+        /**
+         * Returns the nodes looked up for the given query by {@link FxRobotBatch#lookup(String)}.
+         */
+        public Set<Node> nodes(String query) {
+            return fetch(nodes, query);
+        }
+
+        /**
+         * Returns the screen bounds located for the given query by {@link FxRobotBatch#bounds(String)}.
+         */
+        public Bounds bounds(String query) {
+            return fetch(bounds, query);
+        }
+
+        /**
+         * Returns the point located for the given query by {@link FxRobotBatch#point(String)}.
+         */
+        public Point2D point(String query) {
+            return fetch(points, query);
+        }
+
+        void rethrowFailure() {
+            if (failure instanceof AssertionError) {
+                throw (AssertionError) failure;
+            }
+            if (failure != null) {
+                throw (RuntimeException) failure;
+            }
+        }
+
+        private static <T> T fetch(Map<String, T> results,
+                                   String query) {
+            if (!results.containsKey(query)) {
+                throw new IllegalArgumentException("the query \"" + query + "\" was not part of the batch");
+            }
+            return results.get(query);
+        }
+
+    }
+
+}
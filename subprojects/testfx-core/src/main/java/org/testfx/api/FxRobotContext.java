@@ -38,6 +38,7 @@ import org.testfx.robot.impl.MoveRobotImpl;
 import org.testfx.robot.impl.ScrollRobotImpl;
 import org.testfx.robot.impl.SleepRobotImpl;
 import org.testfx.robot.impl.TypeRobotImpl;
+import org.testfx.robot.impl.VirtualSleepRobotImpl;
 import org.testfx.robot.impl.WriteRobotImpl;
 import org.testfx.service.finder.NodeFinder;
 import org.testfx.service.finder.WindowFinder;
@@ -55,6 +56,14 @@ import org.testfx.service.support.impl.CaptureSupportImpl;
 @Unstable(reason = "class was recently added")
 public class FxRobotContext {
 
+    //---------------------------------------------------------------------------------------------
+    // PRIVATE STATIC FIELDS.
+    //---------------------------------------------------------------------------------------------
+
+    private static final String PROPERTY_TESTFX_SLEEP = "testfx.robot.sleep";
+    private static final String PROPERTY_TESTFX_SLEEP_REAL = "real";
+    private static final String PROPERTY_TESTFX_SLEEP_VIRTUAL = "virtual";
+
     //---------------------------------------------------------------------------------------------
     // PRIVATE FIELDS.
     //---------------------------------------------------------------------------------------------
@@ -94,7 +103,7 @@ public class FxRobotContext {
         baseRobot = new BaseRobotImpl();
         keyboardRobot = new KeyboardRobotImpl(baseRobot);
         mouseRobot = new MouseRobotImpl(baseRobot);
-        sleepRobot = new SleepRobotImpl();
+        sleepRobot = createSleepRobot(System.getProperty(PROPERTY_TESTFX_SLEEP, PROPERTY_TESTFX_SLEEP_REAL));
 
         typeRobot = new TypeRobotImpl(keyboardRobot, sleepRobot);
         writeRobot = new WriteRobotImpl(baseRobot, sleepRobot, windowFinder);
@@ -238,4 +247,21 @@ public class FxRobotContext {
         this.captureSupport = captureSupport;
     }
 
+    //---------------------------------------------------------------------------------------------
+    // PRIVATE METHODS.
+    //---------------------------------------------------------------------------------------------
+
+    private static SleepRobot createSleepRobot(String sleepRobotName) {
+        if (PROPERTY_TESTFX_SLEEP_VIRTUAL.equals(sleepRobotName)) {
+            return new VirtualSleepRobotImpl();
+        }
+        else if (PROPERTY_TESTFX_SLEEP_REAL.equals(sleepRobotName)) {
+            return new SleepRobotImpl();
+        }
+        else {
+            throw new IllegalStateException("Unknown sleep robot " +
+                "'" + PROPERTY_TESTFX_SLEEP + "=" + sleepRobotName + "'");
+        }
+    }
+
 }
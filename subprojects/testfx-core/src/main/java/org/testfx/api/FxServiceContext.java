@@ -21,7 +21,9 @@ import org.testfx.robot.BaseRobot;
 import org.testfx.robot.impl.BaseRobotImpl;
 import org.testfx.service.finder.NodeFinder;
 import org.testfx.service.finder.WindowFinder;
+import org.testfx.service.finder.impl.CachingNodeFinder;
 import org.testfx.service.finder.impl.NodeFinderImpl;
+import org.testfx.service.finder.impl.SceneGraphIndex;
 import org.testfx.service.finder.impl.WindowFinderImpl;
 import org.testfx.service.support.CaptureSupport;
 import org.testfx.service.support.WaitUntilSupport;
@@ -32,7 +34,9 @@ import org.testfx.service.support.impl.CaptureSupportImpl;
  * Stores the following objects:
  * <ul>
  *     <li>a {@link WindowFinder}</li>
- *     <li>a {@link NodeFinder}</li>
+ *     <li>a {@link NodeFinder}, which caches the results of selector lookups until the next pulse or change
+ *     of a scene graph (see {@link CachingNodeFinder} and {@link SceneGraphIndex}) if the system property
+ *     {@code testfx.finder.cache} is {@code true}</li>
  *     <li>a {@link BaseRobot}</li>
  *     <li>{@link CaptureSupport}</li>
  *     <li>and {@link WaitUntilSupport}</li>
@@ -41,13 +45,19 @@ import org.testfx.service.support.impl.CaptureSupportImpl;
 @Unstable(reason = "class was recently added")
 public class FxServiceContext {
 
+    //---------------------------------------------------------------------------------------------
+    // CONSTANTS.
+    //---------------------------------------------------------------------------------------------
+
+    private static final String PROPERTY_TESTFX_FINDER_CACHE = "testfx.finder.cache";
+
     //---------------------------------------------------------------------------------------------
     // PRIVATE FIELDS.
     //---------------------------------------------------------------------------------------------
 
     private WindowFinder windowFinder = new WindowFinderImpl();
 
-    private NodeFinder nodeFinder = new NodeFinderImpl(windowFinder);
+    private NodeFinder nodeFinder = createNodeFinder(windowFinder);
 
     private BaseRobot baseRobot = new BaseRobotImpl();
 
@@ -99,4 +109,16 @@ public class FxServiceContext {
         this.waitUntilSupport = waitUntilSupport;
     }
 
+    //---------------------------------------------------------------------------------------------
+    // PRIVATE METHODS.
+    //---------------------------------------------------------------------------------------------
+
+    private static NodeFinder createNodeFinder(WindowFinder windowFinder) {
+        NodeFinder nodeFinder = new NodeFinderImpl(windowFinder);
+        if (Boolean.getBoolean(PROPERTY_TESTFX_FINDER_CACHE)) {
+            return new CachingNodeFinder(nodeFinder, windowFinder, SceneGraphIndex::new);
+        }
+        return nodeFinder;
+    }
+
 }
@@ -26,6 +26,8 @@ import org.testfx.api.annotation.Unstable;
 import org.testfx.service.support.FiredEvents;
 import org.testfx.toolkit.PrimaryStageApplication;
 import org.testfx.toolkit.PrimaryStageFuture;
+import org.testfx.util.AsyncExecutorFactory;
+import org.testfx.util.WaitForAsyncUtils;
 
 import static java.lang.Long.parseLong;
 import static java.lang.System.getProperty;
@@ -39,6 +41,7 @@ import static java.lang.System.getProperty;
  *     <li>the registered {@link Stage}</li>
  *     <li>the timeout limit for launching an application</li>
  *     <li>the timeout limit for setting up a component</li>
+ *     <li>the factory of the executor that runs asynchronous tasks</li>
  * </ul>
  */
 @Unstable(reason = "class was recently added")
@@ -139,4 +142,17 @@ public class FxToolkitContext {
         this.setupTimeoutInMillis = setupTimeoutInMillis;
     }
 
+    /**
+     * Returns the factory of the executor that runs the {@code async} methods of {@link WaitForAsyncUtils}.
+     * Default value: chosen by the system property {@code testfx.async.executor}, see
+     * {@link AsyncExecutorFactory#forName(String)}.
+     */
+    public AsyncExecutorFactory getAsyncExecutorFactory() {
+        return WaitForAsyncUtils.getAsyncExecutorFactory();
+    }
+
+    public void setAsyncExecutorFactory(AsyncExecutorFactory asyncExecutorFactory) {
+        WaitForAsyncUtils.setAsyncExecutorFactory(asyncExecutorFactory);
+    }
+
 }
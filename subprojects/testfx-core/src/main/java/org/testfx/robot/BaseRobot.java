@@ -16,6 +16,7 @@
  */
 package org.testfx.robot;
 
+import java.util.List;
 import javafx.geometry.Point2D;
 import javafx.geometry.Rectangle2D;
 import javafx.scene.Scene;
@@ -33,6 +34,28 @@ public interface BaseRobot {
                       KeyCode key,
                       String character);
 
+    /**
+     * Types the given characters in the given scene in a single batch. Each character is sent as a
+     * sequence of key pressed, key typed and key released events, as by {@link #typeKeyboard(Scene, KeyCode,
+     * String)}, with the key code at the same index in {@code keys}.
+     *
+     * @param scene the scene to send the key events to
+     * @param keys the key codes of the characters
+     * @param characters the characters to type
+     * @throws IllegalArgumentException if {@code keys} and {@code characters} differ in length
+     */
+    default void typeKeyboard(Scene scene,
+                              List<KeyCode> keys,
+                              String characters) {
+        if (keys.size() != characters.length()) {
+            throw new IllegalArgumentException("keys and characters must have the same length but were " +
+                keys.size() + " and " + characters.length());
+        }
+        for (int index = 0; index < characters.length(); index++) {
+            typeKeyboard(scene, keys.get(index), String.valueOf(characters.charAt(index)));
+        }
+    }
+
     /**
      *
      * @return the current mouse location
@@ -16,6 +16,7 @@
  */
 package org.testfx.robot.impl;
 
+import java.util.List;
 import java.util.Objects;
 import javafx.geometry.Point2D;
 import javafx.geometry.Rectangle2D;
@@ -29,6 +30,7 @@ import org.testfx.robot.BaseRobot;
 import org.testfx.service.adapter.RobotAdapter;
 import org.testfx.service.adapter.impl.AwtRobotAdapter;
 import org.testfx.service.adapter.impl.GlassRobotAdapter;
+import org.testfx.service.adapter.impl.JavafxEventRobotAdapter;
 import org.testfx.service.adapter.impl.JavafxRobotAdapter;
 
 @Unstable(reason = "needs more tests")
@@ -37,6 +39,7 @@ public class BaseRobotImpl implements BaseRobot {
     private static final String PROPERTY_TESTFX_ROBOT = "testfx.robot";
     private static final String PROPERTY_TESTFX_ROBOT_AWT = "awt";
     private static final String PROPERTY_TESTFX_ROBOT_GLASS = "glass";
+    private static final String PROPERTY_TESTFX_ROBOT_JAVAFX = "javafx";
 
     private final RobotAdapter robotAdapter;
     private final JavafxRobotAdapter javafxRobotAdapter;
@@ -53,6 +56,9 @@ public class BaseRobotImpl implements BaseRobot {
         else if (isGlassRobotAdapter(robotAdapterName)) {
             robotAdapter = new GlassRobotAdapter();
         }
+        else if (isJavafxRobotAdapter(robotAdapterName)) {
+            robotAdapter = new JavafxEventRobotAdapter();
+        }
         else {
             throw new IllegalStateException("Unknown robot adapter " +
                 "'" + PROPERTY_TESTFX_ROBOT + "=" + robotAdapterName + "'");
@@ -85,6 +91,14 @@ public class BaseRobotImpl implements BaseRobot {
         javafxRobotAdapter.keyRelease(key);
     }
 
+    @Override
+    public void typeKeyboard(Scene scene,
+                             List<KeyCode> keys,
+                             String characters) {
+        javafxRobotAdapter.robotCreate(scene);
+        javafxRobotAdapter.keyTypeAll(keys, characters);
+    }
+
     @Override
     public Point2D retrieveMouse() {
         return robotAdapter.getMouseLocation();
@@ -132,4 +146,8 @@ public class BaseRobotImpl implements BaseRobot {
         return Objects.equals(robotAdapterName, PROPERTY_TESTFX_ROBOT_GLASS);
     }
 
+    private boolean isJavafxRobotAdapter(String robotAdapterName) {
+        return Objects.equals(robotAdapterName, PROPERTY_TESTFX_ROBOT_JAVAFX);
+    }
+
 }
@@ -16,6 +16,7 @@
  */
 package org.testfx.robot.impl;
 
+import java.util.Locale;
 import javafx.geometry.HorizontalDirection;
 import javafx.geometry.VerticalDirection;
 
@@ -29,14 +30,31 @@ public class ScrollRobotImpl implements ScrollRobot {
     private static final int SCROLL_ONE_UP_OR_LEFT = -1;
     private static final int SCROLL_ONE_DOWN_OR_RIGHT = 1;
 
+    private static final String PROPERTY_TESTFX_SCROLL = "testfx.robot.scroll";
+    private static final String PROPERTY_TESTFX_SCROLL_DEFAULT = "tick";
+
     public MouseRobot mouseRobot;
 
+    private final ScrollMode scrollMode;
+
     //---------------------------------------------------------------------------------------------
     // CONSTRUCTORS.
     //---------------------------------------------------------------------------------------------
 
     public ScrollRobotImpl(MouseRobot mouseRobot) {
+        this(mouseRobot, scrollMode(System.getProperty(PROPERTY_TESTFX_SCROLL, PROPERTY_TESTFX_SCROLL_DEFAULT)));
+    }
+
+    /**
+     * Creates a scroll robot that scrolls in the given {@link ScrollMode}. The default mode is chosen by the
+     * system property {@code testfx.robot.scroll} ({@code tick}, {@code burst} or {@code aggregate}).
+     *
+     * @param mouseRobot the robot to scroll the mouse wheel with
+     * @param scrollMode how the ticks of a scroll are sent
+     */
+    public ScrollRobotImpl(MouseRobot mouseRobot, ScrollMode scrollMode) {
         this.mouseRobot = mouseRobot;
+        this.scrollMode = scrollMode;
     }
 
     //---------------------------------------------------------------------------------------------
@@ -66,16 +84,12 @@ public class ScrollRobotImpl implements ScrollRobot {
 
     @Override
     public void scrollUp(int positiveAmount) {
-        for (int scrollTick = 0; scrollTick < positiveAmount; scrollTick++) {
-            mouseRobot.scroll(SCROLL_ONE_UP_OR_LEFT);
-        }
+        scrollTicks(positiveAmount, SCROLL_ONE_UP_OR_LEFT);
     }
 
     @Override
     public void scrollDown(int positiveAmount) {
-        for (int scrollTick = 0; scrollTick < positiveAmount; scrollTick++) {
-            mouseRobot.scroll(SCROLL_ONE_DOWN_OR_RIGHT);
-        }
+        scrollTicks(positiveAmount, SCROLL_ONE_DOWN_OR_RIGHT);
     }
 
     @Override
@@ -91,15 +105,74 @@ public class ScrollRobotImpl implements ScrollRobot {
 
     @Override
     public void scrollRight(int positiveAmount) {
-        for (int scrollTick = 0; scrollTick < positiveAmount; scrollTick++) {
-            mouseRobot.scroll(SCROLL_ONE_DOWN_OR_RIGHT);
-        }
+        scrollTicks(positiveAmount, SCROLL_ONE_DOWN_OR_RIGHT);
     }
 
     @Override
     public void scrollLeft(int positiveAmount) {
-        for (int scrollTick = 0; scrollTick < positiveAmount; scrollTick++) {
-            mouseRobot.scroll(SCROLL_ONE_UP_OR_LEFT);
+        scrollTicks(positiveAmount, SCROLL_ONE_UP_OR_LEFT);
+    }
+
+    //---------------------------------------------------------------------------------------------
+    // PRIVATE METHODS.
+    //---------------------------------------------------------------------------------------------
+
+    private void scrollTicks(int positiveAmount, int tick) {
+        if (positiveAmount <= 0) {
+            return;
         }
+        switch (scrollMode) {
+            case AGGREGATE:
+                mouseRobot.scroll(positiveAmount * tick);
+                break;
+            case BURST:
+                for (int scrollTick = 1; scrollTick < positiveAmount; scrollTick++) {
+                    mouseRobot.scrollNoWait(tick);
+                }
+                mouseRobot.scroll(tick);
+                break;
+            default:
+                for (int scrollTick = 0; scrollTick < positiveAmount; scrollTick++) {
+                    mouseRobot.scroll(tick);
+                }
+                break;
+        }
+    }
+
+    private static ScrollMode scrollMode(String scrollModeName) {
+        String upperCaseScrollModeName = scrollModeName.toUpperCase(Locale.ROOT);
+        for (ScrollMode scrollMode : ScrollMode.values()) {
+            if (scrollMode.name().equals(upperCaseScrollModeName)) {
+                return scrollMode;
+            }
+        }
+        throw new IllegalStateException("Unknown scroll mode " +
+            "'" + PROPERTY_TESTFX_SCROLL + "=" + scrollModeName + "'");
     }
+
+    /**
+     * Defines how the ticks of a scroll are sent to the mouse wheel.
+     */
+    public enum ScrollMode {
+
+        /**
+         * Every tick is sent as a separate wheel event, followed by a wait for the events to be
+         * processed. This is the closest to scrolling with a real mouse wheel.
+         */
+        TICK,
+
+        /**
+         * Every tick is sent as a separate wheel event, but only the last one is followed by a
+         * wait for the events to be processed.
+         */
+        BURST,
+
+        /**
+         * All ticks are sent as a single wheel event with the full amount, followed by a wait for
+         * the events to be processed.
+         */
+        AGGREGATE
+
+    }
+
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.robot.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javafx.application.Platform;
+
+import org.testfx.api.annotation.Unstable;
+import org.testfx.robot.SleepRobot;
+import org.testfx.util.WaitForAsyncUtils;
+
+/**
+ * A {@link SleepRobot} that does not sleep in wall time. Each call advances a virtual clock by the
+ * given duration. Once the virtual clock has advanced by at least {@value #IDLE_WAIT_INTERVAL_IN_MILLIS}
+ * milliseconds since the last wait, it waits until the JavaFX Application Thread has processed its
+ * pending events.
+ * <p>
+ * The pauses of the robots, e.g. between typed keys or mouse move steps, only give the application
+ * the chance to handle the previous events. This robot keeps that guarantee, but does not wait any
+ * longer than needed, which makes keyboard and mouse heavy tests deterministic and fast. Shorter
+ * pauses, e.g. the one millisecond between the steps of a mouse move, are added up instead of waiting
+ * after each of them, as the events are handled in order anyway. Code that depends on wall time, e.g.
+ * animations or timeouts, will not see the skipped time.
+ */
+@Unstable(reason = "class was recently added")
+public class VirtualSleepRobotImpl implements SleepRobot {
+
+    //---------------------------------------------------------------------------------------------
+    // CONSTANTS.
+    //---------------------------------------------------------------------------------------------
+
+    private static final long IDLE_WAIT_INTERVAL_IN_MILLIS = 10;
+
+    //---------------------------------------------------------------------------------------------
+    // PRIVATE FIELDS.
+    //---------------------------------------------------------------------------------------------
+
+    private final AtomicLong virtualTimeInMillis = new AtomicLong();
+
+    private final AtomicLong virtualTimeSinceIdleWaitInMillis = new AtomicLong();
+
+    //---------------------------------------------------------------------------------------------
+    // METHODS.
+    //---------------------------------------------------------------------------------------------
+
+    @Override
+    public void sleep(long milliseconds) {
+        virtualTimeInMillis.addAndGet(milliseconds);
+        if (virtualTimeSinceIdleWaitInMillis.addAndGet(milliseconds) < IDLE_WAIT_INTERVAL_IN_MILLIS) {
+            return;
+        }
+        virtualTimeSinceIdleWaitInMillis.set(0);
+        if (!Platform.isFxApplicationThread()) {
+            WaitForAsyncUtils.waitForFxEvents();
+        }
+    }
+
+    @Override
+    public void sleep(long duration, TimeUnit timeUnit) {
+        sleep(timeUnit.toMillis(duration));
+    }
+
+    /**
+     * Returns the virtual time that has passed in the calls to {@code sleep}.
+     *
+     * @return the virtual time in milliseconds
+     */
+    public long getVirtualTimeInMillis() {
+        return virtualTimeInMillis.get();
+    }
+
+}
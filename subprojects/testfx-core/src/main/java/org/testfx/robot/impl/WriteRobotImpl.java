@@ -16,8 +16,8 @@
  */
 package org.testfx.robot.impl;
 
-import java.util.stream.Collectors;
-
+import java.util.ArrayList;
+import java.util.List;
 import javafx.scene.Scene;
 import javafx.scene.input.KeyCode;
 import javafx.stage.Window;
@@ -33,10 +33,16 @@ public class WriteRobotImpl implements WriteRobot {
 
     private static final long SLEEP_AFTER_CHARACTER_IN_MILLIS = 25;
 
+    private static final String PROPERTY_TESTFX_WRITE = "testfx.robot.write";
+    private static final String PROPERTY_TESTFX_WRITE_CHARACTER = "character";
+    private static final String PROPERTY_TESTFX_WRITE_BATCH = "batch";
+
     public BaseRobot baseRobot;
     public SleepRobot sleepRobot;
     public WindowFinder windowFinder;
 
+    private final boolean batchWrite;
+
     //---------------------------------------------------------------------------------------------
     // CONSTRUCTORS.
     //---------------------------------------------------------------------------------------------
@@ -44,9 +50,30 @@ public class WriteRobotImpl implements WriteRobot {
     public WriteRobotImpl(BaseRobot baseRobot,
                           SleepRobot sleepRobot,
                           WindowFinder windowFinder) {
+        this(baseRobot, sleepRobot, windowFinder, isBatchWrite(
+                System.getProperty(PROPERTY_TESTFX_WRITE, PROPERTY_TESTFX_WRITE_CHARACTER)));
+    }
+
+    /**
+     * Creates a write robot. If {@code batchWrite} is {@literal true} the key events of all characters of a
+     * {@link #write(String) written text} are sent to the JavaFX Application Thread in one batch, followed by
+     * a single wait for the events to be processed. Otherwise every character is sent separately and followed
+     * by a wait and a short sleep. The default is chosen by the system property {@code testfx.robot.write}
+     * ({@code character} or {@code batch}).
+     *
+     * @param baseRobot the robot to send the key events with
+     * @param sleepRobot the robot to sleep with after each character
+     * @param windowFinder the finder of the window to write to
+     * @param batchWrite whether the characters of a text are written in one batch
+     */
+    public WriteRobotImpl(BaseRobot baseRobot,
+                          SleepRobot sleepRobot,
+                          WindowFinder windowFinder,
+                          boolean batchWrite) {
         this.baseRobot = baseRobot;
         this.sleepRobot = sleepRobot;
         this.windowFinder = windowFinder;
+        this.batchWrite = batchWrite;
     }
 
     //---------------------------------------------------------------------------------------------
@@ -62,8 +89,12 @@ public class WriteRobotImpl implements WriteRobot {
     @Override
     public void write(String text) {
         Scene scene = fetchTargetWindow().getScene();
-        for (char character : text.chars().mapToObj(i -> (char) i).collect(Collectors.toList())) {
-            typeCharacterInScene(character, scene);
+        if (batchWrite) {
+            typeTextInScene(text, scene);
+            return;
+        }
+        for (int index = 0; index < text.length(); index++) {
+            typeCharacterInScene(text.charAt(index), scene);
             sleepRobot.sleep(SLEEP_AFTER_CHARACTER_IN_MILLIS);
         }
     }
@@ -90,6 +121,29 @@ public class WriteRobotImpl implements WriteRobot {
         baseRobot.awaitEvents();
     }
 
+    private void typeTextInScene(String text,
+                                 Scene scene) {
+        List<KeyCode> keys = new ArrayList<>(text.length());
+        for (int index = 0; index < text.length(); index++) {
+            keys.add(determineKeyCode(text.charAt(index)));
+        }
+        baseRobot.typeKeyboard(scene, keys, text);
+        baseRobot.awaitEvents();
+    }
+
+    private static boolean isBatchWrite(String writeModeName) {
+        if (PROPERTY_TESTFX_WRITE_BATCH.equals(writeModeName)) {
+            return true;
+        }
+        else if (PROPERTY_TESTFX_WRITE_CHARACTER.equals(writeModeName)) {
+            return false;
+        }
+        else {
+            throw new IllegalStateException("Unknown write mode " +
+                "'" + PROPERTY_TESTFX_WRITE + "=" + writeModeName + "'");
+        }
+    }
+
     private KeyCode determineKeyCode(char character) {
         KeyCode key = KeyCode.UNDEFINED;
         key = (character == '\n') ? KeyCode.ENTER : key;
@@ -56,6 +56,8 @@ public class AwtRobotAdapter implements RobotAdapter<Robot> {
 
     private static final Map<MouseButton, Integer> AWT_BUTTONS;
 
+    private static final int WAIT_FOR_IDLE_ATTEMPTS_COUNT = 5;
+
     private Robot awtRobot;
 
     //---------------------------------------------------------------------------------------------
@@ -142,7 +144,9 @@ public class AwtRobotAdapter implements RobotAdapter<Robot> {
 
     @Override
     public void timerWaitForIdle() {
-        waitForFxEvents();
+        // events are delivered through the native event queue, so they may not have reached the
+        // JavaFX Application Thread yet when it looks idle.
+        waitForFxEvents(WAIT_FOR_IDLE_ATTEMPTS_COUNT);
     }
 
     //---------------------------------------------------------------------------------------------
@@ -37,7 +37,7 @@ import org.testfx.api.annotation.Unstable;
 import org.testfx.service.adapter.RobotAdapter;
 
 import static org.testfx.internal.JavaVersionAdapter.convertToKeyCodeId;
-import static org.testfx.util.WaitForAsyncUtils.asyncFx;
+import static org.testfx.util.WaitForAsyncUtils.queueFx;
 import static org.testfx.util.WaitForAsyncUtils.waitForAsyncFx;
 import static org.testfx.util.WaitForAsyncUtils.waitForFxEvents;
 
@@ -92,12 +92,12 @@ public class GlassRobotAdapter implements RobotAdapter<Robot> {
 
     @Override
     public void keyPress(KeyCode key) {
-        asyncFx(() -> useRobot().keyPress(convertToKeyCodeId(key)));
+        queueFx(() -> useRobot().keyPress(convertToKeyCodeId(key)));
     }
 
     @Override
     public void keyRelease(KeyCode key) {
-        asyncFx(() -> useRobot().keyRelease(convertToKeyCodeId(key)));
+        queueFx(() -> useRobot().keyRelease(convertToKeyCodeId(key)));
     }
 
     // MOUSE.
@@ -110,22 +110,22 @@ public class GlassRobotAdapter implements RobotAdapter<Robot> {
 
     @Override
     public void mouseMove(Point2D location) {
-        asyncFx(() -> useRobot().mouseMove((int) location.getX(), (int) location.getY()));
+        queueFx(() -> useRobot().mouseMove((int) location.getX(), (int) location.getY()));
     }
 
     @Override
     public void mousePress(MouseButton button) {
-        asyncFx(() -> useRobot().mousePress(convertToButtonId(button)));
+        queueFx(() -> useRobot().mousePress(convertToButtonId(button)));
     }
 
     @Override
     public void mouseRelease(MouseButton button) {
-        asyncFx(() -> useRobot().mouseRelease(convertToButtonId(button)));
+        queueFx(() -> useRobot().mouseRelease(convertToButtonId(button)));
     }
 
     @Override
     public void mouseWheel(int wheelAmount) {
-        asyncFx(() -> useRobot().mouseWheel(wheelAmount));
+        queueFx(() -> useRobot().mouseWheel(wheelAmount));
     }
 
     // CAPTURE.
@@ -0,0 +1,509 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.service.adapter.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import javafx.event.Event;
+import javafx.event.EventTarget;
+import javafx.event.EventType;
+import javafx.geometry.Point2D;
+import javafx.geometry.Point3D;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.PickResult;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.stage.Window;
+
+import org.testfx.api.annotation.Unstable;
+import org.testfx.internal.JavaVersionAdapter;
+import org.testfx.service.adapter.RobotAdapter;
+
+import static org.testfx.util.WaitForAsyncUtils.queueFx;
+import static org.testfx.util.WaitForAsyncUtils.waitForAsyncFx;
+import static org.testfx.util.WaitForAsyncUtils.waitForFxEvents;
+
+/**
+ * A {@link RobotAdapter} that does not use the input queue of the operating system, but fires the
+ * key, mouse and scroll events directly into the scene graph of the showing windows.
+ * <p>
+ * Mouse events are sent to the node that is picked at the mouse location in the topmost window,
+ * accompanied by the entered and exited events of the nodes the mouse moves over. Dragged and
+ * released events are sent to the node the button was pressed on, and clicked events are
+ * synthesized if a button is released over that node. Key events are sent to the focus owner of
+ * the focused window, and printable keys are followed by a key typed event. Captures are taken
+ * with {@link Scene#snapshot(WritableImage)}, so only the content of the windows is captured.
+ * <p>
+ * As the events do not pass the internal mouse handling of the scenes, the hover and pressed
+ * states of nodes and drag-and-drop gestures are not updated. Select this adapter with the system
+ * property {@code testfx.robot=javafx}.
+ */
+@Unstable(reason = "class was recently added")
+public class JavafxEventRobotAdapter implements RobotAdapter<Void> {
+
+    private static final int RETRIEVAL_TIMEOUT_IN_MILLIS = 10000;
+    private static final long MULTI_CLICK_TIME_IN_MILLIS = 500;
+    private static final double MULTI_CLICK_DISTANCE = 5;
+    private static final double SCROLL_DELTA_PER_WHEEL_AMOUNT = 40;
+
+    private volatile Point2D mouseLocation = Point2D.ZERO;
+
+    // State of the events, only accessed on the JavaFX Application Thread.
+    private boolean isShiftDown;
+    private boolean isControlDown;
+    private boolean isAltDown;
+    private boolean isMetaDown;
+
+    private boolean isPrimaryButtonDown;
+    private boolean isMiddleButtonDown;
+    private boolean isSecondaryButtonDown;
+
+    private List<EventTarget> hoveredTargets = Collections.emptyList();
+    private EventTarget pressedTarget;
+    private Scene pressedScene;
+
+    private MouseButton lastClickButton;
+    private Point2D lastClickLocation;
+    private long lastClickTimeInMillis;
+    private int clickCount;
+
+    //---------------------------------------------------------------------------------------------
+    // METHODS.
+    //---------------------------------------------------------------------------------------------
+
+    // ROBOT.
+
+    @Override
+    public void robotCreate() {}
+
+    @Override
+    public void robotDestroy() {
+        queueFx(() -> {
+            hoveredTargets = Collections.emptyList();
+            pressedTarget = null;
+            pressedScene = null;
+            lastClickButton = null;
+        });
+    }
+
+    @Override
+    public Void getRobotInstance() {
+        return null;
+    }
+
+    // KEY.
+
+    @Override
+    public void keyPress(KeyCode key) {
+        queueFx(() -> {
+            updateModifiers(key, true);
+            EventTarget target = fetchKeyTarget();
+            if (target != null) {
+                Event.fireEvent(target, createKeyEvent(KeyEvent.KEY_PRESSED, KeyEvent.CHAR_UNDEFINED, key));
+                String character = determineTypedCharacter(key);
+                if (character != null) {
+                    Event.fireEvent(fetchKeyTarget(), createKeyEvent(KeyEvent.KEY_TYPED, character,
+                            KeyCode.UNDEFINED));
+                }
+            }
+        });
+    }
+
+    @Override
+    public void keyRelease(KeyCode key) {
+        queueFx(() -> {
+            updateModifiers(key, false);
+            EventTarget target = fetchKeyTarget();
+            if (target != null) {
+                Event.fireEvent(target, createKeyEvent(KeyEvent.KEY_RELEASED, KeyEvent.CHAR_UNDEFINED, key));
+            }
+        });
+    }
+
+    // MOUSE.
+
+    @Override
+    public Point2D getMouseLocation() {
+        return mouseLocation;
+    }
+
+    @Override
+    public void mouseMove(Point2D location) {
+        mouseLocation = location;
+        queueFx(() -> {
+            Scene scene = fetchSceneAt(location);
+            Node node = scene != null ? pickNode(scene, location) : null;
+            updateHoveredTargets(scene, node, location);
+            if (pressedTarget != null) {
+                fireMouseEvent(pressedTarget, pressedScene, MouseEvent.MOUSE_DRAGGED, location, fetchDraggedButton(),
+                        0, node);
+            }
+            else if (scene != null) {
+                fireMouseEvent(targetOf(scene, node), scene, MouseEvent.MOUSE_MOVED, location, MouseButton.NONE,
+                        0, node);
+            }
+        });
+    }
+
+    @Override
+    public void mousePress(MouseButton button) {
+        Point2D location = mouseLocation;
+        queueFx(() -> {
+            Scene scene = fetchSceneAt(location);
+            if (scene == null) {
+                return;
+            }
+            Node node = pickNode(scene, location);
+            updateClickCount(button, location);
+            updateButtons(button, true);
+            pressedTarget = targetOf(scene, node);
+            pressedScene = scene;
+            fireMouseEvent(pressedTarget, scene, MouseEvent.MOUSE_PRESSED, location, button, clickCount, node);
+        });
+    }
+
+    @Override
+    public void mouseRelease(MouseButton button) {
+        Point2D location = mouseLocation;
+        queueFx(() -> {
+            updateButtons(button, false);
+            if (pressedTarget == null) {
+                return;
+            }
+            EventTarget target = pressedTarget;
+            Scene scene = pressedScene;
+            Node node = scene == fetchSceneAt(location) ? pickNode(scene, location) : null;
+            if (!isPrimaryButtonDown && !isMiddleButtonDown && !isSecondaryButtonDown) {
+                pressedTarget = null;
+                pressedScene = null;
+            }
+            fireMouseEvent(target, scene, MouseEvent.MOUSE_RELEASED, location, button, clickCount, node);
+            if (isSameOrDescendant(targetOf(scene, node), target)) {
+                fireMouseEvent(target, scene, MouseEvent.MOUSE_CLICKED, location, button, clickCount, node);
+            }
+        });
+    }
+
+    @Override
+    public void mouseWheel(int wheelAmount) {
+        Point2D location = mouseLocation;
+        queueFx(() -> {
+            Scene scene = fetchSceneAt(location);
+            if (scene != null) {
+                Node node = pickNode(scene, location);
+                Event.fireEvent(targetOf(scene, node), createScrollEvent(scene, location, wheelAmount, node));
+            }
+        });
+    }
+
+    // CAPTURE.
+
+    @Override
+    public Color getCapturePixelColor(Point2D location) {
+        Image image = getCaptureRegion(new Rectangle2D(location.getX(), location.getY(), 1, 1));
+        return image.getPixelReader().getColor(0, 0);
+    }
+
+    @Override
+    public Image getCaptureRegion(Rectangle2D region) {
+        return waitForAsyncFx(RETRIEVAL_TIMEOUT_IN_MILLIS, () -> captureWindows(region));
+    }
+
+    // TIMER.
+
+    @Override
+    public void timerWaitForIdle() {
+        waitForFxEvents();
+    }
+
+    //---------------------------------------------------------------------------------------------
+    // PRIVATE METHODS.
+    //---------------------------------------------------------------------------------------------
+
+    private Scene fetchSceneAt(Point2D location) {
+        // windows are ordered by creation, so later windows (e.g. popups) are assumed to be on top.
+        List<Window> windows = JavaVersionAdapter.getWindows();
+        for (int index = windows.size() - 1; index >= 0; index--) {
+            Window window = windows.get(index);
+            Scene scene = window.getScene();
+            if (window.isShowing() && scene != null && sceneBounds(scene).contains(location)) {
+                return scene;
+            }
+        }
+        return null;
+    }
+
+    private EventTarget fetchKeyTarget() {
+        Scene targetScene = null;
+        for (Window window : JavaVersionAdapter.getWindows()) {
+            if (window.isShowing() && window.getScene() != null) {
+                targetScene = window.getScene();
+                if (window.isFocused()) {
+                    break;
+                }
+            }
+        }
+        if (targetScene == null) {
+            return null;
+        }
+        return targetScene.getFocusOwner() != null ? targetScene.getFocusOwner() : targetScene;
+    }
+
+    private static Rectangle2D sceneBounds(Scene scene) {
+        Window window = scene.getWindow();
+        return new Rectangle2D(window.getX() + scene.getX(), window.getY() + scene.getY(),
+                scene.getWidth(), scene.getHeight());
+    }
+
+    private static Point2D toSceneLocation(Scene scene, Point2D location) {
+        Window window = scene.getWindow();
+        return location.subtract(window.getX() + scene.getX(), window.getY() + scene.getY());
+    }
+
+    private static Node pickNode(Scene scene, Point2D location) {
+        Point2D sceneLocation = toSceneLocation(scene, location);
+        return scene.getRoot() != null ? pickNode(scene.getRoot(), sceneLocation) : null;
+    }
+
+    private static Node pickNode(Node node, Point2D sceneLocation) {
+        if (!node.isVisible() || node.isMouseTransparent()) {
+            return null;
+        }
+        Point2D localLocation = node.sceneToLocal(sceneLocation);
+        Node clip = node.getClip();
+        if (clip != null && !clip.contains(clip.parentToLocal(localLocation))) {
+            return null;
+        }
+        if (node instanceof Parent) {
+            List<Node> children = ((Parent) node).getChildrenUnmodifiable();
+            for (int index = children.size() - 1; index >= 0; index--) {
+                Node pickedNode = pickNode(children.get(index), sceneLocation);
+                if (pickedNode != null) {
+                    return pickedNode;
+                }
+            }
+            if (!(node instanceof Region) && !node.isPickOnBounds()) {
+                return null;
+            }
+        }
+        return node.contains(localLocation) ? node : null;
+    }
+
+    private static EventTarget targetOf(Scene scene, Node node) {
+        return node != null ? node : scene;
+    }
+
+    private static boolean isSameOrDescendant(EventTarget target, EventTarget ancestor) {
+        if (target == ancestor) {
+            return true;
+        }
+        if (!(target instanceof Node) || !(ancestor instanceof Node)) {
+            return ancestor instanceof Scene && target instanceof Node && ((Node) target).getScene() == ancestor;
+        }
+        for (Node node = (Node) target; node != null; node = node.getParent()) {
+            if (node == ancestor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void updateHoveredTargets(Scene scene, Node node, Point2D location) {
+        List<EventTarget> targets = new ArrayList<>();
+        for (Node parent = node; parent != null; parent = parent.getParent()) {
+            targets.add(parent);
+        }
+        if (scene != null) {
+            targets.add(scene);
+        }
+        for (EventTarget target : hoveredTargets) {
+            if (!targets.contains(target)) {
+                Scene exitedScene = target instanceof Scene ? (Scene) target : ((Node) target).getScene();
+                if (exitedScene != null && exitedScene.getWindow() != null) {
+                    fireMouseEvent(target, exitedScene, MouseEvent.MOUSE_EXITED_TARGET, location, MouseButton.NONE,
+                            0, node);
+                }
+            }
+        }
+        for (int index = targets.size() - 1; index >= 0; index--) {
+            EventTarget target = targets.get(index);
+            if (!hoveredTargets.contains(target)) {
+                fireMouseEvent(target, scene, MouseEvent.MOUSE_ENTERED_TARGET, location, MouseButton.NONE, 0, node);
+            }
+        }
+        hoveredTargets = targets;
+    }
+
+    private void updateClickCount(MouseButton button, Point2D location) {
+        long timeInMillis = System.currentTimeMillis();
+        boolean isMultiClick = button == lastClickButton && lastClickLocation != null &&
+                lastClickLocation.distance(location) <= MULTI_CLICK_DISTANCE &&
+                timeInMillis - lastClickTimeInMillis <= MULTI_CLICK_TIME_IN_MILLIS;
+        clickCount = isMultiClick ? clickCount + 1 : 1;
+        lastClickButton = button;
+        lastClickLocation = location;
+        lastClickTimeInMillis = timeInMillis;
+    }
+
+    private void updateButtons(MouseButton button, boolean pressed) {
+        switch (button) {
+            case PRIMARY:
+                isPrimaryButtonDown = pressed;
+                break;
+            case MIDDLE:
+                isMiddleButtonDown = pressed;
+                break;
+            case SECONDARY:
+                isSecondaryButtonDown = pressed;
+                break;
+            default:
+                break;
+        }
+    }
+
+    private MouseButton fetchDraggedButton() {
+        if (isPrimaryButtonDown) {
+            return MouseButton.PRIMARY;
+        }
+        else if (isSecondaryButtonDown) {
+            return MouseButton.SECONDARY;
+        }
+        else if (isMiddleButtonDown) {
+            return MouseButton.MIDDLE;
+        }
+        return MouseButton.NONE;
+    }
+
+    private void updateModifiers(KeyCode key, boolean pressed) {
+        switch (key) {
+            case SHIFT:
+                isShiftDown = pressed;
+                break;
+            case CONTROL:
+                isControlDown = pressed;
+                break;
+            case ALT:
+                isAltDown = pressed;
+                break;
+            case META:
+            case COMMAND:
+                isMetaDown = pressed;
+                break;
+            default:
+                break;
+        }
+    }
+
+    private String determineTypedCharacter(KeyCode key) {
+        if (isControlDown || isAltDown || isMetaDown) {
+            return null;
+        }
+        if (key.isLetterKey()) {
+            String character = key.getChar();
+            return isShiftDown ? character.toUpperCase(Locale.ROOT) : character.toLowerCase(Locale.ROOT);
+        }
+        if (key.isKeypadKey() && key.isDigitKey()) {
+            // e.g. "Numpad 1".
+            return key.getName().substring(key.getName().length() - 1);
+        }
+        String character = key.getChar();
+        if (key.isModifierKey() || key.isFunctionKey() || key.isNavigationKey() || key.isArrowKey() ||
+                key.isKeypadKey() || key.isMediaKey() || character.length() != 1) {
+            return null;
+        }
+        char charValue = character.charAt(0);
+        return key.isWhitespaceKey() || (charValue >= ' ' && charValue != '\u007f') ? character : null;
+    }
+
+    private KeyEvent createKeyEvent(EventType<KeyEvent> eventType, String character, KeyCode key) {
+        String text = eventType == KeyEvent.KEY_TYPED ? "" : key.getName();
+        return new KeyEvent(eventType, character, text, key, isShiftDown, isControlDown, isAltDown, isMetaDown);
+    }
+
+    private void fireMouseEvent(EventTarget target, Scene scene, EventType<MouseEvent> eventType, Point2D location,
+                                MouseButton button, int clickCount, Node pickedNode) {
+        Point2D sceneLocation = toSceneLocation(scene, location);
+        PickResult pickResult = createPickResult(pickedNode, sceneLocation);
+        Event.fireEvent(target, new MouseEvent(eventType, sceneLocation.getX(), sceneLocation.getY(),
+                location.getX(), location.getY(), button, clickCount, isShiftDown, isControlDown, isAltDown,
+                isMetaDown, isPrimaryButtonDown, isMiddleButtonDown, isSecondaryButtonDown, false,
+                button == MouseButton.SECONDARY && eventType == MouseEvent.MOUSE_PRESSED, false, pickResult));
+    }
+
+    private ScrollEvent createScrollEvent(Scene scene, Point2D location, int wheelAmount, Node pickedNode) {
+        Point2D sceneLocation = toSceneLocation(scene, location);
+        // a positive wheel amount scrolls down, which is a negative delta in JavaFX.
+        double deltaY = -wheelAmount * SCROLL_DELTA_PER_WHEEL_AMOUNT;
+        return new ScrollEvent(ScrollEvent.SCROLL, sceneLocation.getX(), sceneLocation.getY(), location.getX(),
+                location.getY(), isShiftDown, isControlDown, isAltDown, isMetaDown, false, false, 0, deltaY, 0, 0,
+                ScrollEvent.HorizontalTextScrollUnits.NONE, 0, ScrollEvent.VerticalTextScrollUnits.NONE, 0, 0,
+                createPickResult(pickedNode, sceneLocation));
+    }
+
+    private static PickResult createPickResult(Node pickedNode, Point2D sceneLocation) {
+        if (pickedNode == null) {
+            return null;
+        }
+        Point2D localLocation = pickedNode.sceneToLocal(sceneLocation);
+        return new PickResult(pickedNode, new Point3D(localLocation.getX(), localLocation.getY(), 0), 0);
+    }
+
+    private Image captureWindows(Rectangle2D region) {
+        int width = (int) region.getWidth();
+        int height = (int) region.getHeight();
+        WritableImage image = new WritableImage(width, height);
+        PixelWriter pixelWriter = image.getPixelWriter();
+        for (Window window : JavaVersionAdapter.getWindows()) {
+            Scene scene = window.getScene();
+            if (!window.isShowing() || scene == null) {
+                continue;
+            }
+            Rectangle2D bounds = sceneBounds(scene);
+            int minX = (int) Math.max(region.getMinX(), Math.ceil(bounds.getMinX()));
+            int minY = (int) Math.max(region.getMinY(), Math.ceil(bounds.getMinY()));
+            int maxX = (int) Math.min(region.getMinX() + width, Math.floor(bounds.getMaxX()));
+            int maxY = (int) Math.min(region.getMinY() + height, Math.floor(bounds.getMaxY()));
+            if (minX >= maxX || minY >= maxY) {
+                continue;
+            }
+            WritableImage snapshot = scene.snapshot(null);
+            int sourceX = minX - (int) Math.ceil(bounds.getMinX());
+            int sourceY = minY - (int) Math.ceil(bounds.getMinY());
+            int copyWidth = Math.min(maxX - minX, (int) snapshot.getWidth() - sourceX);
+            int copyHeight = Math.min(maxY - minY, (int) snapshot.getHeight() - sourceY);
+            if (copyWidth > 0 && copyHeight > 0) {
+                pixelWriter.setPixels(minX - (int) region.getMinX(), minY - (int) region.getMinY(), copyWidth,
+                        copyHeight, snapshot.getPixelReader(), sourceX, sourceY);
+            }
+        }
+        return image;
+    }
+
+}
@@ -16,6 +16,7 @@
  */
 package org.testfx.service.adapter.impl;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 
@@ -39,7 +40,7 @@ import javafx.scene.paint.Color;
 
 import org.testfx.api.annotation.Unstable;
 
-import static org.testfx.util.WaitForAsyncUtils.asyncFx;
+import static org.testfx.util.WaitForAsyncUtils.queueFx;
 
 @Unstable
 public class JavafxRobotAdapter {
@@ -76,21 +77,47 @@ public class JavafxRobotAdapter {
     // KEY.
 
     public void keyPress(KeyCode key) {
-        asyncFx(() -> Event.fireEvent(getEventTarget(scene), createKeyEvent(
+        queueFx(() -> Event.fireEvent(getEventTarget(scene), createKeyEvent(
                 KeyEvent.KEY_PRESSED, key, "")));
     }
 
     public void keyRelease(KeyCode key) {
-        asyncFx(() -> Event.fireEvent(getEventTarget(scene), createKeyEvent(
+        queueFx(() -> Event.fireEvent(getEventTarget(scene), createKeyEvent(
                 KeyEvent.KEY_RELEASED, key, "")));
     }
 
     public void keyType(KeyCode key,
                         String character) {
-        asyncFx(() -> Event.fireEvent(getEventTarget(scene), createKeyEvent(
+        queueFx(() -> Event.fireEvent(getEventTarget(scene), createKeyEvent(
                 KeyEvent.KEY_TYPED, key, character)));
     }
 
+    /**
+     * Types the given characters with a single submission to the JavaFX Application Thread. The key events
+     * are the same as for {@link #keyPress(KeyCode)}, {@link #keyType(KeyCode, String)} and
+     * {@link #keyRelease(KeyCode)} per character, and the event target is determined for every event.
+     *
+     * @param keys the key codes of the characters
+     * @param characters the characters to type
+     */
+    public void keyTypeAll(List<KeyCode> keys,
+                           String characters) {
+        if (keys.size() != characters.length()) {
+            throw new IllegalArgumentException("keys and characters must have the same length but were " +
+                keys.size() + " and " + characters.length());
+        }
+        queueFx(() -> {
+            for (int index = 0; index < characters.length(); index++) {
+                KeyCode key = keys.get(index);
+                String character = String.valueOf(characters.charAt(index));
+                Event.fireEvent(getEventTarget(scene), createKeyEvent(KeyEvent.KEY_PRESSED, key, ""));
+                Event.fireEvent(getEventTarget(scene), createKeyEvent(KeyEvent.KEY_TYPED, KeyCode.UNDEFINED,
+                        character));
+                Event.fireEvent(getEventTarget(scene), createKeyEvent(KeyEvent.KEY_RELEASED, key, ""));
+            }
+        });
+    }
+
     // MOUSE.
 
     public Point2D getMouseLocation() {
@@ -98,25 +125,25 @@ public class JavafxRobotAdapter {
     }
 
     public void mouseMove(Point2D location) {
-        asyncFx(() -> Event.fireEvent(getEventTarget(scene), createMouseEvent(MouseEvent.MOUSE_MOVED,
+        queueFx(() -> Event.fireEvent(getEventTarget(scene), createMouseEvent(MouseEvent.MOUSE_MOVED,
                 (int) location.getX(), (int) location.getY(), lastButtonPressed, 0)));
     }
 
     public void mousePress(MouseButton button,
                            int clickCount) {
-        asyncFx(() -> Event.fireEvent(getEventTarget(scene), createMouseEvent(MouseEvent.MOUSE_PRESSED,
+        queueFx(() -> Event.fireEvent(getEventTarget(scene), createMouseEvent(MouseEvent.MOUSE_PRESSED,
                 sceneMouseX, sceneMouseY, button, clickCount)));
     }
 
     public void mouseRelease(MouseButton button,
                              int clickCount) {
-        asyncFx(() -> Event.fireEvent(getEventTarget(scene), createMouseEvent(MouseEvent.MOUSE_RELEASED,
+        queueFx(() -> Event.fireEvent(getEventTarget(scene), createMouseEvent(MouseEvent.MOUSE_RELEASED,
                 sceneMouseX, sceneMouseY, button, clickCount)));
     }
 
     public void mouseClick(MouseButton button,
                            int clickCount) {
-        asyncFx(() -> Event.fireEvent(getEventTarget(scene), createMouseEvent(MouseEvent.MOUSE_CLICKED,
+        queueFx(() -> Event.fireEvent(getEventTarget(scene), createMouseEvent(MouseEvent.MOUSE_CLICKED,
                 sceneMouseX, sceneMouseY, button, clickCount)));
     }
 
@@ -133,12 +160,12 @@ public class JavafxRobotAdapter {
     }
 
     public void mouseDrag(MouseButton button) {
-        asyncFx(() -> Event.fireEvent(getEventTarget(scene), createMouseEvent(MouseEvent.MOUSE_DRAGGED,
+        queueFx(() -> Event.fireEvent(getEventTarget(scene), createMouseEvent(MouseEvent.MOUSE_DRAGGED,
                 sceneMouseX, sceneMouseY, button, 0)));
     }
 
     public void mouseWheel(int wheelAmount) {
-        asyncFx(() -> Event.fireEvent(getEventTarget(scene), createScrollEvent(wheelAmount)));
+        queueFx(() -> Event.fireEvent(getEventTarget(scene), createScrollEvent(wheelAmount)));
     }
 
     // CAPTURE.
@@ -18,12 +18,14 @@ package org.testfx.service.finder;
 
 import java.util.Collection;
 import java.util.function.Predicate;
+import java.util.regex.Pattern;
 import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.stage.Window;
 
 import org.hamcrest.Matcher;
 import org.testfx.service.query.NodeQuery;
+import org.testfx.util.NodeQueryUtils;
 
 public interface NodeFinder {
 
@@ -52,6 +54,26 @@ public interface NodeFinder {
      */
     <T extends Node> NodeQuery lookup(Predicate<T> predicate);
 
+    /**
+     * Returns a {@link NodeQuery} that stores all the labeled and text input nodes whose text matches
+     * the given pattern.
+     *
+     * @see NodeQueryUtils#hasTextMatching(Pattern)
+     */
+    default NodeQuery lookup(Pattern textPattern) {
+        return lookup(NodeQueryUtils.hasTextMatching(textPattern));
+    }
+
+    /**
+     * Returns a {@link NodeQuery} that stores all the labeled and text input nodes whose text starts
+     * with the given prefix.
+     *
+     * @see NodeQueryUtils#hasTextPrefix(String)
+     */
+    default NodeQuery lookupByTextPrefix(String textPrefix) {
+        return lookup(NodeQueryUtils.hasTextPrefix(textPrefix));
+    }
+
     /**
      * Returns a {@link NodeQuery} that stores all the root nodes of all windows via
      * {@link WindowFinder#listTargetWindows()}
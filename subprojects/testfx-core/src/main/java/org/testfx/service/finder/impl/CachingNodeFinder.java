@@ -0,0 +1,399 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.service.finder.impl;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.stage.Window;
+
+import org.hamcrest.Matcher;
+import org.testfx.api.annotation.Unstable;
+import org.testfx.service.finder.NodeFinder;
+import org.testfx.service.finder.WindowFinder;
+import org.testfx.service.query.NodeQuery;
+import org.testfx.service.query.NodeQueryFactory;
+import org.testfx.service.query.impl.NodeQueryFactoryImpl;
+import org.testfx.util.FxPulses;
+import org.testfx.util.WaitForAsyncUtils;
+
+/**
+ * A {@link NodeFinder} that memoizes the results of the selector lookups of another {@code NodeFinder},
+ * keyed by the query and the target windows. The cached results are dropped on the next pulse of
+ * the JavaFX toolkit and, if a {@link SceneGraphIndex} is given, on every change of the scene graphs
+ * it observes, so that e.g. {@code verifyThat("#x", ...)} followed by {@code clickOn("#x")} only
+ * walks the scene graphs once.
+ *
+ * <p>The results are only looked up when the returned {@link NodeQuery} is evaluated: {@code query()}
+ * still stops at the first matching node (and only caches that node), {@code queryAll()} caches all
+ * matching nodes and chaining further lookups starts from the cached nodes, so it does not change
+ * the cache.
+ *
+ * <p>The JavaFX toolkit only pulses if something needs to be rendered, so a change of a hidden window
+ * is only noticed through the scene graph index, which observes windows, children, ids, style classes
+ * and texts. Selectors that depend on other state, e.g. pseudo-classes, may still return a stale result
+ * until the next pulse. Lookups by {@link Matcher} or {@link Predicate} may depend on any state of the
+ * nodes and are therefore never cached.
+ */
+@Unstable(reason = "class was recently added")
+public class CachingNodeFinder implements NodeFinder {
+
+    //---------------------------------------------------------------------------------------------
+    // CONSTANTS.
+    //---------------------------------------------------------------------------------------------
+
+    private static final long INSTALL_TIMEOUT_IN_MILLIS = 10000;
+
+    //---------------------------------------------------------------------------------------------
+    // PRIVATE FIELDS.
+    //---------------------------------------------------------------------------------------------
+
+    private final NodeFinder nodeFinder;
+
+    private final WindowFinder windowFinder;
+
+    private final Supplier<SceneGraphIndex> sceneGraphIndexSupplier;
+
+    private volatile SceneGraphIndex sceneGraphIndex;
+
+    private volatile boolean installed;
+
+    private final NodeQueryFactory nodeQueryFactory = new NodeQueryFactoryImpl();
+
+    private final Map<List<Object>, Set<Node>> cachedNodes = new HashMap<>();
+
+    private final Map<List<Object>, Optional<Node>> cachedFirstNodes = new HashMap<>();
+
+    private long cachedGeneration = -1;
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    //---------------------------------------------------------------------------------------------
+    // CONSTRUCTORS.
+    //---------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a {@code CachingNodeFinder} whose cached results are dropped on every pulse.
+     */
+    public CachingNodeFinder(NodeFinder nodeFinder,
+                             WindowFinder windowFinder) {
+        this(nodeFinder, windowFinder, (Supplier<SceneGraphIndex>) null);
+    }
+
+    /**
+     * Creates a {@code CachingNodeFinder} whose cached results are dropped on every pulse and on
+     * every change of the scene graphs observed by the given {@code sceneGraphIndex}.
+     */
+    public CachingNodeFinder(NodeFinder nodeFinder,
+                             WindowFinder windowFinder,
+                             SceneGraphIndex sceneGraphIndex) {
+        this(nodeFinder, windowFinder, () -> sceneGraphIndex);
+    }
+
+    /**
+     * Creates a {@code CachingNodeFinder} whose cached results are dropped on every pulse and on
+     * every change of the scene graphs observed by the {@link SceneGraphIndex} of the given
+     * {@code sceneGraphIndexSupplier}. The index is requested on the JavaFX Application Thread on the
+     * first lookup, so that the finder can be created before the JavaFX toolkit is started.
+     */
+    public CachingNodeFinder(NodeFinder nodeFinder,
+                             WindowFinder windowFinder,
+                             Supplier<SceneGraphIndex> sceneGraphIndexSupplier) {
+        this.nodeFinder = nodeFinder;
+        this.windowFinder = windowFinder;
+        this.sceneGraphIndexSupplier = sceneGraphIndexSupplier;
+    }
+
+    //---------------------------------------------------------------------------------------------
+    // METHODS.
+    //---------------------------------------------------------------------------------------------
+
+    @Override
+    public NodeQuery lookup(String query) {
+        return new CachedNodeQuery(query, () -> nodeFinder.lookup(query));
+    }
+
+    @Override
+    public <T> NodeQuery lookup(Matcher<T> matcher) {
+        return nodeFinder.lookup(matcher);
+    }
+
+    @Override
+    public <T extends Node> NodeQuery lookup(Predicate<T> predicate) {
+        return nodeFinder.lookup(predicate);
+    }
+
+    @Override
+    public NodeQuery lookup(Pattern textPattern) {
+        return nodeFinder.lookup(textPattern);
+    }
+
+    @Override
+    public NodeQuery lookupByTextPrefix(String textPrefix) {
+        return nodeFinder.lookupByTextPrefix(textPrefix);
+    }
+
+    @Override
+    public NodeQuery fromAll() {
+        return nodeFinder.fromAll();
+    }
+
+    @Override
+    public NodeQuery from(Node... parentNodes) {
+        return nodeFinder.from(parentNodes);
+    }
+
+    @Override
+    public NodeQuery from(Collection<Node> parentNodes) {
+        return nodeFinder.from(parentNodes);
+    }
+
+    @Override
+    public NodeQuery from(NodeQuery nodeQuery) {
+        return nodeFinder.from(nodeQuery);
+    }
+
+    @Override
+    public Node rootNode(Window window) {
+        return nodeFinder.rootNode(window);
+    }
+
+    @Override
+    public Node rootNode(Scene scene) {
+        return nodeFinder.rootNode(scene);
+    }
+
+    @Override
+    public Node rootNode(Node node) {
+        return nodeFinder.rootNode(node);
+    }
+
+    /**
+     * Returns the number of evaluated lookups that were answered from the cache.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns the number of evaluated lookups that were passed to the decorated {@code NodeFinder}.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Drops all cached results and resets the hit and miss counts.
+     */
+    public synchronized void clear() {
+        cachedNodes.clear();
+        cachedFirstNodes.clear();
+        hitCount.set(0);
+        missCount.set(0);
+    }
+
+    //---------------------------------------------------------------------------------------------
+    // PRIVATE METHODS.
+    //---------------------------------------------------------------------------------------------
+
+    private synchronized <V> V fetchCached(Map<List<Object>, V> cache,
+                                           List<Object> key,
+                                           long generation) {
+        if (generation != cachedGeneration) {
+            cachedNodes.clear();
+            cachedFirstNodes.clear();
+            cachedGeneration = generation;
+        }
+        return cache.get(key);
+    }
+
+    private synchronized <V> void storeCached(Map<List<Object>, V> cache,
+                                              List<Object> key,
+                                              long generation,
+                                              V value) {
+        // The value is only cached if the scene graphs did not change while looking it up.
+        if (generation == cachedGeneration && generation == fetchGeneration()) {
+            cache.put(key, value);
+        }
+    }
+
+    private void countLookup(boolean cached) {
+        if (cached) {
+            hitCount.incrementAndGet();
+        }
+        else {
+            missCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Returns a number that changes on every pulse and on every change observed by the scene graph
+     * index.
+     */
+    private long fetchGeneration() {
+        if (!installed) {
+            if (Platform.isFxApplicationThread()) {
+                install();
+            }
+            else {
+                WaitForAsyncUtils.waitForAsyncFx(INSTALL_TIMEOUT_IN_MILLIS, this::install);
+            }
+        }
+        long modificationCount = sceneGraphIndex == null ? 0 : sceneGraphIndex.getModificationCount();
+        return FxPulses.count() + modificationCount;
+    }
+
+    private void install() {
+        if (!installed) {
+            FxPulses.install();
+            if (sceneGraphIndexSupplier != null) {
+                sceneGraphIndex = sceneGraphIndexSupplier.get();
+            }
+            installed = true;
+        }
+    }
+
+    //---------------------------------------------------------------------------------------------
+    // PRIVATE CLASSES.
+    //---------------------------------------------------------------------------------------------
+
+    /**
+     * A {@link NodeQuery} that looks up its nodes in the cache when it is evaluated.
+     */
+    private final class CachedNodeQuery implements NodeQuery {
+
+        private final List<Object> key;
+        private final Supplier<NodeQuery> lookup;
+
+        private CachedNodeQuery(String query,
+                                Supplier<NodeQuery> lookup) {
+            this.key = Arrays.asList(query, windowFinder.listTargetWindows());
+            this.lookup = lookup;
+        }
+
+        @Override
+        public NodeQuery from(Node... parentNodes) {
+            return refine().from(parentNodes);
+        }
+
+        @Override
+        public NodeQuery from(Collection<Node> parentNodes) {
+            return refine().from(parentNodes);
+        }
+
+        @Override
+        public NodeQuery lookup(String query) {
+            return refine().lookup(query);
+        }
+
+        @Override
+        public <T> NodeQuery lookup(Matcher<T> matcher) {
+            return refine().lookup(matcher);
+        }
+
+        @Override
+        public <T extends Node> NodeQuery lookup(Predicate<T> predicate) {
+            return refine().lookup(predicate);
+        }
+
+        @Override
+        public NodeQuery lookup(Function<Node, Set<Node>> function) {
+            return refine().lookup(function);
+        }
+
+        @Override
+        public <T> NodeQuery match(Matcher<T> matcher) {
+            return refine().match(matcher);
+        }
+
+        @Override
+        public <T extends Node> NodeQuery match(Predicate<T> predicate) {
+            return refine().match(predicate);
+        }
+
+        @Override
+        public NodeQuery nth(int index) {
+            return refine().nth(index);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T extends Node> T query() {
+            long generation = fetchGeneration();
+            Set<Node> nodes = fetchCached(cachedNodes, key, generation);
+            Optional<Node> node = nodes != null ? nodes.stream().findFirst() :
+                fetchCached(cachedFirstNodes, key, generation);
+            countLookup(node != null);
+            if (node == null) {
+                node = Optional.ofNullable(lookup.get().query());
+                storeCached(cachedFirstNodes, key, generation, node);
+            }
+            return (T) node.orElse(null);
+        }
+
+        @Override
+        public <T extends Node> Optional<T> tryQuery() {
+            return Optional.ofNullable(query());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T extends Node> Set<T> queryAll() {
+            return (Set<T>) new LinkedHashSet<>(fetchAll());
+        }
+
+        @Override
+        public String explain() {
+            return lookup.get().explain();
+        }
+
+        /**
+         * Returns a new query of all cached nodes to chain further lookups on.
+         */
+        private NodeQuery refine() {
+            return nodeQueryFactory.build().from(fetchAll());
+        }
+
+        private Set<Node> fetchAll() {
+            long generation = fetchGeneration();
+            Set<Node> nodes = fetchCached(cachedNodes, key, generation);
+            countLookup(nodes != null);
+            if (nodes == null) {
+                nodes = lookup.get().queryAll();
+                storeCached(cachedNodes, key, generation, nodes);
+            }
+            return nodes;
+        }
+
+    }
+
+}
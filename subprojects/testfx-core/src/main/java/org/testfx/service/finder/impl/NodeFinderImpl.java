@@ -20,6 +20,8 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.stage.Window;
@@ -36,6 +38,15 @@ import org.testfx.util.NodeQueryUtils;
 @Unstable
 public class NodeFinderImpl implements NodeFinder {
 
+    //---------------------------------------------------------------------------------------------
+    // CONSTANTS.
+    //---------------------------------------------------------------------------------------------
+
+    private static final String PROPERTY_TESTFX_FINDER_INDEX = "testfx.finder.index";
+
+    private static final String CSS_ID_SELECTOR_PREFIX = "#";
+    private static final String CSS_CLASS_SELECTOR_PREFIX = ".";
+
     //---------------------------------------------------------------------------------------------
     // PRIVATE FIELDS.
     //---------------------------------------------------------------------------------------------
@@ -44,6 +55,10 @@ public class NodeFinderImpl implements NodeFinder {
 
     private NodeQueryFactory nodeQueryFactory;
 
+    private SceneGraphIndex sceneGraphIndex;
+
+    private volatile boolean useSceneGraphIndex = Boolean.getBoolean(PROPERTY_TESTFX_FINDER_INDEX);
+
     //---------------------------------------------------------------------------------------------
     // CONSTRUCTORS.
     //---------------------------------------------------------------------------------------------
@@ -59,6 +74,14 @@ public class NodeFinderImpl implements NodeFinder {
 
     @Override
     public NodeQuery lookup(String query) {
+        if (useSceneGraphIndex && SceneGraphIndex.isIndexedSelector(query)) {
+            Set<Node> nodes = fetchSceneGraphIndex().lookup(query, windowFinder.listTargetWindows());
+            return nodeQueryFactory.build().from(nodes);
+        }
+        if (useSceneGraphIndex && !isCssSelector(query)) {
+            Set<Node> nodes = fetchSceneGraphIndex().lookupByText(query, windowFinder.listTargetWindows());
+            return nodeQueryFactory.build().from(nodes);
+        }
         return fromAll().lookup(query);
     }
 
@@ -72,11 +95,41 @@ public class NodeFinderImpl implements NodeFinder {
         return fromAll().lookup(predicate);
     }
 
+    @Override
+    public NodeQuery lookup(Pattern textPattern) {
+        if (useSceneGraphIndex) {
+            Set<Node> nodes = fetchSceneGraphIndex().lookupByTextPattern(textPattern, windowFinder.listTargetWindows());
+            return nodeQueryFactory.build().from(nodes);
+        }
+        return fromAll().lookup(NodeQueryUtils.hasTextMatching(textPattern));
+    }
+
+    @Override
+    public NodeQuery lookupByTextPrefix(String textPrefix) {
+        if (useSceneGraphIndex) {
+            Set<Node> nodes = fetchSceneGraphIndex().lookupByTextPrefix(textPrefix, windowFinder.listTargetWindows());
+            return nodeQueryFactory.build().from(nodes);
+        }
+        return fromAll().lookup(NodeQueryUtils.hasTextPrefix(textPrefix));
+    }
+
     @Override
     public NodeQuery fromAll() {
         return nodeQueryFactory.build().from(rootsOfWindows());
     }
 
+    /**
+     * Captures an immutable {@link SceneGraphSnapshot} of the scene graphs of the target windows, which
+     * can be queried from any thread without reading the live scene graphs again.
+     */
+    public SceneGraphSnapshot snapshot() {
+        List<Node> rootNodes = windowFinder.listTargetWindows().stream()
+            .filter(window -> window.getScene() != null)
+            .map(window -> window.getScene().getRoot())
+            .collect(Collectors.toList());
+        return SceneGraphSnapshot.capture(rootNodes);
+    }
+
     @Override
     public NodeQuery from(Node... parentNodes) {
         return nodeQueryFactory.build().from(parentNodes);
@@ -107,10 +160,36 @@ public class NodeFinderImpl implements NodeFinder {
         return node.getScene().getRoot();
     }
 
+    /**
+     * Sets whether id and style class selectors, texts, text prefixes and text patterns are looked up
+     * with a {@link SceneGraphIndex}
+     * instead of walking the scene graphs of the target windows. The index is created on the first
+     * lookup and kept current until the index is disabled again. Defaults to the value of the system
+     * property {@code testfx.finder.index}.
+     */
+    public synchronized void setUseSceneGraphIndex(boolean useSceneGraphIndex) {
+        this.useSceneGraphIndex = useSceneGraphIndex;
+        if (!useSceneGraphIndex && sceneGraphIndex != null) {
+            sceneGraphIndex.close();
+            sceneGraphIndex = null;
+        }
+    }
+
     //---------------------------------------------------------------------------------------------
     // PRIVATE METHODS.
     //---------------------------------------------------------------------------------------------
 
+    private boolean isCssSelector(String query) {
+        return query.startsWith(CSS_ID_SELECTOR_PREFIX) || query.startsWith(CSS_CLASS_SELECTOR_PREFIX);
+    }
+
+    private synchronized SceneGraphIndex fetchSceneGraphIndex() {
+        if (sceneGraphIndex == null) {
+            sceneGraphIndex = new SceneGraphIndex();
+        }
+        return sceneGraphIndex;
+    }
+
     private Set<Node> rootsOfWindows() {
         List<Window> windows = windowFinder.listTargetWindows();
         return NodeQueryUtils.rootsOfWindows(windows);
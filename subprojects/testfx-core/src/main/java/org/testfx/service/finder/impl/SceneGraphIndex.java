@@ -0,0 +1,499 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.service.finder.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import javafx.beans.property.ReadOnlyProperty;
+import javafx.beans.property.StringProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.ListChangeListener;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.Labeled;
+import javafx.scene.control.TextInputControl;
+import javafx.stage.Window;
+
+import org.testfx.api.annotation.Unstable;
+import org.testfx.internal.JavaVersionAdapter;
+import org.testfx.util.WaitForAsyncUtils;
+
+/**
+ * Index of the nodes in the scene graphs of all windows keyed by id, style class, type and text (of
+ * {@link Labeled}s and {@link TextInputControl}s). The index is built once and then kept current by
+ * listeners on the windows, the scenes, the children of every parent and the id, style classes and
+ * text of every node, so that lookups of simple id and style class selectors and of texts do not
+ * need to walk the scene graphs.
+ *
+ * <p>The listeners are registered on the JavaFX Application Thread, the lookups may be done from
+ * any thread. Every indexed node keeps a reference to the index until {@link #close()} is called.
+ */
+@Unstable(reason = "class was recently added")
+public class SceneGraphIndex implements AutoCloseable {
+
+    //---------------------------------------------------------------------------------------------
+    // CONSTANTS.
+    //---------------------------------------------------------------------------------------------
+
+    private static final long ATTACH_TIMEOUT_IN_MILLIS = 10000;
+
+    private static final Pattern SIMPLE_SELECTOR_PATTERN = Pattern.compile("[#.][_a-zA-Z][-_a-zA-Z0-9]*");
+
+    //---------------------------------------------------------------------------------------------
+    // PRIVATE FIELDS.
+    //---------------------------------------------------------------------------------------------
+
+    private final Map<String, Set<Node>> nodesById = new HashMap<>();
+    private final Map<String, Set<Node>> nodesByStyleClass = new HashMap<>();
+    private final Map<Class<?>, Set<Node>> nodesByType = new HashMap<>();
+    private final NavigableMap<String, Set<Node>> nodesByText = new TreeMap<>();
+    private final Map<Node, ListChangeListener<String>> styleClassListeners = new IdentityHashMap<>();
+    private final Set<Window> windows = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private final ListChangeListener<Node> childrenListener = this::childrenChanged;
+    private final ChangeListener<String> idListener = this::idChanged;
+    private final ChangeListener<String> textListener = this::textChanged;
+    private final ChangeListener<Parent> rootListener = this::rootChanged;
+    private final ChangeListener<Scene> sceneListener = this::sceneChanged;
+    private final Runnable windowsListener = this::updateWindows;
+
+    private volatile long modificationCount;
+    private boolean closed;
+
+    //---------------------------------------------------------------------------------------------
+    // CONSTRUCTORS.
+    //---------------------------------------------------------------------------------------------
+
+    /**
+     * Creates the index and indexes the nodes of all windows. Blocks until the index has been built
+     * on the JavaFX Application Thread.
+     */
+    public SceneGraphIndex() {
+        WaitForAsyncUtils.waitForAsyncFx(ATTACH_TIMEOUT_IN_MILLIS, () -> {
+            JavaVersionAdapter.addWindowsListener(windowsListener);
+            updateWindows();
+        });
+    }
+
+    //---------------------------------------------------------------------------------------------
+    // METHODS.
+    //---------------------------------------------------------------------------------------------
+
+    /**
+     * Returns whether the given query is a selector that can be looked up with the index, i.e. a
+     * single id ({@code #id}) or style class ({@code .style-class}) selector.
+     */
+    public static boolean isIndexedSelector(String query) {
+        return SIMPLE_SELECTOR_PATTERN.matcher(query).matches();
+    }
+
+    /**
+     * Returns the nodes of the given windows that match the given id or style class selector (see
+     * {@link #isIndexedSelector(String)}). The nodes are ordered by window and within every window
+     * in the order of a depth-first traversal of its scene graph.
+     */
+    public Set<Node> lookup(String selector, List<Window> targetWindows) {
+        if (!isIndexedSelector(selector)) {
+            throw new IllegalArgumentException("Selector '" + selector + "' cannot be looked up in the index");
+        }
+        String name = selector.substring(1);
+        return selector.charAt(0) == '#' ? lookupById(name, targetWindows) :
+                lookupByStyleClass(name, targetWindows);
+    }
+
+    public Set<Node> lookupById(String id, List<Window> targetWindows) {
+        return inTreeOrder(nodesOf(nodesById, id, targetWindows), targetWindows);
+    }
+
+    public Set<Node> lookupByStyleClass(String styleClass, List<Window> targetWindows) {
+        return inTreeOrder(nodesOf(nodesByStyleClass, styleClass, targetWindows), targetWindows);
+    }
+
+    /**
+     * Returns the {@link Labeled}s and {@link TextInputControl}s of the given windows whose text
+     * equals the given text, like {@link org.testfx.util.NodeQueryUtils#byText(String)}.
+     */
+    public Set<Node> lookupByText(String text, List<Window> targetWindows) {
+        return inTreeOrder(nodesOf(nodesByText, text, targetWindows), targetWindows);
+    }
+
+    /**
+     * Returns the {@link Labeled}s and {@link TextInputControl}s of the given windows whose text
+     * starts with the given prefix.
+     */
+    public Set<Node> lookupByTextPrefix(String prefix, List<Window> targetWindows) {
+        return inTreeOrder(collectNodes(targetWindows, () -> {
+            List<Set<Node>> nodeSets = new ArrayList<>();
+            for (Map.Entry<String, Set<Node>> entry : nodesByText.tailMap(prefix, true).entrySet()) {
+                if (!entry.getKey().startsWith(prefix)) {
+                    break;
+                }
+                nodeSets.add(entry.getValue());
+            }
+            return nodeSets;
+        }), targetWindows);
+    }
+
+    /**
+     * Returns the {@link Labeled}s and {@link TextInputControl}s of the given windows whose text
+     * matches the given pattern. The pattern is matched against every distinct text once.
+     */
+    public Set<Node> lookupByTextPattern(Pattern pattern, List<Window> targetWindows) {
+        return inTreeOrder(collectNodes(targetWindows, () -> nodesByText.entrySet().stream()
+            .filter(entry -> pattern.matcher(entry.getKey()).matches())
+            .map(Map.Entry::getValue)
+            .collect(Collectors.toList())), targetWindows);
+    }
+
+    /**
+     * Returns the nodes of the given windows that are exactly of the given type (subclasses are
+     * not included).
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Node> Set<T> lookupByType(Class<T> type, List<Window> targetWindows) {
+        return (Set<T>) inTreeOrder(nodesOf(nodesByType, type, targetWindows), targetWindows);
+    }
+
+    /**
+     * Returns the number of changes of the indexed scene graphs so far, i.e. of windows shown or
+     * hidden, scenes and roots replaced, children added or removed and ids, style classes and texts
+     * changed. The count can be used to detect that the scene graphs have changed.
+     */
+    public long getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Removes all listeners of the index from the windows and the scene graphs. The index must not be
+     * used afterwards.
+     */
+    @Override
+    public void close() {
+        WaitForAsyncUtils.waitForAsyncFx(ATTACH_TIMEOUT_IN_MILLIS, () -> {
+            JavaVersionAdapter.removeWindowsListener(windowsListener);
+            synchronized (this) {
+                closed = true;
+                new ArrayList<>(windows).forEach(this::detachWindow);
+            }
+        });
+    }
+
+    //---------------------------------------------------------------------------------------------
+    // PRIVATE METHODS.
+    //---------------------------------------------------------------------------------------------
+
+    private <K> List<Node> nodesOf(Map<K, Set<Node>> index, K key, List<Window> targetWindows) {
+        return collectNodes(targetWindows, () -> {
+            Set<Node> nodes = index.get(key);
+            return nodes == null ? Collections.emptyList() : Collections.singletonList(nodes);
+        });
+    }
+
+    private List<Node> collectNodes(List<Window> targetWindows, Supplier<Collection<Set<Node>>> nodeSets) {
+        ensureAttached(targetWindows);
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Index has been closed");
+            }
+            List<Node> nodes = new ArrayList<>();
+            nodeSets.get().forEach(nodes::addAll);
+            return nodes;
+        }
+    }
+
+    private void ensureAttached(List<Window> targetWindows) {
+        // The windows listener may run later than the lookup (e.g. in Java 8, where it runs after
+        // each pulse), so missing windows are attached synchronously.
+        boolean attached;
+        synchronized (this) {
+            attached = windows.containsAll(targetWindows);
+        }
+        if (!attached) {
+            WaitForAsyncUtils.waitForAsyncFx(ATTACH_TIMEOUT_IN_MILLIS, () -> {
+                synchronized (this) {
+                    targetWindows.forEach(this::attachWindow);
+                }
+            });
+        }
+    }
+
+    /**
+     * Orders the given nodes by window and by their position in a depth-first traversal of the scene
+     * graph, and drops the nodes that are not in the given windows. The paths of the ancestors and the
+     * positions of the children of every parent are computed once per call, so that each ancestor and
+     * each list of children is visited once no matter how many nodes share them.
+     */
+    private Set<Node> inTreeOrder(List<Node> nodes, List<Window> targetWindows) {
+        Map<Node, int[]> paths = new IdentityHashMap<>();
+        Map<Parent, Map<Node, Integer>> childPositions = new IdentityHashMap<>();
+        List<Node> orderedNodes = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+            if (pathOf(node, targetWindows, paths, childPositions) != null) {
+                orderedNodes.add(node);
+            }
+        }
+        orderedNodes.sort((node, otherNode) -> comparePaths(paths.get(node), paths.get(otherNode)));
+        return new LinkedHashSet<>(orderedNodes);
+    }
+
+    /**
+     * Returns the index of the window followed by the positions of the node and its ancestors among
+     * their siblings, from the root down, or {@code null} if the node is not in the given windows.
+     */
+    private static int[] pathOf(Node node,
+                                List<Window> targetWindows,
+                                Map<Node, int[]> paths,
+                                Map<Parent, Map<Node, Integer>> childPositions) {
+        if (paths.containsKey(node)) {
+            return paths.get(node);
+        }
+        int[] path = null;
+        Parent parent = node.getParent();
+        if (parent == null) {
+            Scene scene = node.getScene();
+            int windowIndex = scene == null ? -1 : targetWindows.indexOf(scene.getWindow());
+            if (windowIndex != -1) {
+                path = new int[] {windowIndex};
+            }
+        }
+        else {
+            int[] parentPath = pathOf(parent, targetWindows, paths, childPositions);
+            if (parentPath != null) {
+                path = Arrays.copyOf(parentPath, parentPath.length + 1);
+                path[parentPath.length] = childPositions.computeIfAbsent(parent, SceneGraphIndex::positionsOf)
+                    .getOrDefault(node, -1);
+            }
+        }
+        paths.put(node, path);
+        return path;
+    }
+
+    private static Map<Node, Integer> positionsOf(Parent parent) {
+        List<Node> children = parent.getChildrenUnmodifiable();
+        Map<Node, Integer> positions = new IdentityHashMap<>(children.size());
+        for (int index = 0; index < children.size(); index++) {
+            positions.put(children.get(index), index);
+        }
+        return positions;
+    }
+
+    private static int comparePaths(int[] path, int[] otherPath) {
+        int length = Math.min(path.length, otherPath.length);
+        for (int index = 0; index < length; index++) {
+            int result = Integer.compare(path[index], otherPath[index]);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Integer.compare(path.length, otherPath.length);
+    }
+
+    private synchronized void updateWindows() {
+        if (closed) {
+            return;
+        }
+        List<Window> showingWindows = JavaVersionAdapter.getWindows();
+        for (Window window : new ArrayList<>(windows)) {
+            if (!showingWindows.contains(window)) {
+                detachWindow(window);
+            }
+        }
+        showingWindows.forEach(this::attachWindow);
+    }
+
+    private void attachWindow(Window window) {
+        if (windows.add(window)) {
+            modificationCount++;
+            window.sceneProperty().addListener(sceneListener);
+            attachScene(window.getScene());
+        }
+    }
+
+    private void detachWindow(Window window) {
+        if (windows.remove(window)) {
+            modificationCount++;
+            window.sceneProperty().removeListener(sceneListener);
+            detachScene(window.getScene());
+        }
+    }
+
+    private void attachScene(Scene scene) {
+        if (scene != null) {
+            scene.rootProperty().addListener(rootListener);
+            indexTree(scene.getRoot());
+        }
+    }
+
+    private void detachScene(Scene scene) {
+        if (scene != null) {
+            scene.rootProperty().removeListener(rootListener);
+            unindexTree(scene.getRoot());
+        }
+    }
+
+    private void indexTree(Node root) {
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            if (styleClassListeners.containsKey(node)) {
+                continue;
+            }
+            ListChangeListener<String> styleClassListener = change -> styleClassChanged(node, change);
+            styleClassListeners.put(node, styleClassListener);
+            node.getStyleClass().addListener(styleClassListener);
+            node.idProperty().addListener(idListener);
+            addToIndex(nodesById, node.getId(), node);
+            node.getStyleClass().forEach(styleClass -> addToIndex(nodesByStyleClass, styleClass, node));
+            addToIndex(nodesByType, node.getClass(), node);
+            StringProperty textProperty = textPropertyOf(node);
+            if (textProperty != null) {
+                textProperty.addListener(textListener);
+                addToIndex(nodesByText, textProperty.get(), node);
+            }
+            if (node instanceof Parent) {
+                Parent parent = (Parent) node;
+                parent.getChildrenUnmodifiable().addListener(childrenListener);
+                parent.getChildrenUnmodifiable().forEach(pending::push);
+            }
+        }
+    }
+
+    private void unindexTree(Node root) {
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            ListChangeListener<String> styleClassListener = styleClassListeners.remove(node);
+            if (styleClassListener == null) {
+                continue;
+            }
+            node.getStyleClass().removeListener(styleClassListener);
+            node.idProperty().removeListener(idListener);
+            removeFromIndex(nodesById, node.getId(), node);
+            node.getStyleClass().forEach(styleClass -> removeFromIndex(nodesByStyleClass, styleClass, node));
+            removeFromIndex(nodesByType, node.getClass(), node);
+            StringProperty textProperty = textPropertyOf(node);
+            if (textProperty != null) {
+                textProperty.removeListener(textListener);
+                removeFromIndex(nodesByText, textProperty.get(), node);
+            }
+            if (node instanceof Parent) {
+                Parent parent = (Parent) node;
+                parent.getChildrenUnmodifiable().removeListener(childrenListener);
+                parent.getChildrenUnmodifiable().forEach(pending::push);
+            }
+        }
+    }
+
+    private synchronized void childrenChanged(ListChangeListener.Change<? extends Node> change) {
+        modificationCount++;
+        while (change.next()) {
+            change.getRemoved().forEach(this::unindexTree);
+            change.getAddedSubList().forEach(this::indexTree);
+        }
+    }
+
+    private synchronized void styleClassChanged(Node node, ListChangeListener.Change<? extends String> change) {
+        modificationCount++;
+        while (change.next()) {
+            change.getRemoved().forEach(styleClass -> removeFromIndex(nodesByStyleClass, styleClass, node));
+            change.getAddedSubList().forEach(styleClass -> addToIndex(nodesByStyleClass, styleClass, node));
+        }
+        // A style class may occur more than once in the list.
+        node.getStyleClass().forEach(styleClass -> addToIndex(nodesByStyleClass, styleClass, node));
+    }
+
+    private synchronized void idChanged(ObservableValue<? extends String> observable,
+                                        String oldId,
+                                        String newId) {
+        modificationCount++;
+        Node node = (Node) ((ReadOnlyProperty<?>) observable).getBean();
+        removeFromIndex(nodesById, oldId, node);
+        addToIndex(nodesById, newId, node);
+    }
+
+    private synchronized void textChanged(ObservableValue<? extends String> observable,
+                                          String oldText,
+                                          String newText) {
+        modificationCount++;
+        Node node = (Node) ((ReadOnlyProperty<?>) observable).getBean();
+        removeFromIndex(nodesByText, oldText, node);
+        addToIndex(nodesByText, newText, node);
+    }
+
+    private synchronized void rootChanged(ObservableValue<? extends Parent> observable,
+                                          Parent oldRoot,
+                                          Parent newRoot) {
+        modificationCount++;
+        if (oldRoot != null) {
+            unindexTree(oldRoot);
+        }
+        if (newRoot != null) {
+            indexTree(newRoot);
+        }
+    }
+
+    private synchronized void sceneChanged(ObservableValue<? extends Scene> observable,
+                                           Scene oldScene,
+                                           Scene newScene) {
+        modificationCount++;
+        detachScene(oldScene);
+        attachScene(newScene);
+    }
+
+    private static StringProperty textPropertyOf(Node node) {
+        if (node instanceof Labeled) {
+            return ((Labeled) node).textProperty();
+        }
+        else if (node instanceof TextInputControl) {
+            return ((TextInputControl) node).textProperty();
+        }
+        return null;
+    }
+
+    private static <K> void addToIndex(Map<K, Set<Node>> index, K key, Node node) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> Collections.newSetFromMap(new IdentityHashMap<>())).add(node);
+        }
+    }
+
+    private static <K> void removeFromIndex(Map<K, Set<Node>> index, K key, Node node) {
+        Set<Node> nodes = key == null ? null : index.get(key);
+        if (nodes != null && nodes.remove(node) && nodes.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.service.finder.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javafx.application.Platform;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.control.Labeled;
+import javafx.scene.control.TextInputControl;
+
+import org.testfx.api.annotation.Unstable;
+import org.testfx.util.NodeQueryUtils;
+import org.testfx.util.NodeQueryUtils.TraversalAction;
+import org.testfx.util.WaitForAsyncUtils;
+
+/**
+ * An immutable snapshot of scene graphs, captured on the JavaFX Application Thread in a single
+ * traversal. The snapshot holds a flat array of {@link NodeRecord}s in depth-first pre-order, which
+ * can be queried from any thread and in parallel without reading the live scene graph again.
+ */
+@Unstable(reason = "class was recently added")
+public final class SceneGraphSnapshot {
+
+    //---------------------------------------------------------------------------------------------
+    // CONSTANTS.
+    //---------------------------------------------------------------------------------------------
+
+    private static final long CAPTURE_TIMEOUT_IN_MILLIS = 10000;
+
+    //---------------------------------------------------------------------------------------------
+    // PRIVATE FIELDS.
+    //---------------------------------------------------------------------------------------------
+
+    private final NodeRecord[] records;
+
+    //---------------------------------------------------------------------------------------------
+    // CONSTRUCTORS.
+    //---------------------------------------------------------------------------------------------
+
+    private SceneGraphSnapshot(NodeRecord[] records) {
+        this.records = records;
+    }
+
+    //---------------------------------------------------------------------------------------------
+    // STATIC METHODS.
+    //---------------------------------------------------------------------------------------------
+
+    /**
+     * Captures the given root nodes and their descendants on the JavaFX Application Thread and
+     * blocks until the snapshot has been captured.
+     */
+    public static SceneGraphSnapshot capture(Collection<? extends Node> rootNodes) {
+        if (Platform.isFxApplicationThread()) {
+            return captureOnFxThread(rootNodes);
+        }
+        return WaitForAsyncUtils.waitForAsyncFx(CAPTURE_TIMEOUT_IN_MILLIS, () -> captureOnFxThread(rootNodes));
+    }
+
+    //---------------------------------------------------------------------------------------------
+    // METHODS.
+    //---------------------------------------------------------------------------------------------
+
+    /**
+     * Returns all records in depth-first pre-order.
+     */
+    public List<NodeRecord> records() {
+        return Collections.unmodifiableList(Arrays.asList(records));
+    }
+
+    public NodeRecord record(int index) {
+        return records[index];
+    }
+
+    public int size() {
+        return records.length;
+    }
+
+    public Stream<NodeRecord> stream() {
+        return Arrays.stream(records);
+    }
+
+    public Stream<NodeRecord> parallelStream() {
+        return Arrays.stream(records).parallel();
+    }
+
+    /**
+     * Returns the records that pass the given predicate in depth-first pre-order. The predicate
+     * is tested in parallel.
+     */
+    public List<NodeRecord> query(Predicate<NodeRecord> predicate) {
+        return parallelStream()
+            .filter(predicate)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the records of the children of the given record.
+     */
+    public List<NodeRecord> children(NodeRecord parentRecord) {
+        List<NodeRecord> childRecords = new ArrayList<>();
+        for (int index = parentRecord.getIndex() + 1; index < records.length &&
+            records[index].getDepth() > parentRecord.getDepth(); index++) {
+            if (records[index].getParentIndex() == parentRecord.getIndex()) {
+                childRecords.add(records[index]);
+            }
+        }
+        return childRecords;
+    }
+
+    //---------------------------------------------------------------------------------------------
+    // PRIVATE STATIC METHODS.
+    //---------------------------------------------------------------------------------------------
+
+    private static SceneGraphSnapshot captureOnFxThread(Collection<? extends Node> rootNodes) {
+        List<NodeRecord> records = new ArrayList<>();
+        Map<Node, NodeRecord> recordsByNode = new IdentityHashMap<>();
+        for (Node rootNode : rootNodes) {
+            NodeQueryUtils.traverse(rootNode, node -> {
+                NodeRecord parentRecord = node == rootNode ? null : recordsByNode.get(node.getParent());
+                NodeRecord record = new NodeRecord(node, records.size(), parentRecord);
+                records.add(record);
+                recordsByNode.put(node, record);
+                return TraversalAction.CONTINUE;
+            });
+        }
+        return new SceneGraphSnapshot(records.toArray(new NodeRecord[0]));
+    }
+
+    //---------------------------------------------------------------------------------------------
+    // NESTED TYPES.
+    //---------------------------------------------------------------------------------------------
+
+    /**
+     * The immutable state of a single node at the time of the snapshot.
+     */
+    public static final class NodeRecord {
+
+        private final Node node;
+        private final int index;
+        private final int parentIndex;
+        private final int depth;
+        private final Class<? extends Node> type;
+        private final String id;
+        private final List<String> styleClasses;
+        private final String text;
+        private final Bounds boundsInScreen;
+        private final boolean visible;
+
+        private NodeRecord(Node node,
+                           int index,
+                           NodeRecord parentRecord) {
+            this.node = node;
+            this.index = index;
+            this.parentIndex = parentRecord == null ? -1 : parentRecord.index;
+            this.depth = parentRecord == null ? 0 : parentRecord.depth + 1;
+            this.type = node.getClass();
+            this.id = node.getId();
+            this.styleClasses = Collections.unmodifiableList(new ArrayList<>(node.getStyleClass()));
+            this.text = textOf(node);
+            this.boundsInScreen = node.localToScreen(node.getBoundsInLocal());
+            this.visible = node.isVisible() && (parentRecord == null || parentRecord.visible);
+        }
+
+        /**
+         * Returns the live node of the record, e.g. to interact with it. Reading its state does
+         * not read the snapshot.
+         */
+        public Node getNode() {
+            return node;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Returns the index of the record of the parent, or {@code -1} for a root node.
+         */
+        public int getParentIndex() {
+            return parentIndex;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        public Class<? extends Node> getType() {
+            return type;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public List<String> getStyleClasses() {
+            return styleClasses;
+        }
+
+        /**
+         * Returns the text of a {@link Labeled} or a {@link TextInputControl}, {@code null} for
+         * other nodes.
+         */
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * Returns the bounds of the node in screen coordinates, {@code null} if the node was not
+         * shown in a window.
+         */
+        public Bounds getBoundsInScreen() {
+            return boundsInScreen;
+        }
+
+        /**
+         * Returns whether the node and all of its ancestors were visible.
+         */
+        public boolean isVisible() {
+            return visible;
+        }
+
+        public boolean isInstanceOf(Class<?> type) {
+            return type.isAssignableFrom(this.type);
+        }
+
+        public boolean hasId(String id) {
+            return Objects.equals(this.id, id);
+        }
+
+        public boolean hasStyleClass(String styleClass) {
+            return styleClasses.contains(styleClass);
+        }
+
+        public boolean hasText(String text) {
+            return this.text != null && this.text.equals(text);
+        }
+
+        @Override
+        public String toString() {
+            return "NodeRecord[index=" + index + ", type=" + type.getSimpleName() + ", id=" + id +
+                ", styleClasses=" + styleClasses + ", text=" + text + "]";
+        }
+
+        private static String textOf(Node node) {
+            if (node instanceof Labeled) {
+                return ((Labeled) node).getText();
+            }
+            else if (node instanceof TextInputControl) {
+                return ((TextInputControl) node).getText();
+            }
+            return null;
+        }
+
+    }
+
+}
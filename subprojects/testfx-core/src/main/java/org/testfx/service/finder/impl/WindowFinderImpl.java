@@ -16,19 +16,24 @@
  */
 package org.testfx.service.finder.impl;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
+import javafx.application.Platform;
 import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.stage.PopupWindow;
 import javafx.stage.Stage;
 import javafx.stage.Window;
 
+import org.testfx.internal.JavaVersionAdapter;
 import org.testfx.service.finder.WindowFinder;
 
 import static org.testfx.internal.JavaVersionAdapter.getWindows;
@@ -41,6 +46,16 @@ public class WindowFinderImpl implements WindowFinder {
 
     private Window lastTargetWindow;
 
+    private final WindowsListener windowsListener = new WindowsListener(this);
+    private boolean windowsListenerRequested;
+    private volatile boolean windowsListenerAdded;
+    private volatile boolean windowsChanged = true;
+
+    private List<Window> cachedWindows;
+    private Window cachedTargetWindow;
+    private List<Window> cachedWindowsByProximity;
+    private List<Window> cachedWindowsForProximity;
+
     //---------------------------------------------------------------------------------------------
     // METHODS.
     //---------------------------------------------------------------------------------------------
@@ -135,20 +150,78 @@ public class WindowFinderImpl implements WindowFinder {
     // PRIVATE METHODS.
     //---------------------------------------------------------------------------------------------
 
+    /**
+     * Returns the windows. If the list of windows is observable (see
+     * {@link JavaVersionAdapter#isWindowsListObservable()}) they are only copied again after a windows
+     * listener has reported a change. The listener is added on the JavaFX Application Thread on the
+     * first call; until it has been added, the windows are copied on every call. Otherwise (in Java 8)
+     * the windows are compared with the ones of the last call, so that a window shown or hidden before
+     * the next pulse is not missed.
+     */
     @SuppressWarnings("deprecation")
-    private List<Window> fetchWindowsInQueue() {
-        return Collections.unmodifiableList(getWindows());
+    private synchronized List<Window> fetchWindowsInQueue() {
+        if (!JavaVersionAdapter.isWindowsListObservable()) {
+            List<Window> windows = getWindows();
+            if (cachedWindows == null || !windows.equals(cachedWindows)) {
+                cachedWindows = Collections.unmodifiableList(windows);
+            }
+            return cachedWindows;
+        }
+        if (!windowsListenerAdded) {
+            requestWindowsListener();
+            return Collections.unmodifiableList(getWindows());
+        }
+        if (windowsChanged || cachedWindows == null) {
+            // reset before copying, so that a change during the copy is not lost.
+            windowsChanged = false;
+            cachedWindows = Collections.unmodifiableList(getWindows());
+        }
+        return cachedWindows;
     }
 
-    private List<Window> fetchWindowsByProximityTo(Window targetWindow) {
+    /**
+     * Returns the windows ordered by proximity to the given target window. The order is kept until
+     * windows are shown or hidden or the target window changes (the owner of a window cannot change
+     * once it has been shown).
+     */
+    private synchronized List<Window> fetchWindowsByProximityTo(Window targetWindow) {
         List<Window> windows = fetchWindowsInQueue();
-        return orderWindowsByProximityTo(targetWindow, windows);
+        if (cachedWindowsByProximity == null || targetWindow != cachedTargetWindow ||
+            (windows != cachedWindowsForProximity && !windows.equals(cachedWindowsForProximity))) {
+            cachedWindowsForProximity = windows;
+            cachedTargetWindow = targetWindow;
+            cachedWindowsByProximity = orderWindowsByProximityTo(targetWindow, windows);
+        }
+        return cachedWindowsByProximity;
+    }
+
+    private void requestWindowsListener() {
+        if (windowsListenerRequested) {
+            return;
+        }
+        Runnable addWindowsListener = () -> {
+            JavaVersionAdapter.addWindowsListener(windowsListener);
+            windowsChanged = true;
+            windowsListenerAdded = true;
+        };
+        if (Platform.isFxApplicationThread()) {
+            addWindowsListener.run();
+        }
+        else {
+            Platform.runLater(addWindowsListener);
+        }
+        windowsListenerRequested = true;
     }
 
     private List<Window> orderWindowsByProximityTo(Window targetWindow,
                                                    List<Window> windows) {
+        if (windows.size() < 2) {
+            return windows;
+        }
+        Map<Window, Integer> proximities = new IdentityHashMap<>();
+        windows.forEach(window -> proximities.put(window, calculateWindowProximityTo(targetWindow, window)));
         List<Window> copy = new ArrayList<>(windows);
-        copy.sort(Comparator.comparingInt(w -> calculateWindowProximityTo(targetWindow, w)));
+        copy.sort(Comparator.comparingInt(proximities::get));
         return Collections.unmodifiableList(copy);
     }
 
@@ -165,11 +238,13 @@ public class WindowFinderImpl implements WindowFinder {
 
     private boolean isOwnerOf(Window window,
                               Window targetWindow) {
-        Window ownerWindow = retrieveOwnerOf(window);
-        if (ownerWindow == targetWindow) {
-            return true;
+        for (Window ownerWindow = retrieveOwnerOf(window); ownerWindow != null;
+             ownerWindow = retrieveOwnerOf(ownerWindow)) {
+            if (ownerWindow == targetWindow) {
+                return true;
+            }
         }
-        return ownerWindow != null && isOwnerOf(ownerWindow, targetWindow);
+        return false;
     }
 
     private Window retrieveOwnerOf(Window window) {
@@ -192,4 +267,29 @@ public class WindowFinderImpl implements WindowFinder {
         return stage.getTitle() != null && stage.getTitle().matches(stageTitleRegex);
     }
 
+    /**
+     * Marks the windows of a finder as changed. Only holds a weak reference to the finder, so that
+     * finders that are no longer used can be garbage collected; the listener then removes itself.
+     */
+    private static final class WindowsListener implements Runnable {
+
+        private final WeakReference<WindowFinderImpl> windowFinder;
+
+        private WindowsListener(WindowFinderImpl windowFinder) {
+            this.windowFinder = new WeakReference<>(windowFinder);
+        }
+
+        @Override
+        public void run() {
+            WindowFinderImpl finder = windowFinder.get();
+            if (finder != null) {
+                finder.windowsChanged = true;
+            }
+            else {
+                JavaVersionAdapter.removeWindowsListener(this);
+            }
+        }
+
+    }
+
 }
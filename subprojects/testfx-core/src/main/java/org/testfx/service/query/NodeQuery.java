@@ -17,8 +17,10 @@
 package org.testfx.service.query;
 
 import java.util.Collection;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import javafx.scene.Node;
@@ -49,7 +51,10 @@ public interface NodeQuery {
 
     /**
      * Sifts through stored nodes by their id ("#id"), their class (".class"), or the text it has ("text"),
-     * depending on the query used, and keeps only those {@code Node}s that meet the query.
+     * depending on the query used, and keeps only those {@code Node}s that meet the query. Queries that start
+     * with an id or a class are CSS selectors and may go on with combinators, pseudo-classes and attributes
+     * (e.g. "#form > .button:focused" or ".label[text=OK]"), see
+     * {@link org.testfx.service.query.impl.CssSelector}.
      *
      * @param query the query to use
      * @return itself
@@ -129,4 +134,19 @@ public interface NodeQuery {
      */
     <T extends Node> Set<T> queryAll();
 
+    /**
+     * Describes the lookups and matches of this query and how much work evaluating them takes, e.g. the
+     * number of nodes visited, to find out where a query can be narrowed down. By default the query is
+     * evaluated with {@link #queryAll()} and the number of result nodes and the wall time are described.
+     *
+     * @return the description of this query
+     */
+    default String explain() {
+        long startTime = System.nanoTime();
+        int resultNodes = queryAll().size();
+        long wallTimeInMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTime);
+        return getClass().getSimpleName() + "\n    " + resultNodes + " result nodes, " +
+            String.format(Locale.ROOT, "%.3f ms", wallTimeInMicros / 1000.0);
+    }
+
 }
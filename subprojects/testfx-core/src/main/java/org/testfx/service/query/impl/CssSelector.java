@@ -0,0 +1,456 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.service.query.impl;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+import javafx.css.PseudoClass;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+
+import org.testfx.api.annotation.Unstable;
+import org.testfx.util.NodeQueryUtils;
+import org.testfx.util.NodeQueryUtils.TraversalAction;
+
+/**
+ * A CSS selector that has been compiled into a matcher program, which is evaluated against a node
+ * and its ancestors without parsing the selector again. Compiled selectors are cached, so that
+ * {@link #compile(String)} parses every selector only once while it is in use.
+ *
+ * <p>The supported syntax is a comma separated list of selectors, which consist of compound
+ * selectors joined by descendant ({@code " "}) and child ({@code ">"}) combinators. A compound
+ * selector is an optional type selector followed by any number of:
+ * <ul>
+ * <li>id selectors: {@code #id}</li>
+ * <li>style class selectors: {@code .style-class}</li>
+ * <li>pseudo-class selectors: {@code :focused}, {@code :disabled}, {@code :selected} or any other
+ * pseudo-class of the node</li>
+ * <li>attribute selectors: {@code [text]}, {@code [text=OK]}, {@code [text="Save as"]}, with the
+ * operators {@code =}, {@code ^=}, {@code $=} and {@code *=}</li>
+ * </ul>
+ * A type selector ({@code Button}, {@code Labeled}, {@code *}) matches the simple name of the class of
+ * the node or of any of its superclasses. An attribute is read from the public getter of the node
+ * ({@code getText()} for {@code text}, {@code getX()} or {@code isX()} for {@code x}) and compared by
+ * its {@code String} value.
+ */
+@Unstable(reason = "class was recently added")
+public final class CssSelector {
+
+    //---------------------------------------------------------------------------------------------
+    // CONSTANTS.
+    //---------------------------------------------------------------------------------------------
+
+    private static final int CACHE_SIZE = 256;
+
+    private static final Map<String, CssSelector> CACHE = Collections.synchronizedMap(
+        new LinkedHashMap<String, CssSelector>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CssSelector> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        });
+
+    private static final Map<Class<?>, Map<String, Optional<Method>>> GETTERS = new ConcurrentHashMap<>();
+
+    //---------------------------------------------------------------------------------------------
+    // PRIVATE FIELDS.
+    //---------------------------------------------------------------------------------------------
+
+    private final String selector;
+
+    private final List<ComplexSelector> complexSelectors;
+
+    //---------------------------------------------------------------------------------------------
+    // CONSTRUCTORS.
+    //---------------------------------------------------------------------------------------------
+
+    private CssSelector(String selector,
+                        List<ComplexSelector> complexSelectors) {
+        this.selector = selector;
+        this.complexSelectors = complexSelectors;
+    }
+
+    //---------------------------------------------------------------------------------------------
+    // STATIC METHODS.
+    //---------------------------------------------------------------------------------------------
+
+    /**
+     * Returns the compiled form of the given selector, either from the cache of recently used
+     * selectors or by compiling it.
+     *
+     * @throws IllegalArgumentException if the selector is not supported
+     */
+    public static CssSelector compile(String selector) {
+        CssSelector cssSelector = CACHE.get(selector);
+        if (cssSelector == null) {
+            cssSelector = new CssSelector(selector, new Parser(selector).parseSelectorList());
+            CACHE.put(selector, cssSelector);
+        }
+        return cssSelector;
+    }
+
+    //---------------------------------------------------------------------------------------------
+    // METHODS.
+    //---------------------------------------------------------------------------------------------
+
+    /**
+     * Returns whether the given node matches the selector. Descendant and child combinators are
+     * matched against the ancestors of the node.
+     */
+    public boolean matches(Node node) {
+        for (ComplexSelector complexSelector : complexSelectors) {
+            if (complexSelector.matches(node)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the given node and its descendants that match the selector in depth-first order,
+     * like {@link Node#lookupAll(String)}, in a single traversal.
+     */
+    public Set<Node> lookupAll(Node rootNode) {
+        Set<Node> resultNodes = new LinkedHashSet<>();
+        NodeQueryUtils.traverse(rootNode, node -> {
+            if (matches(node)) {
+                resultNodes.add(node);
+            }
+            return TraversalAction.CONTINUE;
+        });
+        return Collections.unmodifiableSet(resultNodes);
+    }
+
+    @Override
+    public String toString() {
+        return selector;
+    }
+
+    //---------------------------------------------------------------------------------------------
+    // PRIVATE STATIC METHODS.
+    //---------------------------------------------------------------------------------------------
+
+    private static boolean hasTypeName(Node node,
+                                       String typeName) {
+        for (Class<?> type = node.getClass(); type != null; type = type.getSuperclass()) {
+            if (type.getSimpleName().equals(typeName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Object readAttribute(Node node,
+                                        String attribute) {
+        Optional<Method> getter = GETTERS.computeIfAbsent(node.getClass(), type -> new ConcurrentHashMap<>())
+            .computeIfAbsent(attribute, name -> findGetter(node.getClass(), name));
+        if (!getter.isPresent()) {
+            return null;
+        }
+        try {
+            return getter.get().invoke(node);
+        }
+        catch (ReflectiveOperationException | RuntimeException ignore) {
+            return null;
+        }
+    }
+
+    private static Optional<Method> findGetter(Class<?> nodeType,
+                                               String attribute) {
+        String capitalizedAttribute = Character.toUpperCase(attribute.charAt(0)) + attribute.substring(1);
+        // The getter has to be looked up on a public class to be invokable.
+        for (Class<?> type = nodeType; type != null; type = type.getSuperclass()) {
+            if (!Modifier.isPublic(type.getModifiers())) {
+                continue;
+            }
+            for (String prefix : new String[] {"get", "is"}) {
+                try {
+                    Method method = type.getMethod(prefix + capitalizedAttribute);
+                    if (method.getReturnType() != void.class) {
+                        return Optional.of(method);
+                    }
+                }
+                catch (NoSuchMethodException ignore) {
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    //---------------------------------------------------------------------------------------------
+    // PRIVATE NESTED CLASSES.
+    //---------------------------------------------------------------------------------------------
+
+    private enum Combinator {
+        DESCENDANT,
+        CHILD
+    }
+
+    /**
+     * Compound selectors joined by combinators, matched from right to left.
+     */
+    private static final class ComplexSelector {
+
+        private final List<Predicate<Node>> compoundSelectors;
+        private final List<Combinator> combinators;
+
+        private ComplexSelector(List<Predicate<Node>> compoundSelectors,
+                                List<Combinator> combinators) {
+            this.compoundSelectors = compoundSelectors;
+            this.combinators = combinators;
+        }
+
+        private boolean matches(Node node) {
+            return matches(node, compoundSelectors.size() - 1);
+        }
+
+        private boolean matches(Node node,
+                                int index) {
+            if (!compoundSelectors.get(index).test(node)) {
+                return false;
+            }
+            if (index == 0) {
+                return true;
+            }
+            Parent parent = node.getParent();
+            if (combinators.get(index - 1) == Combinator.CHILD) {
+                return parent != null && matches(parent, index - 1);
+            }
+            for (Parent ancestor = parent; ancestor != null; ancestor = ancestor.getParent()) {
+                if (matches(ancestor, index - 1)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+    }
+
+    private static final class Parser {
+
+        private final String selector;
+        private int position;
+
+        private Parser(String selector) {
+            this.selector = selector;
+        }
+
+        private List<ComplexSelector> parseSelectorList() {
+            List<ComplexSelector> complexSelectors = new ArrayList<>();
+            do {
+                skipWhitespace();
+                complexSelectors.add(parseComplexSelector());
+            }
+            while (consume(','));
+            if (position < selector.length()) {
+                throw unexpected();
+            }
+            return complexSelectors;
+        }
+
+        private ComplexSelector parseComplexSelector() {
+            List<Predicate<Node>> compoundSelectors = new ArrayList<>();
+            List<Combinator> combinators = new ArrayList<>();
+            compoundSelectors.add(parseCompoundSelector());
+            while (true) {
+                boolean whitespace = skipWhitespace();
+                if (position == selector.length() || peek() == ',') {
+                    break;
+                }
+                if (consume('>')) {
+                    skipWhitespace();
+                    combinators.add(Combinator.CHILD);
+                }
+                else if (whitespace) {
+                    combinators.add(Combinator.DESCENDANT);
+                }
+                else {
+                    throw unexpected();
+                }
+                compoundSelectors.add(parseCompoundSelector());
+            }
+            return new ComplexSelector(compoundSelectors, combinators);
+        }
+
+        private Predicate<Node> parseCompoundSelector() {
+            List<Predicate<Node>> simpleSelectors = new ArrayList<>();
+            if (consume('*')) {
+                simpleSelectors.add(node -> true);
+            }
+            else if (position < selector.length() && isIdentifierChar(peek())) {
+                String typeName = parseIdentifier();
+                simpleSelectors.add(node -> hasTypeName(node, typeName));
+            }
+            while (position < selector.length()) {
+                if (consume('#')) {
+                    String id = parseIdentifier();
+                    simpleSelectors.add(node -> id.equals(node.getId()));
+                }
+                else if (consume('.')) {
+                    String styleClass = parseIdentifier();
+                    simpleSelectors.add(node -> node.getStyleClass().contains(styleClass));
+                }
+                else if (consume(':')) {
+                    PseudoClass pseudoClass = PseudoClass.getPseudoClass(parseIdentifier());
+                    simpleSelectors.add(node -> node.getPseudoClassStates().contains(pseudoClass));
+                }
+                else if (consume('[')) {
+                    simpleSelectors.add(parseAttributeSelector());
+                }
+                else {
+                    break;
+                }
+            }
+            if (simpleSelectors.isEmpty()) {
+                throw unexpected();
+            }
+            return node -> {
+                for (Predicate<Node> simpleSelector : simpleSelectors) {
+                    if (!simpleSelector.test(node)) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        }
+
+        private Predicate<Node> parseAttributeSelector() {
+            skipWhitespace();
+            String attribute = parseIdentifier();
+            skipWhitespace();
+            if (consume(']')) {
+                return node -> readAttribute(node, attribute) != null;
+            }
+            BiPredicate<String, String> operator = parseAttributeOperator();
+            skipWhitespace();
+            String value = parseAttributeValue();
+            skipWhitespace();
+            if (!consume(']')) {
+                throw unexpected();
+            }
+            return node -> {
+                Object attributeValue = readAttribute(node, attribute);
+                return attributeValue != null && operator.test(Objects.toString(attributeValue), value);
+            };
+        }
+
+        private BiPredicate<String, String> parseAttributeOperator() {
+            if (consume('=')) {
+                return String::equals;
+            }
+            else if (consume("^=")) {
+                return String::startsWith;
+            }
+            else if (consume("$=")) {
+                return String::endsWith;
+            }
+            else if (consume("*=")) {
+                return String::contains;
+            }
+            throw unexpected();
+        }
+
+        private String parseAttributeValue() {
+            if (position < selector.length() && (peek() == '"' || peek() == '\'')) {
+                char quote = selector.charAt(position++);
+                StringBuilder value = new StringBuilder();
+                while (position < selector.length() && peek() != quote) {
+                    char character = selector.charAt(position++);
+                    if (character == '\\' && position < selector.length()) {
+                        character = selector.charAt(position++);
+                    }
+                    value.append(character);
+                }
+                if (!consume(quote)) {
+                    throw new IllegalArgumentException("Unterminated string in selector '" + selector + "'");
+                }
+                return value.toString();
+            }
+            int start = position;
+            while (position < selector.length() && peek() != ']' && !Character.isWhitespace(peek())) {
+                position++;
+            }
+            if (start == position) {
+                throw unexpected();
+            }
+            return selector.substring(start, position);
+        }
+
+        private String parseIdentifier() {
+            int start = position;
+            while (position < selector.length() && isIdentifierChar(peek())) {
+                position++;
+            }
+            if (start == position) {
+                throw unexpected();
+            }
+            return selector.substring(start, position);
+        }
+
+        private boolean skipWhitespace() {
+            int start = position;
+            while (position < selector.length() && Character.isWhitespace(peek())) {
+                position++;
+            }
+            return position > start;
+        }
+
+        private boolean consume(char character) {
+            if (position < selector.length() && peek() == character) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean consume(String characters) {
+            if (selector.startsWith(characters, position)) {
+                position += characters.length();
+                return true;
+            }
+            return false;
+        }
+
+        private char peek() {
+            return selector.charAt(position);
+        }
+
+        private static boolean isIdentifierChar(char character) {
+            return Character.isLetterOrDigit(character) || character == '-' || character == '_';
+        }
+
+        private IllegalArgumentException unexpected() {
+            String found = position < selector.length() ? "'" + peek() + "'" : "end";
+            return new IllegalArgumentException("Unexpected " + found + " at position " + position +
+                " in selector '" + selector + "'");
+        }
+
+    }
+
+}
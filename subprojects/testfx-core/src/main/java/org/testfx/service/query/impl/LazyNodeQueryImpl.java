@@ -0,0 +1,366 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.service.query.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+import javafx.scene.Node;
+
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+import org.testfx.api.annotation.Unstable;
+import org.testfx.service.query.NodeQuery;
+import org.testfx.util.NodeQueryUtils;
+import org.testfx.util.NodeQueryUtils.TraversalAction;
+import org.testfx.util.QueryProfiler;
+
+/**
+ * A {@link NodeQuery} that does not evaluate its lookups and matches when they are added, but
+ * records them as a pipeline of operators that is evaluated on {@link #query()}, {@link #tryQuery()}
+ * and {@link #queryAll()}. Nodes are streamed through the pipeline one at a time and the scene
+ * graph is traversed depth-first only as far as needed, so that {@link #query()} and
+ * {@link #tryQuery()} stop as soon as the first node passed all operators and {@link #nth(int)}
+ * stops after the requested node.
+ *
+ * <p>Lookups by a {@code Function} are evaluated for one parent node at a time, lookups by a
+ * selector, a {@code Predicate}, a {@code Matcher} or a text traverse the scene graph lazily.
+ * The pipeline is evaluated again on every call of a query method.
+ *
+ * <p>While the {@link QueryProfiler} is enabled, every evaluation counts the nodes it visited, the
+ * predicates it evaluated, the sets it allocated and its wall time and records them with the
+ * {@link #explain() description} of the pipeline.
+ */
+@Unstable(reason = "class was recently added")
+public class LazyNodeQueryImpl implements NodeQuery {
+
+    private static final String CSS_ID_SELECTOR_PREFIX = "#";
+    private static final String CSS_CLASS_SELECTOR_PREFIX = ".";
+
+    private final Set<Node> parentNodes = new LinkedHashSet<>();
+
+    private final List<UnaryOperator<NodeSink>> operators = new ArrayList<>();
+    private final List<String> operatorDescriptions = new ArrayList<>();
+
+    private QueryProfiler.Statistics statistics;
+
+    //---------------------------------------------------------------------------------------------
+    // METHODS.
+    //---------------------------------------------------------------------------------------------
+
+    @Override
+    public NodeQuery from(Node... parentNodes) {
+        return from(Arrays.asList(parentNodes));
+    }
+
+    @Override
+    public NodeQuery from(Collection<Node> parentNodes) {
+        if (operators.isEmpty()) {
+            this.parentNodes.addAll(parentNodes);
+        }
+        else {
+            // The nodes have to be added to the results of the already recorded operators.
+            Set<Node> nodes = queryAll();
+            nodes.addAll(parentNodes);
+            this.parentNodes.clear();
+            this.parentNodes.addAll(nodes);
+            operators.clear();
+            operatorDescriptions.clear();
+        }
+        return this;
+    }
+
+    @Override
+    public NodeQuery lookup(String query) {
+        String description = "lookup(\"" + query + "\")";
+        if (isCssSelector(query)) {
+            try {
+                return lookupLazily(description, CssSelector.compile(query)::matches);
+            }
+            catch (IllegalArgumentException ignore) {
+                // Selectors that are not supported by CssSelector are left to Node#lookupAll().
+                return lookup(description, NodeQueryUtils.bySelector(query));
+            }
+        }
+        return lookupLazily(description, NodeQueryUtils.hasText(query));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> NodeQuery lookup(Matcher<T> matcher) {
+        return lookupLazily("lookup(" + describe(matcher) + ")",
+            NodeQueryUtils.matchesMatcher((Matcher<Node>) matcher));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends Node> NodeQuery lookup(Predicate<T> predicate) {
+        return lookupLazily("lookup(predicate)", (Predicate<Node>) predicate);
+    }
+
+    @Override
+    public NodeQuery lookup(Function<Node, Set<Node>> function) {
+        return lookup("lookup(function)", function);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> NodeQuery match(Matcher<T> matcher) {
+        Predicate<Node> predicate = NodeQueryUtils.matchesMatcher((Matcher<Node>) matcher);
+        addOperator("match(" + describe(matcher) + ")", sink -> filter(sink, countingEvaluations(predicate)));
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends Node> NodeQuery match(Predicate<T> predicate) {
+        addOperator("match(predicate)", sink -> filter(sink, countingEvaluations((Predicate<Node>) predicate)));
+        return this;
+    }
+
+    @Override
+    public NodeQuery nth(int index) {
+        addOperator("nth(" + index + ")", sink -> nth(sink, index));
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends Node> T query() {
+        return evaluate(QueryProfiler.isEnabled(), () -> (T) first(), node -> node != null ? 1 : 0);
+    }
+
+    @Override
+    public <T extends Node> Optional<T> tryQuery() {
+        return Optional.ofNullable(query());
+    }
+
+    @Override
+    public <T extends Node> Set<T> queryAll() {
+        return evaluate(QueryProfiler.isEnabled(), this::collect, Set::size);
+    }
+
+    /**
+     * Evaluates this query like {@link #queryAll()} does and describes its lookups and matches
+     * together with the nodes visited, the predicates evaluated, the sets allocated and the wall
+     * time of the evaluation, e.g.:
+     * <pre>{@code
+     * from(1 nodes).lookup(".button").match(predicate)
+     *     1 evaluations, 2 result nodes, 12 visited nodes, 14 predicate evaluations, 2 allocated sets, 0.081 ms
+     * }</pre>
+     */
+    @Override
+    public String explain() {
+        QueryProfiler.Statistics explainStatistics = new QueryProfiler.Statistics();
+        evaluate(explainStatistics, this::collect, Set::size);
+        return describe() + "\n    " + explainStatistics;
+    }
+
+    //---------------------------------------------------------------------------------------------
+    // PRIVATE METHODS.
+    //---------------------------------------------------------------------------------------------
+
+    private boolean isCssSelector(String query) {
+        return query.startsWith(CSS_ID_SELECTOR_PREFIX) ||
+            query.startsWith(CSS_CLASS_SELECTOR_PREFIX);
+    }
+
+    private NodeQuery lookupLazily(String description,
+                                   Predicate<Node> predicate) {
+        Predicate<Node> countingPredicate = countingEvaluations(node -> applyPredicateSafely(predicate, node));
+        addOperator(description, sink -> {
+            Set<Node> passedNodes = distinctNodes();
+            return parentNode -> {
+                boolean[] accepting = {true};
+                NodeQueryUtils.traverse(parentNode, node -> {
+                    count(QueryProfiler.Statistics::countVisitedNode);
+                    if (countingPredicate.test(node) && passedNodes.add(node) && !sink.accept(node)) {
+                        accepting[0] = false;
+                        return TraversalAction.TERMINATE;
+                    }
+                    return TraversalAction.CONTINUE;
+                });
+                return accepting[0];
+            };
+        });
+        return this;
+    }
+
+    private NodeQuery lookup(String description,
+                             Function<Node, Set<Node>> function) {
+        addOperator(description, sink -> {
+            Set<Node> passedNodes = distinctNodes();
+            return parentNode -> {
+                count(QueryProfiler.Statistics::countAllocatedSet);
+                for (Node node : function.apply(parentNode)) {
+                    if (passedNodes.add(node) && !sink.accept(node)) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        });
+        return this;
+    }
+
+    private void addOperator(String description,
+                             UnaryOperator<NodeSink> operator) {
+        operators.add(operator);
+        operatorDescriptions.add(description);
+    }
+
+    private Predicate<Node> countingEvaluations(Predicate<Node> predicate) {
+        return node -> {
+            count(QueryProfiler.Statistics::countPredicateEvaluation);
+            return predicate.test(node);
+        };
+    }
+
+    private void count(Consumer<QueryProfiler.Statistics> counter) {
+        if (statistics != null) {
+            counter.accept(statistics);
+        }
+    }
+
+    private <R> R evaluate(boolean profiled,
+                           Supplier<R> evaluation,
+                           ToIntFunction<R> resultSize) {
+        if (!profiled) {
+            return evaluation.get();
+        }
+        QueryProfiler.Statistics evaluationStatistics = new QueryProfiler.Statistics();
+        R result = evaluate(evaluationStatistics, evaluation, resultSize);
+        QueryProfiler.record(describe(), evaluationStatistics);
+        return result;
+    }
+
+    private <R> R evaluate(QueryProfiler.Statistics evaluationStatistics,
+                           Supplier<R> evaluation,
+                           ToIntFunction<R> resultSize) {
+        long startTime = System.nanoTime();
+        statistics = evaluationStatistics;
+        try {
+            R result = evaluation.get();
+            evaluationStatistics.countEvaluation(resultSize.applyAsInt(result), System.nanoTime() - startTime);
+            return result;
+        }
+        finally {
+            statistics = null;
+        }
+    }
+
+    private Node first() {
+        Node[] firstNode = new Node[1];
+        push(node -> {
+            firstNode[0] = node;
+            return false;
+        });
+        return firstNode[0];
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Node> Set<T> collect() {
+        count(QueryProfiler.Statistics::countAllocatedSet);
+        Set<T> collectedNodes = new LinkedHashSet<>();
+        push(node -> {
+            collectedNodes.add((T) node);
+            return true;
+        });
+        return collectedNodes;
+    }
+
+    /**
+     * Pushes the parent nodes through the operators into the given sink, until the sink or an
+     * operator does not accept any more nodes.
+     */
+    private void push(NodeSink sink) {
+        NodeSink pipeline = sink;
+        for (int index = operators.size() - 1; index >= 0; index--) {
+            pipeline = operators.get(index).apply(pipeline);
+        }
+        for (Node parentNode : new ArrayList<>(parentNodes)) {
+            if (parentNode != null && !pipeline.accept(parentNode)) {
+                return;
+            }
+        }
+    }
+
+    private String describe() {
+        StringBuilder description = new StringBuilder("from(" + parentNodes.size() + " nodes)");
+        operatorDescriptions.forEach(operatorDescription -> description.append('.').append(operatorDescription));
+        return description.toString();
+    }
+
+    private static String describe(Matcher<?> matcher) {
+        return "\"" + StringDescription.toString(matcher) + "\"";
+    }
+
+    private static boolean applyPredicateSafely(Predicate<Node> predicate,
+                                                Node node) {
+        try {
+            return predicate.test(node);
+        }
+        catch (ClassCastException ignore) {
+            return false;
+        }
+    }
+
+    private Set<Node> distinctNodes() {
+        count(QueryProfiler.Statistics::countAllocatedSet);
+        return new HashSet<>();
+    }
+
+    private static NodeSink filter(NodeSink sink,
+                                   Predicate<Node> predicate) {
+        return node -> !predicate.test(node) || sink.accept(node);
+    }
+
+    private static NodeSink nth(NodeSink sink,
+                                int index) {
+        int[] position = {0};
+        return node -> {
+            if (position[0]++ < index) {
+                return true;
+            }
+            sink.accept(node);
+            return false;
+        };
+    }
+
+    /**
+     * Receives the nodes of an evaluation one at a time and returns whether it accepts more nodes,
+     * so that the evaluation stops as soon as no more nodes are needed.
+     */
+    @FunctionalInterface
+    private interface NodeSink {
+
+        boolean accept(Node node);
+
+    }
+
+}
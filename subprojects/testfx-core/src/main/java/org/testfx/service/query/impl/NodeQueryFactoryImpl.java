@@ -20,12 +20,49 @@ import org.testfx.api.annotation.Unstable;
 import org.testfx.service.query.NodeQuery;
 import org.testfx.service.query.NodeQueryFactory;
 
+/**
+ * Builds {@link NodeQueryImpl}s, which evaluate their lookups when they are added, or, if the system
+ * property {@code testfx.query.lazy} is {@code true}, {@link LazyNodeQueryImpl}s, which evaluate them
+ * on every call of a query method.
+ */
 @Unstable
 public class NodeQueryFactoryImpl implements NodeQueryFactory {
 
+    //---------------------------------------------------------------------------------------------
+    // CONSTANTS.
+    //---------------------------------------------------------------------------------------------
+
+    private static final String PROPERTY_TESTFX_QUERY_LAZY = "testfx.query.lazy";
+
+    //---------------------------------------------------------------------------------------------
+    // PRIVATE FIELDS.
+    //---------------------------------------------------------------------------------------------
+
+    private final boolean lazy;
+
+    //---------------------------------------------------------------------------------------------
+    // CONSTRUCTORS.
+    //---------------------------------------------------------------------------------------------
+
+    public NodeQueryFactoryImpl() {
+        this(Boolean.getBoolean(PROPERTY_TESTFX_QUERY_LAZY));
+    }
+
+    /**
+     * Creates a factory that builds {@link LazyNodeQueryImpl}s if {@code lazy} is {@code true} and
+     * {@link NodeQueryImpl}s otherwise.
+     */
+    public NodeQueryFactoryImpl(boolean lazy) {
+        this.lazy = lazy;
+    }
+
+    //---------------------------------------------------------------------------------------------
+    // METHODS.
+    //---------------------------------------------------------------------------------------------
+
     @Override
     public NodeQuery build() {
-        return new NodeQueryImpl();
+        return lazy ? new LazyNodeQueryImpl() : new NodeQueryImpl();
     }
 
 }
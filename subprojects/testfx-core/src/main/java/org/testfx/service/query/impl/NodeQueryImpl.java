@@ -16,22 +16,29 @@
  */
 package org.testfx.service.query.impl;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javafx.scene.Node;
 
 import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
 
 import org.testfx.api.annotation.Unstable;
 import org.testfx.service.query.NodeQuery;
 import org.testfx.util.NodeQueryUtils;
+import org.testfx.util.QueryProfiler;
 
 @Unstable
 public class NodeQueryImpl implements NodeQuery {
@@ -40,6 +47,8 @@ public class NodeQueryImpl implements NodeQuery {
     private static final String CSS_CLASS_SELECTOR_PREFIX = ".";
 
     private Set<Node> parentNodes = new LinkedHashSet<>();
+    private final List<Supplier<String>> stepDescriptions = new ArrayList<>();
+    private final List<String> stepStatistics = new ArrayList<>();
 
     //---------------------------------------------------------------------------------------------
     // METHODS.
@@ -47,77 +56,61 @@ public class NodeQueryImpl implements NodeQuery {
 
     @Override
     public NodeQuery from(Node... parentNodes) {
-        this.parentNodes.addAll(Arrays.asList(parentNodes));
-        return this;
+        return from(Arrays.asList(parentNodes));
     }
 
     @Override
     public NodeQuery from(Collection<Node> parentNodes) {
-        this.parentNodes.addAll(parentNodes);
-        return this;
+        int parentNodesCount = parentNodes.size();
+        return evaluateStep(() -> "from(" + parentNodesCount + " nodes)", () -> this.parentNodes.addAll(parentNodes));
     }
 
     @Override
     public NodeQuery lookup(String query) {
         Function<Node, Set<Node>> queryFunction = isCssSelector(query) ?
-            NodeQueryUtils.bySelector(query) : NodeQueryUtils.byText(query);
-        lookup(queryFunction);
-        return this;
+            bySelector(query) : NodeQueryUtils.byText(query);
+        return lookup(() -> "lookup(\"" + query + "\")", queryFunction);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public <T> NodeQuery lookup(Matcher<T> matcher) {
-        lookup(NodeQueryUtils.byMatcher((Matcher<Node>) matcher));
-        return this;
+        return lookup(() -> "lookup(" + describe(matcher) + ")", NodeQueryUtils.byMatcher((Matcher<Node>) matcher));
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public <T extends Node> NodeQuery lookup(Predicate<T> predicate) {
-        lookup(NodeQueryUtils.byPredicate((Predicate<Node>) predicate));
-        return this;
+        return lookup(() -> "lookup(predicate)", NodeQueryUtils.byPredicate((Predicate<Node>) predicate));
     }
 
     @Override
     public NodeQuery lookup(Function<Node, Set<Node>> function) {
-        // surely there's a better way to do the following
-        parentNodes = parentNodes.stream()
-            .filter(Objects::nonNull)
-            .map(function)
-            .reduce((nodes, nodes2) -> {
-                Set<Node> set = new LinkedHashSet<>(nodes);
-                set.addAll(nodes2);
-                return set;
-            }).orElseGet(LinkedHashSet::new);
-        return this;
+        return lookup(() -> "lookup(function)", function);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public <T> NodeQuery match(Matcher<T> matcher) {
-        parentNodes = parentNodes.stream()
+        return evaluateStep(() -> "match(" + describe(matcher) + ")", () -> parentNodes = parentNodes.stream()
             .filter(NodeQueryUtils.matchesMatcher((Matcher<Node>) matcher))
-            .collect(Collectors.toSet());
-        return this;
+            .collect(Collectors.toSet()));
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public <T extends Node> NodeQuery match(Predicate<T> predicate) {
-        parentNodes = parentNodes.stream()
+        return evaluateStep(() -> "match(predicate)", () -> parentNodes = parentNodes.stream()
             .filter((Predicate<Node>) predicate)
-            .collect(Collectors.toSet());
-        return this;
+            .collect(Collectors.toSet()));
     }
 
     @Override
     public NodeQuery nth(int index) {
-        parentNodes = parentNodes.stream()
+        return evaluateStep(() -> "nth(" + index + ")", () -> parentNodes = parentNodes.stream()
             .skip(index)
             .limit(1)
-            .collect(Collectors.toSet());
-        return this;
+            .collect(Collectors.toSet()));
     }
 
     @Override
@@ -138,13 +131,81 @@ public class NodeQueryImpl implements NodeQuery {
         return (Set<T>) new LinkedHashSet<>(parentNodes);
     }
 
+    /**
+     * Describes the lookups and matches of this query with the number of nodes found and the wall time
+     * of each. They are evaluated when they are added, so they are only recorded while the
+     * {@link QueryProfiler} is enabled, e.g.:
+     * <pre>{@code
+     * from(1 nodes).lookup(".button").match(predicate)
+     *     from(1 nodes): 1 nodes, 0.002 ms
+     *     lookup(".button"): 3 nodes, 0.054 ms
+     *     match(predicate): 2 nodes, 0.011 ms
+     * }</pre>
+     * Otherwise only the number of result nodes is described (see {@link NodeQuery#explain()}).
+     */
+    @Override
+    public String explain() {
+        if (stepDescriptions.isEmpty()) {
+            return NodeQuery.super.explain();
+        }
+        List<String> descriptions = stepDescriptions.stream().map(Supplier::get).collect(Collectors.toList());
+        StringBuilder explanation = new StringBuilder(String.join(".", descriptions));
+        for (int index = 0; index < descriptions.size(); index++) {
+            explanation.append("\n    ").append(descriptions.get(index)).append(": ")
+                .append(stepStatistics.get(index));
+        }
+        return explanation.toString();
+    }
+
     //---------------------------------------------------------------------------------------------
     // PRIVATE METHODS.
     //---------------------------------------------------------------------------------------------
 
+    private NodeQuery lookup(Supplier<String> description,
+                             Function<Node, Set<Node>> function) {
+        // surely there's a better way to do the following
+        return evaluateStep(description, () -> parentNodes = parentNodes.stream()
+            .filter(Objects::nonNull)
+            .map(function)
+            .reduce((nodes, nodes2) -> {
+                Set<Node> set = new LinkedHashSet<>(nodes);
+                set.addAll(nodes2);
+                return set;
+            }).orElseGet(LinkedHashSet::new));
+    }
+
+    private NodeQuery evaluateStep(Supplier<String> description,
+                                   Runnable step) {
+        if (!QueryProfiler.isEnabled()) {
+            step.run();
+            return this;
+        }
+        long startTime = System.nanoTime();
+        step.run();
+        long wallTimeInMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTime);
+        stepDescriptions.add(description);
+        stepStatistics.add(parentNodes.size() + " nodes, " +
+            String.format(Locale.ROOT, "%.3f ms", wallTimeInMicros / 1000.0));
+        return this;
+    }
+
+    private static String describe(Matcher<?> matcher) {
+        return "\"" + StringDescription.toString(matcher) + "\"";
+    }
+
     private boolean isCssSelector(String query) {
         return query.startsWith(CSS_ID_SELECTOR_PREFIX) ||
             query.startsWith(CSS_CLASS_SELECTOR_PREFIX);
     }
 
+    private Function<Node, Set<Node>> bySelector(String query) {
+        try {
+            return CssSelector.compile(query)::lookupAll;
+        }
+        catch (IllegalArgumentException ignore) {
+            // Selectors that are not supported by CssSelector are left to Node#lookupAll().
+            return NodeQueryUtils.bySelector(query);
+        }
+    }
+
 }
@@ -63,4 +63,29 @@ public interface CaptureSupport {
                                    Image image1,
                                    PixelMatcher pixelMatcher);
 
+    /**
+     * Compares two images like {@link #matchImages(Image, Image, PixelMatcher)}, but may stop as soon as it is
+     * decided whether more than {@code maxNonMatchFactor} (0.0 to 1.0) of the pixels do not match. The match
+     * image of the result is only created when it is requested.
+     *
+     * @see PixelMatcherResult#isExact()
+     */
+    default PixelMatcherResult matchImages(Image image0,
+                                           Image image1,
+                                           PixelMatcher pixelMatcher,
+                                           double maxNonMatchFactor) {
+        return pixelMatcher.match(image0, image1, maxNonMatchFactor);
+    }
+
+    /**
+     * Compares the pixels of two images that are selected by the given {@link PixelMask}, e.g. all pixels except
+     * those of regions that change constantly, in a single pass.
+     */
+    default PixelMatcherResult matchImages(Image image0,
+                                           Image image1,
+                                           PixelMatcher pixelMatcher,
+                                           PixelMask pixelMask) {
+        return pixelMatcher.match(image0, image1, pixelMask);
+    }
+
 }
@@ -0,0 +1,311 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.service.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+
+import org.testfx.api.annotation.Unstable;
+
+/**
+ * Stores golden images for visual comparisons together with their dimensions, a perceptual hash and a
+ * digest of their pixels, so that a capture that is identical to its golden image is recognized without
+ * decoding the latter.
+ * <p>
+ * The images are stored content-addressed: each golden name refers to an image file named by the
+ * SHA-256 digest of its encoded bytes, so golden images that are identical across tests are stored
+ * once. The layout of the store directory is:
+ * <pre>
+ *     &lt;name&gt;.golden         reference with the digests, dimensions and hash of the image
+ *     objects/&lt;digest&gt;.png   encoded image
+ * </pre>
+ * {@link #match(String, Image, PixelMatcher)} first compares the dimensions and the 64-bit difference
+ * hash (dHash) of the capture with those of the golden image. The hash is only a prefilter: images that
+ * differ may have the same hash, e.g. all images of a single color. Only if the hashes agree is the SHA-256
+ * digest of the capture's pixels computed, and only if it equals that of the golden image is the capture
+ * reported as an exact match without decoding the golden image. Otherwise the golden image is decoded and
+ * compared pixel by pixel.
+ */
+@Unstable(reason = "class was recently added")
+public class GoldenImageStore {
+
+    //---------------------------------------------------------------------------------------------
+    // CONSTANTS.
+    //---------------------------------------------------------------------------------------------
+
+    private static final String REFERENCE_EXTENSION = ".golden";
+    private static final String OBJECTS_DIRECTORY = "objects";
+    private static final String OBJECT_EXTENSION = ".png";
+
+    private static final String DIGEST_KEY = "digest";
+    private static final String WIDTH_KEY = "width";
+    private static final String HEIGHT_KEY = "height";
+    private static final String HASH_KEY = "dhash";
+    private static final String PIXELS_DIGEST_KEY = "pixels";
+
+    private static final int HASH_COLUMNS = 9;
+    private static final int HASH_ROWS = 8;
+
+    //---------------------------------------------------------------------------------------------
+    // PRIVATE FIELDS.
+    //---------------------------------------------------------------------------------------------
+
+    private final Path directory;
+    private final CaptureSupport captureSupport;
+
+    //---------------------------------------------------------------------------------------------
+    // CONSTRUCTORS.
+    //---------------------------------------------------------------------------------------------
+
+    public GoldenImageStore(Path directory,
+                            CaptureSupport captureSupport) {
+        this.directory = directory;
+        this.captureSupport = captureSupport;
+    }
+
+    //---------------------------------------------------------------------------------------------
+    // METHODS.
+    //---------------------------------------------------------------------------------------------
+
+    /**
+     * Returns whether a golden image with the given name exists.
+     */
+    public boolean contains(String name) {
+        return Files.exists(resolveReference(name));
+    }
+
+    /**
+     * Stores the given image as the golden image with the given name, replacing any previous golden
+     * image with that name. The encoded image is only written once for identical images. The hash and
+     * the pixel digest are computed from the decoded image file, so that they describe the image that
+     * {@link #load(String)} returns.
+     */
+    public void save(String name,
+                     Image image) {
+        Path objectsDirectory = directory.resolve(OBJECTS_DIRECTORY);
+        Path referenceFile = resolveReference(name);
+        try {
+            Files.createDirectories(objectsDirectory);
+            Files.createDirectories(referenceFile.toAbsolutePath().getParent());
+            Path tempFile = Files.createTempFile(objectsDirectory, "golden", ".tmp");
+            try {
+                captureSupport.saveImage(image, tempFile);
+                String digest = toHex(sha256(Files.readAllBytes(tempFile)));
+                Path objectFile = objectsDirectory.resolve(digest + OBJECT_EXTENSION);
+                if (!Files.exists(objectFile)) {
+                    Files.move(tempFile, objectFile, StandardCopyOption.ATOMIC_MOVE);
+                }
+                Image storedImage = captureSupport.loadImage(objectFile);
+
+                // written without the date comment of Properties#store(), so that the file only changes
+                // if the image does.
+                String reference = DIGEST_KEY + "=" + digest + "\n" +
+                    WIDTH_KEY + "=" + (int) storedImage.getWidth() + "\n" +
+                    HEIGHT_KEY + "=" + (int) storedImage.getHeight() + "\n" +
+                    HASH_KEY + "=" + Long.toHexString(differenceHash(storedImage)) + "\n" +
+                    PIXELS_DIGEST_KEY + "=" + toHex(pixelsDigest(storedImage)) + "\n";
+                Files.write(referenceFile, reference.getBytes(StandardCharsets.ISO_8859_1));
+            }
+            finally {
+                Files.deleteIfExists(tempFile);
+            }
+        }
+        catch (IOException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    /**
+     * Decodes the golden image with the given name.
+     */
+    public Image load(String name) {
+        return loadObject(readReference(name));
+    }
+
+    /**
+     * Matches the given image against the golden image with the given name. If the dimensions, the hashes
+     * and the pixel digests agree, the result is an exact full match and the golden image is not decoded;
+     * the match image is then computed with the given matcher when it is requested. Otherwise the result
+     * of the given matcher for the decoded golden image and the given image is returned.
+     */
+    public PixelMatcherResult match(String name,
+                                    Image image,
+                                    PixelMatcher pixelMatcher) {
+        Properties reference = readReference(name);
+        int width = (int) image.getWidth();
+        int height = (int) image.getHeight();
+        if (isIdentical(reference, image, width, height)) {
+            long totalPixels = (long) width * height;
+            return new PixelMatcherResult(
+                () -> pixelMatcher.match(loadObject(reference), image).getMatchImage(),
+                totalPixels, 0L, totalPixels);
+        }
+        return pixelMatcher.match(loadObject(reference), image);
+    }
+
+    /**
+     * Computes the 64-bit difference hash (dHash) of the given image: the image is reduced to 9x8 cells
+     * of average luminance, and each bit tells whether a cell is brighter than its right neighbour. Equal
+     * images have equal hashes, but images with equal hashes are not necessarily equal.
+     */
+    public static long differenceHash(Image image) {
+        int width = (int) image.getWidth();
+        int height = (int) image.getHeight();
+        if (width == 0 || height == 0) {
+            return 0L;
+        }
+        int[] pixels = new int[width * height];
+        image.getPixelReader().getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0,
+            width);
+        double[] cells = new double[HASH_COLUMNS * HASH_ROWS];
+        for (int row = 0; row < HASH_ROWS; row++) {
+            int fromY = Math.min(row * height / HASH_ROWS, height - 1);
+            int toY = Math.max((row + 1) * height / HASH_ROWS, fromY + 1);
+            for (int column = 0; column < HASH_COLUMNS; column++) {
+                int fromX = Math.min(column * width / HASH_COLUMNS, width - 1);
+                int toX = Math.max((column + 1) * width / HASH_COLUMNS, fromX + 1);
+                double sum = 0;
+                for (int y = fromY; y < toY; y++) {
+                    for (int x = fromX; x < toX; x++) {
+                        sum += luminance(pixels[y * width + x]);
+                    }
+                }
+                cells[row * HASH_COLUMNS + column] = sum / ((toY - fromY) * (toX - fromX));
+            }
+        }
+        long hash = 0L;
+        for (int row = 0; row < HASH_ROWS; row++) {
+            for (int column = 0; column < HASH_COLUMNS - 1; column++) {
+                int cell = row * HASH_COLUMNS + column;
+                hash = (hash << 1) | (cells[cell] > cells[cell + 1] ? 1L : 0L);
+            }
+        }
+        return hash;
+    }
+
+    //---------------------------------------------------------------------------------------------
+    // PRIVATE METHODS.
+    //---------------------------------------------------------------------------------------------
+
+    private Path resolveReference(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("name must not be empty");
+        }
+        return directory.resolve(name + REFERENCE_EXTENSION);
+    }
+
+    private Properties readReference(String name) {
+        Path referenceFile = resolveReference(name);
+        if (!Files.exists(referenceFile)) {
+            throw new IllegalArgumentException("no golden image named \"" + name + "\" in " + directory);
+        }
+        Properties reference = new Properties();
+        try (InputStream inputStream = Files.newInputStream(referenceFile)) {
+            reference.load(inputStream);
+        }
+        catch (IOException exception) {
+            throw new RuntimeException(exception);
+        }
+        return reference;
+    }
+
+    private Image loadObject(Properties reference) {
+        return captureSupport.loadImage(directory.resolve(OBJECTS_DIRECTORY)
+            .resolve(reference.getProperty(DIGEST_KEY) + OBJECT_EXTENSION));
+    }
+
+    /**
+     * Returns whether the given image has the pixels of the referenced golden image. The pixel digest is
+     * only computed if the dimensions and the hashes agree.
+     */
+    private static boolean isIdentical(Properties reference,
+                                       Image image,
+                                       int width,
+                                       int height) {
+        if (Integer.parseInt(reference.getProperty(WIDTH_KEY)) != width ||
+                Integer.parseInt(reference.getProperty(HEIGHT_KEY)) != height) {
+            return false;
+        }
+        if (Long.parseUnsignedLong(reference.getProperty(HASH_KEY), 16) != differenceHash(image)) {
+            return false;
+        }
+        String pixelsDigest = reference.getProperty(PIXELS_DIGEST_KEY);
+        return pixelsDigest != null && pixelsDigest.equals(toHex(pixelsDigest(image)));
+    }
+
+    /**
+     * Computes the SHA-256 digest of the non-premultiplied ARGB pixels of the given image, row by row.
+     */
+    private static byte[] pixelsDigest(Image image) {
+        int width = (int) image.getWidth();
+        int height = (int) image.getHeight();
+        MessageDigest messageDigest = sha256();
+        int[] pixels = new int[width];
+        byte[] bytes = new byte[width * 4];
+        for (int y = 0; y < height; y++) {
+            image.getPixelReader().getPixels(0, y, width, 1, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+            for (int x = 0; x < width; x++) {
+                bytes[x * 4] = (byte) (pixels[x] >>> 24);
+                bytes[x * 4 + 1] = (byte) (pixels[x] >>> 16);
+                bytes[x * 4 + 2] = (byte) (pixels[x] >>> 8);
+                bytes[x * 4 + 3] = (byte) pixels[x];
+            }
+            messageDigest.update(bytes);
+        }
+        return messageDigest.digest();
+    }
+
+    private static double luminance(int argb) {
+        double alpha = (argb >>> 24) / 255.0;
+        int red = (argb >> 16) & 0xff;
+        int green = (argb >> 8) & 0xff;
+        int blue = argb & 0xff;
+        return alpha * (0.299 * red + 0.587 * green + 0.114 * blue);
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        return sha256().digest(bytes);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder builder = new StringBuilder(bytes.length * 2);
+        for (byte value : bytes) {
+            builder.append(Character.forDigit((value >> 4) & 0xf, 16));
+            builder.append(Character.forDigit(value & 0xf, 16));
+        }
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.service.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+
+import org.testfx.api.annotation.Unstable;
+
+/**
+ * Selects the pixels of an image that {@link PixelMatcher#match(Image, Image, PixelMask)} compares, e.g. to
+ * ignore the regions of a clock or a spinner, or to compare only some regions of interest in a single pass.
+ * <p>
+ * The mask is stored run-length encoded: for each row the spans of pixels to compare, so that a matcher
+ * only compares the selected spans instead of testing each pixel against the mask. Consecutive rows with
+ * the same spans share their array.
+ */
+@Unstable(reason = "class was recently added")
+public final class PixelMask {
+
+    //---------------------------------------------------------------------------------------------
+    // PRIVATE FIELDS.
+    //---------------------------------------------------------------------------------------------
+
+    private final int width;
+    private final int height;
+    private final int[][] rowSpans;
+    private final long pixelCount;
+
+    //---------------------------------------------------------------------------------------------
+    // CONSTRUCTORS.
+    //---------------------------------------------------------------------------------------------
+
+    private PixelMask(int width,
+                      int height,
+                      int[][] rowSpans) {
+        this.width = width;
+        this.height = height;
+        this.rowSpans = rowSpans;
+        long count = 0L;
+        for (int[] spans : rowSpans) {
+            for (int index = 0; index < spans.length; index += 2) {
+                count += spans[index + 1] - spans[index];
+            }
+        }
+        this.pixelCount = count;
+    }
+
+    //---------------------------------------------------------------------------------------------
+    // STATIC METHODS.
+    //---------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a mask of the given size that only selects the pixels within the given regions.
+     */
+    public static PixelMask regionsOfInterest(int width,
+                                              int height,
+                                              Collection<Rectangle2D> regions) {
+        return fromRegions(width, height, regions, false);
+    }
+
+    /**
+     * Creates a mask of the given size that selects all pixels except those within the given regions.
+     */
+    public static PixelMask ignoringRegions(int width,
+                                            int height,
+                                            Collection<Rectangle2D> regions) {
+        return fromRegions(width, height, regions, true);
+    }
+
+    /**
+     * Creates a mask of the size of the given image that selects all pixels except those that are not
+     * fully transparent in the given image, i.e. the pixels painted into the image are ignored.
+     */
+    public static PixelMask ignoringImage(Image ignoreImage) {
+        int width = (int) ignoreImage.getWidth();
+        int height = (int) ignoreImage.getHeight();
+        int[] pixels = new int[width];
+        int[][] rowSpans = new int[height][];
+        SpanBuilder spanBuilder = new SpanBuilder();
+        int[] previousSpans = null;
+        for (int y = 0; y < height; y++) {
+            ignoreImage.getPixelReader().getPixels(0, y, width, 1, PixelFormat.getIntArgbInstance(), pixels, 0,
+                width);
+            int spanStart = -1;
+            for (int x = 0; x <= width; x++) {
+                boolean selected = x < width && (pixels[x] >>> 24) == 0;
+                if (selected && spanStart < 0) {
+                    spanStart = x;
+                }
+                else if (!selected && spanStart >= 0) {
+                    spanBuilder.add(spanStart, x);
+                    spanStart = -1;
+                }
+            }
+            int[] spans = spanBuilder.build();
+            rowSpans[y] = Arrays.equals(spans, previousSpans) ? previousSpans : spans;
+            previousSpans = rowSpans[y];
+        }
+        return new PixelMask(width, height, rowSpans);
+    }
+
+    //---------------------------------------------------------------------------------------------
+    // METHODS.
+    //---------------------------------------------------------------------------------------------
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the number of selected pixels.
+     */
+    public long getPixelCount() {
+        return pixelCount;
+    }
+
+    /**
+     * Returns the selected spans of the given row as pairs of the first (inclusive) and last (exclusive)
+     * x coordinate, in ascending order. The returned array must not be modified.
+     */
+    public int[] getSpans(int y) {
+        return rowSpans[y];
+    }
+
+    /**
+     * Returns whether the pixel at the given coordinates is selected.
+     */
+    public boolean contains(int x,
+                           int y) {
+        int[] spans = rowSpans[y];
+        for (int index = 0; index < spans.length; index += 2) {
+            if (x >= spans[index] && x < spans[index + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //---------------------------------------------------------------------------------------------
+    // PRIVATE STATIC METHODS.
+    //---------------------------------------------------------------------------------------------
+
+    private static PixelMask fromRegions(int width,
+                                         int height,
+                                         Collection<Rectangle2D> regions,
+                                         boolean ignoreRegions) {
+        int[][] rowSpans = new int[height][];
+        SpanBuilder spanBuilder = new SpanBuilder();
+        int[] previousSpans = null;
+        List<int[]> regionSpans = new ArrayList<>();
+        for (int y = 0; y < height; y++) {
+            regionSpans.clear();
+            for (Rectangle2D region : regions) {
+                if (y >= Math.floor(region.getMinY()) && y < Math.ceil(region.getMaxY())) {
+                    int fromX = Math.max(0, (int) Math.floor(region.getMinX()));
+                    int toX = Math.min(width, (int) Math.ceil(region.getMaxX()));
+                    if (fromX < toX) {
+                        regionSpans.add(new int[] {fromX, toX});
+                    }
+                }
+            }
+            regionSpans.sort((span0, span1) -> Integer.compare(span0[0], span1[0]));
+
+            int nextX = 0;
+            int spanStart = -1;
+            int spanEnd = -1;
+            for (int[] span : regionSpans) {
+                if (spanStart >= 0 && span[0] <= spanEnd) {
+                    spanEnd = Math.max(spanEnd, span[1]);
+                    continue;
+                }
+                if (spanStart >= 0) {
+                    nextX = addSpan(spanBuilder, ignoreRegions, nextX, spanStart, spanEnd);
+                }
+                spanStart = span[0];
+                spanEnd = span[1];
+            }
+            if (spanStart >= 0) {
+                nextX = addSpan(spanBuilder, ignoreRegions, nextX, spanStart, spanEnd);
+            }
+            if (ignoreRegions && nextX < width) {
+                spanBuilder.add(nextX, width);
+            }
+
+            // consecutive rows with the same spans share their array.
+            int[] spans = spanBuilder.build();
+            rowSpans[y] = Arrays.equals(spans, previousSpans) ? previousSpans : spans;
+            previousSpans = rowSpans[y];
+        }
+        return new PixelMask(width, height, rowSpans);
+    }
+
+    /**
+     * Adds the span of a merged region, or the span before it if regions are ignored, and returns the
+     * x coordinate after the region.
+     */
+    private static int addSpan(SpanBuilder spanBuilder,
+                               boolean ignoreRegions,
+                               int nextX,
+                               int regionStart,
+                               int regionEnd) {
+        if (!ignoreRegions) {
+            spanBuilder.add(regionStart, regionEnd);
+        }
+        else if (nextX < regionStart) {
+            spanBuilder.add(nextX, regionStart);
+        }
+        return regionEnd;
+    }
+
+    /**
+     * Collects the spans of one row.
+     */
+    private static final class SpanBuilder {
+
+        private int[] spans = new int[8];
+        private int length;
+
+        void add(int fromX,
+                 int toX) {
+            if (length + 2 > spans.length) {
+                spans = Arrays.copyOf(spans, spans.length * 2);
+            }
+            spans[length++] = fromX;
+            spans[length++] = toX;
+        }
+
+        int[] build() {
+            int[] rowSpans = Arrays.copyOf(spans, length);
+            length = 0;
+            return rowSpans;
+        }
+
+    }
+
+}
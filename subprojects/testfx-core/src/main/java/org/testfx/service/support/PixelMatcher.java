@@ -17,6 +17,8 @@
 package org.testfx.service.support;
 
 import javafx.scene.image.Image;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.PixelWriter;
 import javafx.scene.image.WritableImage;
 import javafx.scene.paint.Color;
 
@@ -28,6 +30,59 @@ public interface PixelMatcher {
     PixelMatcherResult match(Image image0,
                              Image image1);
 
+    /**
+     * Returns a {@link PixelMatcherResult} that indicates whether more than {@code maxNonMatchFactor} of the
+     * pixels of the two images did not match. The comparison may stop as soon as this is decided, in which case
+     * the result is not {@link PixelMatcherResult#isExact() exact}. By default all pixels are compared.
+     */
+    default PixelMatcherResult match(Image image0,
+                                     Image image1,
+                                     double maxNonMatchFactor) {
+        return match(image0, image1);
+    }
+
+    /**
+     * Returns a {@link PixelMatcherResult} for the pixels selected by the given {@link PixelMask} only. The
+     * total number of pixels of the result is the number of selected pixels, and the pixels of the match image
+     * that are not selected stay transparent. By default the selected pixels are compared one by one with
+     * {@link #matchColors(Color, Color)}.
+     *
+     * @throws IllegalArgumentException if the mask does not have the size of the match image
+     */
+    default PixelMatcherResult match(Image image0,
+                                     Image image1,
+                                     PixelMask pixelMask) {
+        WritableImage matchImage = createEmptyMatchImage(image0, image1);
+        int imageWidth = (int) matchImage.getWidth();
+        int imageHeight = (int) matchImage.getHeight();
+        if (pixelMask.getWidth() != imageWidth || pixelMask.getHeight() != imageHeight) {
+            throw new IllegalArgumentException("pixel mask of " + pixelMask.getWidth() + "x" +
+                pixelMask.getHeight() + " pixels does not fit match image of " + imageWidth + "x" +
+                imageHeight + " pixels");
+        }
+        PixelReader pixelReader0 = image0.getPixelReader();
+        PixelReader pixelReader1 = image1.getPixelReader();
+        PixelWriter pixelWriter = matchImage.getPixelWriter();
+        long matchPixels = 0L;
+        for (int y = 0; y < imageHeight; y++) {
+            int[] spans = pixelMask.getSpans(y);
+            for (int index = 0; index < spans.length; index += 2) {
+                for (int x = spans[index]; x < spans[index + 1]; x++) {
+                    Color color0 = pixelReader0.getColor(x, y);
+                    Color color1 = pixelReader1.getColor(x, y);
+                    if (matchColors(color0, color1)) {
+                        matchPixels += 1;
+                        pixelWriter.setColor(x, y, createMatchColor(color0, color1));
+                    }
+                    else {
+                        pixelWriter.setColor(x, y, createNonMatchColor(color0, color1));
+                    }
+                }
+            }
+        }
+        return new PixelMatcherResult(matchImage, matchPixels, pixelMask.getPixelCount());
+    }
+
     /**
      * Returns true if {@code color0} is close enough to {@code color1} as determined by a color distance/factor.
      */
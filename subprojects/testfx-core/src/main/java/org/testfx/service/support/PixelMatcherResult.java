@@ -16,11 +16,18 @@
  */
 package org.testfx.service.support;
 
+import java.util.function.Supplier;
 import javafx.scene.image.Image;
 
 /**
  * Indicates how similar/dissimilar two images were on a pixel-to-pixel comparison level via
  * {@link PixelMatcher#match(Image, Image)}.
+ * <p>
+ * A result of {@link PixelMatcher#match(Image, Image, double)} may be bounded: the comparison stopped
+ * before all pixels were compared, because the tolerated number of non-matching pixels was either
+ * exceeded or could no longer be exceeded. The pixels that were not compared count as non-matching,
+ * so {@link #getNonMatchPixels()} is an upper bound and {@link #getMinNonMatchPixels()} a lower bound
+ * of the number of non-matching pixels, see {@link #isExact()}.
  */
 public class PixelMatcherResult {
 
@@ -28,10 +35,12 @@ public class PixelMatcherResult {
     // PRIVATE FIELDS.
     //---------------------------------------------------------------------------------------------
 
-    private final Image matchImage;
+    private Image matchImage;
+    private Supplier<Image> matchImageSupplier;
     private final long totalPixels;
 
     private final long matchPixels;
+    private final long minNonMatchPixels;
     private final double matchFactor;
 
     //---------------------------------------------------------------------------------------------
@@ -45,7 +54,25 @@ public class PixelMatcherResult {
         this.totalPixels = totalPixels;
 
         this.matchPixels = matchPixels;
-        this.matchFactor = matchPixels / (double) totalPixels;
+        this.minNonMatchPixels = totalPixels - matchPixels;
+        this.matchFactor = matchFactor(matchPixels, totalPixels);
+    }
+
+    /**
+     * Creates a result whose match image is only created when it is requested. The result is exact
+     * if {@code matchPixels} and {@code minNonMatchPixels} add up to {@code totalPixels}, and bounded
+     * otherwise.
+     */
+    public PixelMatcherResult(Supplier<Image> matchImageSupplier,
+                              long matchPixels,
+                              long minNonMatchPixels,
+                              long totalPixels) {
+        this.matchImageSupplier = matchImageSupplier;
+        this.totalPixels = totalPixels;
+
+        this.matchPixels = matchPixels;
+        this.minNonMatchPixels = minNonMatchPixels;
+        this.matchFactor = matchFactor(matchPixels, totalPixels);
     }
 
     //---------------------------------------------------------------------------------------------
@@ -55,10 +82,22 @@ public class PixelMatcherResult {
     /**
      * Gets the image whose pixels indicate matches and mismatches between the two original images.
      */
-    public Image getMatchImage() {
+    public synchronized Image getMatchImage() {
+        if (matchImageSupplier != null) {
+            matchImage = matchImageSupplier.get();
+            matchImageSupplier = null;
+        }
         return matchImage;
     }
 
+    /**
+     * Returns whether all pixels were compared, i.e. whether the numbers and factors of matching and
+     * non-matching pixels are exact rather than bounds.
+     */
+    public boolean isExact() {
+        return matchPixels + minNonMatchPixels == totalPixels;
+    }
+
     /**
      * Gets the total number of pixels in the match image
      */
@@ -81,7 +120,16 @@ public class PixelMatcherResult {
     }
 
     /**
-     * Gets the percentage of pixels that matched between the two original images
+     * Gets the number of pixels that were compared and did not match; equal to {@link #getNonMatchPixels()}
+     * if the result is exact.
+     */
+    public long getMinNonMatchPixels() {
+        return minNonMatchPixels;
+    }
+
+    /**
+     * Gets the percentage of pixels that matched between the two original images, or 1.0 if no pixels
+     * were compared, e.g. because a {@link PixelMask} selected none
      */
     public double getMatchFactor() {
         return matchFactor;
@@ -94,4 +142,13 @@ public class PixelMatcherResult {
         return 1.0 - matchFactor;
     }
 
+    //---------------------------------------------------------------------------------------------
+    // PRIVATE STATIC METHODS.
+    //---------------------------------------------------------------------------------------------
+
+    private static double matchFactor(long matchPixels,
+                                      long totalPixels) {
+        return totalPixels == 0L ? 1.0 : matchPixels / (double) totalPixels;
+    }
+
 }
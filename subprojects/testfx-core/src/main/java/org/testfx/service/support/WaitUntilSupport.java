@@ -20,6 +20,7 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 
+import javafx.beans.Observable;
 import javafx.scene.Node;
 
 import org.hamcrest.Matcher;
@@ -52,6 +53,25 @@ public class WaitUntilSupport {
         awaitCondition(() -> condition.test(node), timeoutInSeconds);
     }
 
+    /**
+     * Waits until the provided node fulfills the given condition. Unlike
+     * {@link #waitUntil(Node, Predicate, int)} the condition is not polled, but evaluated on the JavaFX
+     * Application Thread after each pulse and whenever one of the given {@code dependencies} is
+     * invalidated (see {@link WaitForAsyncUtils#waitForFx(long, TimeUnit, Callable, Observable...)}).
+     *
+     * @param node the node
+     * @param condition the condition
+     * @param timeoutInSeconds the number of seconds to wait before timing out. If the time out is reached, a
+     *                         {@link RuntimeException} is thrown.
+     * @param dependencies the observables the condition depends on besides the scene graph
+     */
+    public <T extends Node> void waitUntil(final T node,
+                                           final Predicate<T> condition,
+                                           int timeoutInSeconds,
+                                           Observable... dependencies) {
+        awaitFxCondition(() -> condition.test(node), timeoutInSeconds, dependencies);
+    }
+
     /**
      * Waits until the provided node fulfills the given condition.
      *
@@ -64,6 +84,25 @@ public class WaitUntilSupport {
         awaitCondition(() -> condition.matches(node), timeoutInSeconds);
     }
 
+    /**
+     * Waits until the provided node fulfills the given condition. Unlike
+     * {@link #waitUntil(Node, Matcher, int)} the condition is not polled, but evaluated on the JavaFX
+     * Application Thread after each pulse and whenever one of the given {@code dependencies} is
+     * invalidated (see {@link WaitForAsyncUtils#waitForFx(long, TimeUnit, Callable, Observable...)}).
+     *
+     * @param node the node
+     * @param condition the condition
+     * @param timeoutInSeconds the number of seconds to wait before timing out. If the time out is reached, a
+     *                         {@link RuntimeException} is thrown.
+     * @param dependencies the observables the condition depends on besides the scene graph
+     */
+    public void waitUntil(final Node node,
+                          final Matcher<Object> condition,
+                          int timeoutInSeconds,
+                          Observable... dependencies) {
+        awaitFxCondition(() -> condition.matches(node), timeoutInSeconds, dependencies);
+    }
+
     /**
      * Waits until the provided value fulfills the given condition.
      *
@@ -105,4 +144,13 @@ public class WaitUntilSupport {
         }
     }
 
+    private void awaitFxCondition(Callable<Boolean> condition, int timeoutInSeconds, Observable... dependencies) {
+        try {
+            WaitForAsyncUtils.waitForFx(timeoutInSeconds, TimeUnit.SECONDS, condition, dependencies);
+        }
+        catch (Exception exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
 }
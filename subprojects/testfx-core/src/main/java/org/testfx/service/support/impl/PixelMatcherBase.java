@@ -16,65 +16,316 @@
  */
 package org.testfx.service.support.impl;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
 import javafx.scene.image.WritableImage;
 import javafx.scene.paint.Color;
 
+import org.testfx.service.support.PixelMask;
 import org.testfx.service.support.PixelMatcher;
 import org.testfx.service.support.PixelMatcherResult;
 
+/**
+ * Matches two images pixel by pixel. Both images are read into {@code int[]} buffers of packed
+ * non-premultiplied ARGB colors and the match image is written from such a buffer, so a match
+ * does not allocate objects per pixel as long as the colors are matched by {@link #matchArgb(int, int)},
+ * {@link #createMatchArgb(int, int)} and {@link #createNonMatchArgb(int, int)}. By default these
+ * convert the packed colors to {@link Color}s and call the {@link Color} methods of {@link PixelMatcher},
+ * so that subclasses which only implement those still work.
+ * <p>
+ * If a {@link ForkJoinPool} is set with {@link #setForkJoinPool(ForkJoinPool)}, the images are split
+ * into bands of rows which are compared in parallel in that pool. The result is the same as that of a
+ * sequential match, but the methods that match pixels and create colors are then called concurrently
+ * and have to be thread-safe.
+ * <p>
+ * {@link #match(Image, Image, double)} compares the pixels sequentially and stops as soon as the tolerated
+ * number of non-matching pixels is exceeded or can no longer be exceeded. It only matches colors while
+ * comparing and creates the match image when {@link PixelMatcherResult#getMatchImage()} is called.
+ * <p>
+ * {@link #match(Image, Image, PixelMask)} only compares the spans of pixels selected by the mask; the
+ * other pixels of the match image stay transparent. Both images are still read into buffers as a whole.
+ */
 public abstract class PixelMatcherBase implements PixelMatcher {
 
+    //---------------------------------------------------------------------------------------------
+    // PRIVATE STATIC FIELDS.
+    //---------------------------------------------------------------------------------------------
+
+    private static final int BAND_ROWS = 32;
+
+    //---------------------------------------------------------------------------------------------
+    // PRIVATE FIELDS.
+    //---------------------------------------------------------------------------------------------
+
+    private ForkJoinPool forkJoinPool;
+
     //---------------------------------------------------------------------------------------------
     // METHODS.
     //---------------------------------------------------------------------------------------------
 
+    /**
+     * Sets the pool in which bands of rows are compared in parallel, e.g. {@link ForkJoinPool#commonPool()},
+     * or {@code null} to compare the images sequentially, which is the default.
+     *
+     * @param forkJoinPool the pool to compare the images in, or {@code null}
+     */
+    public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+        this.forkJoinPool = forkJoinPool;
+    }
+
     @Override
     public PixelMatcherResult match(Image image0,
                                     Image image1) {
+        return match(image0, image1, (PixelMask) null);
+    }
+
+    @Override
+    public PixelMatcherResult match(Image image0,
+                                    Image image1,
+                                    PixelMask pixelMask) {
         WritableImage matchImage = createEmptyMatchImage(image0, image1);
         int imageWidth = (int) matchImage.getWidth();
         int imageHeight = (int) matchImage.getHeight();
 
-        long matchPixels = 0L;
-        long totalPixels = imageWidth * imageHeight;
+        int[] pixels0 = readPixels(image0, imageWidth, imageHeight);
+        int[] pixels1 = readPixels(image1, imageWidth, imageHeight);
+        int[] matchImagePixels = new int[pixels0.length];
 
-        for (int imageY = 0; imageY < imageHeight; imageY += 1) {
-            for (int imageX = 0; imageX < imageWidth; imageX += 1) {
-                Color color0 = readPixel(image0, imageX, imageY);
-                Color color1 = readPixel(image1, imageX, imageY);
-                boolean areColorsMatching = matchColors(color0, color1);
-
-                if (areColorsMatching) {
-                    matchPixels += 1;
-                    Color matchColor = createMatchColor(color0, color1);
-                    writePixel(matchImage, imageX, imageY, matchColor);
-                }
-                else {
-                    Color nonMatchColor = createNonMatchColor(color0, color1);
-                    writePixel(matchImage, imageX, imageY, nonMatchColor);
-                }
+        long matchPixels;
+        long totalPixels = imageWidth * imageHeight;
+        if (pixelMask != null) {
+            if (pixelMask.getWidth() != imageWidth || pixelMask.getHeight() != imageHeight) {
+                throw new IllegalArgumentException("pixel mask of " + pixelMask.getWidth() + "x" +
+                    pixelMask.getHeight() + " pixels does not fit match image of " + imageWidth + "x" +
+                    imageHeight + " pixels");
             }
+            totalPixels = pixelMask.getPixelCount();
         }
 
+        if (forkJoinPool == null || imageHeight <= BAND_ROWS) {
+            matchPixels = matchRows(pixels0, pixels1, matchImagePixels, imageWidth, pixelMask, 0, imageHeight);
+        }
+        else {
+            matchPixels = forkJoinPool.invoke(new MatchRowsTask(pixels0, pixels1, matchImagePixels, imageWidth,
+                pixelMask, 0, imageHeight));
+        }
+
+        writePixels(matchImage, matchImagePixels, imageWidth, imageHeight);
         return new PixelMatcherResult(matchImage, matchPixels, totalPixels);
     }
 
+    @Override
+    public PixelMatcherResult match(Image image0,
+                                    Image image1,
+                                    double maxNonMatchFactor) {
+        // the dimensions of the match image, see PixelMatcher#createEmptyMatchImage().
+        int imageWidth = (int) image0.getWidth();
+        int imageHeight = (int) image1.getHeight();
+
+        int[] pixels0 = readPixels(image0, imageWidth, imageHeight);
+        int[] pixels1 = readPixels(image1, imageWidth, imageHeight);
+
+        long totalPixels = imageWidth * imageHeight;
+        long maxNonMatchPixels = (long) (maxNonMatchFactor * totalPixels);
+        long nonMatchPixels = 0L;
+
+        int index = 0;
+        while (index < pixels0.length && nonMatchPixels <= maxNonMatchPixels &&
+            nonMatchPixels + (pixels0.length - index) > maxNonMatchPixels) {
+            if (!matchArgb(pixels0[index], pixels1[index])) {
+                nonMatchPixels += 1;
+            }
+            index += 1;
+        }
+
+        return new PixelMatcherResult(() -> {
+            WritableImage matchImage = createEmptyMatchImage(image0, image1);
+            int[] matchImagePixels = new int[pixels0.length];
+            matchRows(pixels0, pixels1, matchImagePixels, imageWidth, null, 0, imageHeight);
+            writePixels(matchImage, matchImagePixels, imageWidth, imageHeight);
+            return matchImage;
+        }, index - nonMatchPixels, nonMatchPixels, totalPixels);
+    }
+
+    /**
+     * Returns true if the packed ARGB color {@code argb0} is close enough to {@code argb1}; the packed
+     * counterpart of {@link #matchColors(Color, Color)}.
+     */
+    protected boolean matchArgb(int argb0,
+                                int argb1) {
+        return matchColors(toColor(argb0), toColor(argb1));
+    }
+
+    /**
+     * Creates the packed ARGB color that represents a match between the two images' pixels; the packed
+     * counterpart of {@link #createMatchColor(Color, Color)}.
+     */
+    protected int createMatchArgb(int argb0,
+                                  int argb1) {
+        return toArgb(createMatchColor(toColor(argb0), toColor(argb1)));
+    }
+
+    /**
+     * Creates the packed ARGB color that represents a mismatch between the two images' pixels; the packed
+     * counterpart of {@link #createNonMatchColor(Color, Color)}.
+     */
+    protected int createNonMatchArgb(int argb0,
+                                     int argb1) {
+        return toArgb(createNonMatchColor(toColor(argb0), toColor(argb1)));
+    }
+
+    //---------------------------------------------------------------------------------------------
+    // PROTECTED STATIC METHODS.
+    //---------------------------------------------------------------------------------------------
+
+    /**
+     * Converts a packed non-premultiplied ARGB color to a {@link Color}, like
+     * {@link javafx.scene.image.PixelReader#getColor(int, int)} does.
+     */
+    protected static Color toColor(int argb) {
+        return Color.rgb((argb >> 16) & 0xff, (argb >> 8) & 0xff, argb & 0xff, ((argb >> 24) & 0xff) / 255.0);
+    }
+
+    /**
+     * Converts a {@link Color} to a packed non-premultiplied ARGB color, like
+     * {@link javafx.scene.image.PixelWriter#setColor(int, int, Color)} does.
+     */
+    protected static int toArgb(Color color) {
+        return toArgb(color.getOpacity(), color.getRed(), color.getGreen(), color.getBlue());
+    }
+
+    /**
+     * Converts the components of a color, each from 0.0 to 1.0, to a packed non-premultiplied ARGB color.
+     */
+    protected static int toArgb(double opacity,
+                                double red,
+                                double green,
+                                double blue) {
+        int alphaByte = (int) Math.round(opacity * 255);
+        int redByte = (int) Math.round(red * 255);
+        int greenByte = (int) Math.round(green * 255);
+        int blueByte = (int) Math.round(blue * 255);
+        return (alphaByte << 24) | (redByte << 16) | (greenByte << 8) | blueByte;
+    }
+
     //---------------------------------------------------------------------------------------------
     // PRIVATE METHODS.
     //---------------------------------------------------------------------------------------------
 
-    private Color readPixel(Image image,
-                            int x,
-                            int y) {
-        return image.getPixelReader().getColor(x, y);
+    /**
+     * Matches the pixels of the rows from {@code fromRow} (inclusive) to {@code toRow} (exclusive) that
+     * are selected by the pixel mask, or all of them if there is no mask, writes the colors of the
+     * match image and returns the number of matching pixels.
+     */
+    private long matchRows(int[] pixels0,
+                           int[] pixels1,
+                           int[] matchImagePixels,
+                           int imageWidth,
+                           PixelMask pixelMask,
+                           int fromRow,
+                           int toRow) {
+        if (pixelMask == null) {
+            return matchPixels(pixels0, pixels1, matchImagePixels, fromRow * imageWidth, toRow * imageWidth);
+        }
+        long matchPixels = 0L;
+        for (int row = fromRow; row < toRow; row += 1) {
+            int rowIndex = row * imageWidth;
+            int[] spans = pixelMask.getSpans(row);
+            for (int index = 0; index < spans.length; index += 2) {
+                matchPixels += matchPixels(pixels0, pixels1, matchImagePixels, rowIndex + spans[index],
+                    rowIndex + spans[index + 1]);
+            }
+        }
+        return matchPixels;
+    }
+
+    /**
+     * Matches the pixels from {@code fromIndex} (inclusive) to {@code toIndex} (exclusive), writes the
+     * colors of the match image and returns the number of matching pixels.
+     */
+    private long matchPixels(int[] pixels0,
+                             int[] pixels1,
+                             int[] matchImagePixels,
+                             int fromIndex,
+                             int toIndex) {
+        long matchPixels = 0L;
+        for (int index = fromIndex; index < toIndex; index += 1) {
+            int argb0 = pixels0[index];
+            int argb1 = pixels1[index];
+            if (matchArgb(argb0, argb1)) {
+                matchPixels += 1;
+                matchImagePixels[index] = createMatchArgb(argb0, argb1);
+            }
+            else {
+                matchImagePixels[index] = createNonMatchArgb(argb0, argb1);
+            }
+        }
+        return matchPixels;
+    }
+
+    private int[] readPixels(Image image,
+                             int width,
+                             int height) {
+        int[] pixels = new int[width * height];
+        image.getPixelReader().getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+        return pixels;
+    }
+
+    private void writePixels(WritableImage image,
+                             int[] pixels,
+                             int width,
+                             int height) {
+        image.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
     }
 
-    private void writePixel(WritableImage image,
-                            int x,
-                            int y,
-                            Color color) {
-        image.getPixelWriter().setColor(x, y, color);
+    /**
+     * Splits rows into halves until they fit into a band, matches the bands and sums up their
+     * numbers of matching pixels. The bands write to disjoint parts of the match image buffer.
+     */
+    private class MatchRowsTask extends RecursiveTask<Long> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] pixels0;
+        private final int[] pixels1;
+        private final int[] matchImagePixels;
+        private final int imageWidth;
+        private final PixelMask pixelMask;
+        private final int fromRow;
+        private final int toRow;
+
+        MatchRowsTask(int[] pixels0,
+                      int[] pixels1,
+                      int[] matchImagePixels,
+                      int imageWidth,
+                      PixelMask pixelMask,
+                      int fromRow,
+                      int toRow) {
+            this.pixels0 = pixels0;
+            this.pixels1 = pixels1;
+            this.matchImagePixels = matchImagePixels;
+            this.imageWidth = imageWidth;
+            this.pixelMask = pixelMask;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+        }
+
+        @Override
+        protected Long compute() {
+            if (toRow - fromRow <= BAND_ROWS) {
+                return matchRows(pixels0, pixels1, matchImagePixels, imageWidth, pixelMask, fromRow, toRow);
+            }
+            int middleRow = (fromRow + toRow) >>> 1;
+            MatchRowsTask lowerRows = new MatchRowsTask(pixels0, pixels1, matchImagePixels, imageWidth,
+                pixelMask, fromRow, middleRow);
+            MatchRowsTask upperRows = new MatchRowsTask(pixels0, pixels1, matchImagePixels, imageWidth,
+                pixelMask, middleRow, toRow);
+            lowerRows.fork();
+            return upperRows.compute() + lowerRows.join();
+        }
+
     }
 
 }
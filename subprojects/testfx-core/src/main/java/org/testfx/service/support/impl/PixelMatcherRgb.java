@@ -25,11 +25,17 @@ import org.testfx.util.ColorUtils;
 
 public class PixelMatcherRgb extends PixelMatcherBase implements PixelMatcher {
 
+    //---------------------------------------------------------------------------------------------
+    // PRIVATE STATIC FIELDS.
+    //---------------------------------------------------------------------------------------------
+
+    private static final int NON_MATCH_ARGB = toArgb(Color.RED);
+
     //---------------------------------------------------------------------------------------------
     // PRIVATE FIELDS.
     //---------------------------------------------------------------------------------------------
 
-    private double minColorDistSq = Double.MIN_VALUE;
+    private volatile double minColorDistSq = Double.MIN_VALUE;
 
     private final double minColorDistFactor;
 
@@ -56,13 +62,8 @@ public class PixelMatcherRgb extends PixelMatcherBase implements PixelMatcher {
 
     @Override
     public boolean matchColors(Color color0, Color color1) {
-        if (minColorDistSq == Double.MIN_VALUE) {
-            double maxColorDistSq = ColorUtils.calculateColorDistSq(Color.BLACK, Color.WHITE);
-            minColorDistSq = maxColorDistSq * (minColorDistFactor * minColorDistFactor);
-        }
-
         double colorDistSq = ColorUtils.calculateColorDistSq(color0, color1);
-        return colorDistSq < minColorDistSq;
+        return colorDistSq < fetchMinColorDistSq();
     }
 
     @Override
@@ -84,10 +85,50 @@ public class PixelMatcherRgb extends PixelMatcherBase implements PixelMatcher {
         return Color.RED;
     }
 
+    @Override
+    protected boolean matchArgb(int argb0, int argb1) {
+        double diffRed = component(argb0, 16) - component(argb1, 16);
+        double diffGreen = component(argb0, 8) - component(argb1, 8);
+        double diffBlue = component(argb0, 0) - component(argb1, 0);
+        double colorDistSq = (diffRed * diffRed) + (diffGreen * diffGreen) + (diffBlue * diffBlue);
+        return colorDistSq < fetchMinColorDistSq();
+    }
+
+    @Override
+    protected int createMatchArgb(int argb0, int argb1) {
+        // same as Color#grayscale(), which stores the gray in a float.
+        float gray = (float) ((0.21 * component(argb0, 16)) + (0.71 * component(argb0, 8)) +
+            (0.07 * component(argb0, 0)));
+        float blendedGray = (float) blendToWhite(gray, colorBlendFactor);
+        return toArgb(component(argb0, 24), blendedGray, blendedGray, blendedGray);
+    }
+
+    @Override
+    protected int createNonMatchArgb(int argb0, int argb1) {
+        return NON_MATCH_ARGB;
+    }
+
     //---------------------------------------------------------------------------------------------
     // PRIVATE METHODS.
     //---------------------------------------------------------------------------------------------
 
+    private double fetchMinColorDistSq() {
+        if (minColorDistSq == Double.MIN_VALUE) {
+            double maxColorDistSq = ColorUtils.calculateColorDistSq(Color.BLACK, Color.WHITE);
+            minColorDistSq = maxColorDistSq * (minColorDistFactor * minColorDistFactor);
+        }
+        return minColorDistSq;
+    }
+
+    /**
+     * Returns the component at the given bit shift of a packed ARGB color, from 0.0 to 1.0, with the
+     * float precision in which {@link Color} stores it.
+     */
+    private static double component(int argb,
+                                    int shift) {
+        return (float) (((argb >> shift) & 0xff) / 255.0);
+    }
+
     private double blendToWhite(double gray,
                                 double factor) {
         return ((1.0 - factor) * gray) + factor;
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.testfx.api.annotation.Unstable;
+
+/**
+ * Creates the {@link ExecutorService} that runs the {@code async} methods of {@link WaitForAsyncUtils}.
+ * <p>
+ * The factory used by default is chosen with the system property {@code testfx.async.executor}
+ * (see {@link #forName(String)}) and can be replaced with
+ * {@link WaitForAsyncUtils#setAsyncExecutorFactory(AsyncExecutorFactory)} or
+ * {@link org.testfx.api.FxToolkitContext#setAsyncExecutorFactory(AsyncExecutorFactory)}.
+ */
+@Unstable(reason = "interface was recently added")
+@FunctionalInterface
+public interface AsyncExecutorFactory {
+
+    /**
+     * Creates a new executor that uses the given {@code threadFactory} for its threads.
+     *
+     * @param threadFactory the thread factory that names and counts the threads
+     * @return the new executor
+     */
+    ExecutorService createExecutorService(ThreadFactory threadFactory);
+
+    /**
+     * Returns a factory for an unbounded pool that creates threads as needed and reuses idle ones.
+     *
+     * @return the factory
+     */
+    static AsyncExecutorFactory cached() {
+        return Executors::newCachedThreadPool;
+    }
+
+    /**
+     * Returns a factory for a pool of at most {@code maxThreadCount} threads. Idle threads are
+     * terminated after a minute, further tasks are queued.
+     * <p>
+     * <em>Note:</em> Tasks that block until other {@code async} tasks are finished can starve a
+     * bounded pool.
+     *
+     * @param maxThreadCount the maximum number of threads
+     * @return the factory
+     */
+    static AsyncExecutorFactory bounded(int maxThreadCount) {
+        if (maxThreadCount < 1) {
+            throw new IllegalArgumentException("maxThreadCount must be positive, but was " + maxThreadCount);
+        }
+        return threadFactory -> {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreadCount, maxThreadCount,
+                    1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), threadFactory);
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        };
+    }
+
+    /**
+     * Returns a factory that starts a new virtual thread per task. Falls back to {@link #cached()}
+     * if the running JVM does not support virtual threads.
+     *
+     * @return the factory
+     */
+    static AsyncExecutorFactory virtual() {
+        return threadFactory -> {
+            try {
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+                ThreadFactory virtualThreadFactory = (ThreadFactory) factory.invoke(builder);
+                Method newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor",
+                        ThreadFactory.class);
+                return (ExecutorService) newThreadPerTaskExecutor.invoke(null,
+                        threadFactory instanceof AsyncThreadFactory ?
+                                ((AsyncThreadFactory) threadFactory).withDelegate(virtualThreadFactory) :
+                                virtualThreadFactory);
+            }
+            catch (ReflectiveOperationException | RuntimeException ignore) {
+                return cached().createExecutorService(threadFactory);
+            }
+        };
+    }
+
+    /**
+     * Returns the factory with the given name:
+     * <ul>
+     * <li>{@code cached}: {@link #cached()}</li>
+     * <li>{@code bounded}: {@link #bounded(int)} with one thread per available processor</li>
+     * <li>{@code bounded:n}: {@link #bounded(int)} with {@code n} threads</li>
+     * <li>{@code virtual}: {@link #virtual()}</li>
+     * <li>any other name is the fully qualified name of an {@code AsyncExecutorFactory} class
+     * with a public no-argument constructor</li>
+     * </ul>
+     *
+     * @param name the name of the factory
+     * @return the factory
+     * @throws IllegalArgumentException if the name can not be resolved to a factory
+     */
+    static AsyncExecutorFactory forName(String name) {
+        if ("cached".equals(name)) {
+            return cached();
+        }
+        if ("bounded".equals(name)) {
+            return bounded(Runtime.getRuntime().availableProcessors());
+        }
+        if (name.startsWith("bounded:")) {
+            try {
+                return bounded(Integer.parseInt(name.substring("bounded:".length())));
+            }
+            catch (NumberFormatException exception) {
+                throw new IllegalArgumentException("Invalid thread count in '" + name + "'", exception);
+            }
+        }
+        if ("virtual".equals(name)) {
+            return virtual();
+        }
+        try {
+            return Class.forName(name).asSubclass(AsyncExecutorFactory.class).getConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException | ClassCastException exception) {
+            throw new IllegalArgumentException("Unknown async executor factory '" + name + "'", exception);
+        }
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.util;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testfx.api.annotation.Unstable;
+
+/**
+ * Creates the named daemon threads of the {@code async} executor of {@link WaitForAsyncUtils}
+ * and keeps track of how many of them have been created and are still alive.
+ */
+@Unstable(reason = "class was recently added")
+public class AsyncThreadFactory implements ThreadFactory {
+
+    private final ThreadFactory delegate;
+    private final String namePrefix;
+
+    private final AtomicInteger createdThreadCount;
+    private final AtomicInteger aliveThreadCount;
+    private final AtomicInteger peakThreadCount;
+
+    public AsyncThreadFactory() {
+        this(Thread::new, "testfx-async-pool-thread");
+    }
+
+    /**
+     * Creates a thread factory that names the threads created by {@code delegate}.
+     *
+     * @param delegate the thread factory that creates the threads
+     * @param namePrefix the prefix of the thread names, followed by a running number
+     */
+    public AsyncThreadFactory(ThreadFactory delegate, String namePrefix) {
+        this(delegate, namePrefix, new AtomicInteger(), new AtomicInteger(), new AtomicInteger());
+    }
+
+    private AsyncThreadFactory(ThreadFactory delegate, String namePrefix, AtomicInteger createdThreadCount,
+                               AtomicInteger aliveThreadCount, AtomicInteger peakThreadCount) {
+        this.delegate = delegate;
+        this.namePrefix = namePrefix;
+        this.createdThreadCount = createdThreadCount;
+        this.aliveThreadCount = aliveThreadCount;
+        this.peakThreadCount = peakThreadCount;
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+        Thread thread = delegate.newThread(() -> {
+            peakThreadCount.accumulateAndGet(aliveThreadCount.incrementAndGet(), Math::max);
+            try {
+                runnable.run();
+            }
+            finally {
+                aliveThreadCount.decrementAndGet();
+            }
+        });
+        thread.setDaemon(true);
+        thread.setName(String.format("%s-%d", namePrefix, createdThreadCount.incrementAndGet()));
+        return thread;
+    }
+
+    /**
+     * Returns a thread factory that creates its threads with {@code delegate}, but shares the name
+     * prefix and the thread counts with this thread factory.
+     *
+     * @param delegate the thread factory that creates the threads
+     * @return the new thread factory
+     */
+    public AsyncThreadFactory withDelegate(ThreadFactory delegate) {
+        return new AsyncThreadFactory(delegate, namePrefix, createdThreadCount, aliveThreadCount, peakThreadCount);
+    }
+
+    /**
+     * Returns the number of threads created so far.
+     *
+     * @return the number of created threads
+     */
+    public int getCreatedThreadCount() {
+        return createdThreadCount.get();
+    }
+
+    /**
+     * Returns the number of created threads that are currently running.
+     *
+     * @return the number of alive threads
+     */
+    public int getAliveThreadCount() {
+        return aliveThreadCount.get();
+    }
+
+    /**
+     * Returns the highest number of threads that were running at the same time.
+     *
+     * @return the peak number of alive threads
+     */
+    public int getPeakThreadCount() {
+        return peakThreadCount.get();
+    }
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.testfx.api.annotation.Unstable;
+
+/**
+ * Collects the unhandled exceptions of the {@code async} methods of {@link WaitForAsyncUtils}.
+ * <p>
+ * By default all threads share the global scope. A test that runs concurrently with other tests can
+ * {@link #open() open} its own scope, so that {@link WaitForAsyncUtils#checkException()} only reports
+ * the exceptions of its own tasks:
+ * <pre>{@code
+ * try (ExceptionScope scope = ExceptionScope.open()) {
+ *     // run the test
+ *     WaitForAsyncUtils.checkException();
+ * }
+ * }</pre>
+ * Tasks submitted through {@link WaitForAsyncUtils} report to the scope of the thread that submitted
+ * them, also while they run on the async executor or the JavaFX Application Thread. Uncaught exceptions
+ * of other threads, e.g. of event handlers called for native input events, are reported to the scope
+ * of the thread they occur on, which usually is the global scope.
+ */
+@Unstable(reason = "class was recently added")
+public final class ExceptionScope implements AutoCloseable {
+
+    private static final ExceptionScope GLOBAL = new ExceptionScope(null);
+    private static final ThreadLocal<ExceptionScope> CURRENT = new ThreadLocal<>();
+
+    private final Queue<Throwable> exceptions = new ConcurrentLinkedQueue<>();
+    private final ExceptionScope previous;
+
+    private ExceptionScope(ExceptionScope previous) {
+        this.previous = previous;
+    }
+
+    /**
+     * Opens a new scope for the current thread. The scope stays open until it is {@link #close() closed}.
+     *
+     * @return the new scope
+     */
+    public static ExceptionScope open() {
+        ExceptionScope scope = new ExceptionScope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * Returns the scope of the current thread, or the global scope if the current thread has none.
+     *
+     * @return the current scope
+     */
+    public static ExceptionScope current() {
+        ExceptionScope scope = CURRENT.get();
+        return scope != null ? scope : GLOBAL;
+    }
+
+    /**
+     * Returns the scope that is shared by all threads that did not open a scope.
+     *
+     * @return the global scope
+     */
+    public static ExceptionScope global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Runs the given {@link Runnable} on the current thread with this scope as the current scope.
+     *
+     * @param runnable the runnable to run
+     */
+    public void runIn(Runnable runnable) {
+        ExceptionScope outer = CURRENT.get();
+        CURRENT.set(this == GLOBAL ? null : this);
+        try {
+            runnable.run();
+        }
+        finally {
+            CURRENT.set(outer);
+        }
+    }
+
+    /**
+     * Restores the scope that was current when this scope was opened. Unhandled exceptions that
+     * remain in this scope are discarded.
+     */
+    @Override
+    public void close() {
+        if (this == GLOBAL) {
+            throw new IllegalStateException("the global scope can not be closed");
+        }
+        if (CURRENT.get() == this) {
+            CURRENT.set(previous);
+        }
+        exceptions.clear();
+    }
+
+    Queue<Throwable> getExceptions() {
+        return exceptions;
+    }
+
+}
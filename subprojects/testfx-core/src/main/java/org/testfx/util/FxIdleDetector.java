@@ -0,0 +1,112 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.stage.Window;
+
+import org.testfx.internal.JavaVersionAdapter;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Detects when the JavaFX Application Thread has become idle, i.e. its event queue has been
+ * drained, no pulse ran in between and no scene waits for a layout pass.
+ * <p>
+ * The detector alternates two kinds of probes: a queue probe posted with
+ * {@link Platform#runLater(Runnable)} that reports the number of pulses seen so far, and a pulse
+ * listener that counts the pulses. A queue probe only shows that the events posted before it have
+ * run, not that these events did not post new ones behind it, so each probe lets a chain of nested
+ * {@code runLater} calls advance by one level. The JavaFX Application Thread is therefore only
+ * considered idle once a number of consecutive queue probes report the same pulse count and a clean
+ * scene graph. While a scene is dirty the detector waits for the next pulse instead of probing in a
+ * busy loop.
+ */
+final class FxIdleDetector {
+
+    private static final long DIRTY = -1;
+    private static final long PULSE_TIMEOUT_IN_MILLIS = 50;
+    private static final long PROBE_TIMEOUT_IN_MILLIS = 1000;
+
+    private FxIdleDetector() {}
+
+    /**
+     * Waits for the JavaFX Application Thread to become idle.
+     *
+     * @param probesCount the maximum number of queue probes to post
+     * @param quietProbesCount the number of consecutive queue probes that have to see no pulse and a
+     *      clean scene graph, i.e. the depth of nested {@code runLater} calls that is waited for
+     * @return {@literal true} if idle was detected, {@literal false} if it was not detected within
+     *      {@code probesCount} probes, if a probe did not run within {@value #PROBE_TIMEOUT_IN_MILLIS}
+     *      milliseconds, if the toolkit is not started or if the detector can not be used on the current
+     *      thread
+     */
+    static boolean awaitIdle(int probesCount, int quietProbesCount) {
+        if (Platform.isFxApplicationThread()) {
+            return false;
+        }
+        try {
+            long previousProbe = probe();
+            int quietProbes = 0;
+            for (int probe = 1; probe < probesCount; probe++) {
+                if (previousProbe == DIRTY) {
+                    FxPulses.awaitNext(MILLISECONDS.toNanos(PULSE_TIMEOUT_IN_MILLIS));
+                }
+                long currentProbe = probe();
+                if (currentProbe != DIRTY && currentProbe == previousProbe) {
+                    quietProbes++;
+                    if (quietProbes >= quietProbesCount) {
+                        return true;
+                    }
+                }
+                else {
+                    quietProbes = 0;
+                }
+                previousProbe = currentProbe;
+            }
+            return false;
+        }
+        catch (InterruptedException | ExecutionException | TimeoutException | IllegalStateException ignore) {
+            // The caller falls back to waiting a fixed number of times.
+            return false;
+        }
+    }
+
+    private static long probe() throws InterruptedException, ExecutionException, TimeoutException {
+        CompletableFuture<Long> probe = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            FxPulses.install();
+            probe.complete(isSceneGraphDirty() ? DIRTY : FxPulses.count());
+        });
+        return probe.get(PROBE_TIMEOUT_IN_MILLIS, MILLISECONDS);
+    }
+
+    private static boolean isSceneGraphDirty() {
+        for (Window window : JavaVersionAdapter.getWindows()) {
+            Scene scene = window.getScene();
+            if (window.isShowing() && scene != null && scene.getRoot() != null && scene.getRoot().isNeedsLayout()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.util;
+
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import org.testfx.api.annotation.Unstable;
+import org.testfx.internal.JavaVersionAdapter;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Counts the pulses of the JavaFX toolkit and notifies registered listeners after each pulse.
+ * Pulses are only counted after {@link #install()} has been called on the JavaFX Application
+ * Thread.
+ */
+@Unstable(reason = "class was recently added")
+public final class FxPulses {
+
+    private static final Object PULSE_LOCK = new Object();
+    private static final Runnable PULSE_LISTENER = FxPulses::pulse;
+    private static final Set<Runnable> LISTENERS = new CopyOnWriteArraySet<>();
+
+    private static long pulseCount;
+    private static volatile boolean installed;
+
+    private FxPulses() {}
+
+    /**
+     * Starts counting pulses. Needs to be called on the JavaFX Application Thread.
+     */
+    public static void install() {
+        if (!installed) {
+            JavaVersionAdapter.addPostPulseListener(PULSE_LISTENER);
+            installed = true;
+        }
+    }
+
+    /**
+     * Returns whether pulses are counted, i.e. whether {@link #install()} has been called.
+     *
+     * @return whether pulses are counted
+     */
+    public static boolean isInstalled() {
+        return installed;
+    }
+
+    /**
+     * Returns the number of pulses counted so far.
+     *
+     * @return the number of pulses
+     */
+    public static long count() {
+        synchronized (PULSE_LOCK) {
+            return pulseCount;
+        }
+    }
+
+    /**
+     * Waits until the next pulse has been counted or the timeout has elapsed.
+     *
+     * @param timeoutInNanos the maximum time to wait in nanoseconds
+     * @throws InterruptedException if the current thread was interrupted while waiting
+     */
+    public static void awaitNext(long timeoutInNanos) throws InterruptedException {
+        synchronized (PULSE_LOCK) {
+            long lastPulseCount = pulseCount;
+            long deadline = System.nanoTime() + timeoutInNanos;
+            long remainingNanos = timeoutInNanos;
+            while (pulseCount == lastPulseCount && remainingNanos > 0) {
+                NANOSECONDS.timedWait(PULSE_LOCK, remainingNanos);
+                remainingNanos = deadline - System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * Adds a listener that is run on the JavaFX Application Thread after each pulse.
+     *
+     * @param listener the listener to add
+     */
+    public static void addListener(Runnable listener) {
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * Removes a listener added with {@link #addListener(Runnable)}.
+     *
+     * @param listener the listener to remove
+     */
+    public static void removeListener(Runnable listener) {
+        LISTENERS.remove(listener);
+    }
+
+    private static void pulse() {
+        synchronized (PULSE_LOCK) {
+            pulseCount++;
+            PULSE_LOCK.notifyAll();
+        }
+        for (Runnable listener : LISTENERS) {
+            listener.run();
+        }
+    }
+
+}
@@ -16,16 +16,20 @@
  */
 package org.testfx.util;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import javafx.geometry.Bounds;
@@ -115,7 +119,17 @@ public final class NodeQueryUtils {
      * Returns a function that returns a {@code Set} of all {@code Node}s that pass the given {@code predicate}.
      */
     public static Function<Node, Set<Node>> byPredicate(Predicate<Node> predicate) {
-        return parentNode -> lookupWithPredicate(parentNode, predicate);
+        return parentNode -> lookupWithPredicate(parentNode, predicate, node -> false);
+    }
+
+    /**
+     * Returns a function that returns a {@code Set} of all {@code Node}s that pass the given {@code predicate},
+     * skipping every {@code Node} that passes the given {@code pruning} predicate together with its descendants
+     * (e.g. to skip invisible or collapsed branches).
+     */
+    public static Function<Node, Set<Node>> byPredicate(Predicate<Node> predicate,
+                                                        Predicate<Node> pruning) {
+        return parentNode -> lookupWithPredicate(parentNode, predicate, pruning);
     }
 
     /**
@@ -148,6 +162,28 @@ public final class NodeQueryUtils {
         return node -> hasNodeText(node, text);
     }
 
+    /**
+     * Returns a predicate that returns true if the node is a {@link javafx.scene.control.Label},
+     * {@link TextInputControl}, or any of their subclasses whose text starts with the given {@code prefix}.
+     */
+    public static Predicate<Node> hasTextPrefix(String prefix) {
+        return node -> {
+            String text = textOf(node);
+            return text != null && text.startsWith(prefix);
+        };
+    }
+
+    /**
+     * Returns a predicate that returns true if the node is a {@link javafx.scene.control.Label},
+     * {@link TextInputControl}, or any of their subclasses whose text matches the given {@code pattern}.
+     */
+    public static Predicate<Node> hasTextMatching(Pattern pattern) {
+        return node -> {
+            String text = textOf(node);
+            return text != null && pattern.matcher(text).matches();
+        };
+    }
+
     /**
      * Returns a predicate that returns true if the given node matches the given {@code matcher}.
      */
@@ -175,6 +211,59 @@ public final class NodeQueryUtils {
         return input -> combine(input, functions);
     }
 
+    /**
+     * Traverses the given node and its descendants depth-first in pre-order (i.e. in the order of
+     * {@link Parent#getChildrenUnmodifiable()}) and calls the given {@code visitor} for every node. The
+     * {@link TraversalAction} returned by the visitor decides whether the descendants of the node are visited
+     * and whether the traversal goes on. The traversal uses an explicit stack, so it does not allocate per
+     * node and is not limited by the depth of the scene graph.
+     */
+    public static void traverse(Node rootNode,
+                                Function<Node, TraversalAction> visitor) {
+        Deque<Node> pendingNodes = new ArrayDeque<>();
+        pendingNodes.push(rootNode);
+        while (!pendingNodes.isEmpty()) {
+            Node node = pendingNodes.pop();
+            TraversalAction action = visitor.apply(node);
+            if (action == TraversalAction.TERMINATE) {
+                return;
+            }
+            if (action == TraversalAction.CONTINUE && node instanceof Parent) {
+                List<Node> childNodes = ((Parent) node).getChildrenUnmodifiable();
+                for (ListIterator<Node> iterator = childNodes.listIterator(childNodes.size());
+                     iterator.hasPrevious();) {
+                    pendingNodes.push(iterator.previous());
+                }
+            }
+        }
+    }
+
+    //---------------------------------------------------------------------------------------------
+    // NESTED TYPES.
+    //---------------------------------------------------------------------------------------------
+
+    /**
+     * The action to take after a node was visited by {@link #traverse(Node, Function)}.
+     */
+    public enum TraversalAction {
+
+        /**
+         * Visit the descendants of the node and continue the traversal.
+         */
+        CONTINUE,
+
+        /**
+         * Skip the descendants of the node and continue the traversal.
+         */
+        SKIP_SUBTREE,
+
+        /**
+         * Stop the traversal.
+         */
+        TERMINATE
+
+    }
+
     //---------------------------------------------------------------------------------------------
     // PRIVATE STATIC METHODS.
     //---------------------------------------------------------------------------------------------
@@ -205,17 +294,18 @@ public final class NodeQueryUtils {
     }
 
     private static Set<Node> lookupWithPredicate(Node parentNode,
-                                                 Predicate<Node> predicate) {
+                                                 Predicate<Node> predicate,
+                                                 Predicate<Node> pruning) {
         Set<Node> resultNodes = new LinkedHashSet<>();
-        if (applyPredicateSafely(predicate, parentNode)) {
-            resultNodes.add(parentNode);
-        }
-        if (parentNode instanceof Parent) {
-            List<Node> childNodes = ((Parent) parentNode).getChildrenUnmodifiable();
-            for (Node childNode : childNodes) {
-                resultNodes.addAll(lookupWithPredicate(childNode, predicate));
+        traverse(parentNode, node -> {
+            if (applyPredicateSafely(pruning, node)) {
+                return TraversalAction.SKIP_SUBTREE;
             }
-        }
+            if (applyPredicateSafely(predicate, node)) {
+                resultNodes.add(node);
+            }
+            return TraversalAction.CONTINUE;
+        });
         return Collections.unmodifiableSet(resultNodes);
     }
 
@@ -247,6 +337,16 @@ public final class NodeQueryUtils {
         return false;
     }
 
+    private static String textOf(Node node) {
+        if (node instanceof Labeled) {
+            return ((Labeled) node).getText();
+        }
+        else if (node instanceof TextInputControl) {
+            return ((TextInputControl) node).getText();
+        }
+        return null;
+    }
+
     private static boolean matchesNodeMatcher(Node node,
                                               Matcher matcher) {
         // TODO: Test cases with ClassCastException.
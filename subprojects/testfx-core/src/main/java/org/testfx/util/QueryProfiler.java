@@ -0,0 +1,237 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.util;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import org.testfx.api.annotation.Unstable;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Aggregates how node queries were evaluated, so that expensive lookups can be found and narrowed
+ * down, e.g. by giving nodes an id or by querying {@code from(...)} a closer parent node.
+ * <p>
+ * Profiling is disabled by default and is enabled by the system property {@code testfx.query.profile}
+ * or by {@link #setEnabled(boolean)}. While it is enabled, every evaluation of a node query adds its
+ * {@link Statistics} to the statistics of the queries with the same description. {@link #report()}
+ * lists them, the most expensive query first.
+ * <p>
+ * The statistics are kept per thread, like the scopes of {@link ExceptionScope}: {@link #reset()} starts a
+ * new profile for the current thread, e.g. for the next test, and {@link #reportTest(String)} ends it, so
+ * that tests running in parallel do not mix or reset each other's statistics. Evaluations on a thread
+ * without a profile, e.g. on the JavaFX Application Thread, are added to a global profile.
+ * <p>
+ * The test rules and base classes of TestFX call {@link #reset()} before and {@link #reportTest(String)}
+ * after each test, which passes the report to the consumer set with {@link #setReportConsumer(Consumer)}
+ * (by default, it is printed to {@code System.err}).
+ */
+@Unstable(reason = "class was recently added")
+public final class QueryProfiler {
+
+    private static final String PROPERTY_TESTFX_QUERY_PROFILE = "testfx.query.profile";
+
+    private static final Map<String, Statistics> GLOBAL_STATISTICS_BY_QUERY = new HashMap<>();
+    private static final ThreadLocal<Map<String, Statistics>> STATISTICS_BY_QUERY = new ThreadLocal<>();
+
+    private static volatile boolean enabled = Boolean.getBoolean(PROPERTY_TESTFX_QUERY_PROFILE);
+
+    private static volatile Consumer<String> reportConsumer = System.err::print;
+
+    private QueryProfiler() {}
+
+    /**
+     * Returns whether the evaluations of node queries are profiled.
+     *
+     * @return whether profiling is enabled
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables the profiling of node queries.
+     *
+     * @param enabled whether to profile the evaluations of node queries
+     */
+    public static void setEnabled(boolean enabled) {
+        QueryProfiler.enabled = enabled;
+    }
+
+    /**
+     * Sets the consumer that receives the reports of {@link #reportTest(String)}, e.g. a logger.
+     *
+     * @param reportConsumer the consumer of the reports
+     */
+    public static void setReportConsumer(Consumer<String> reportConsumer) {
+        QueryProfiler.reportConsumer = Objects.requireNonNull(reportConsumer, "reportConsumer must not be null");
+    }
+
+    /**
+     * Passes the report of the queries recorded by the current thread since the last {@link #reset()} to
+     * the report consumer, headed by the given test name, if profiling is enabled and any query was
+     * recorded. Ends the profile of the current thread.
+     *
+     * @param testName the name of the test that evaluated the queries
+     */
+    public static void reportTest(String testName) {
+        String report = enabled ? report() : "";
+        STATISTICS_BY_QUERY.remove();
+        if (!report.isEmpty()) {
+            reportConsumer.accept("Node queries of " + testName + ":\n" + report);
+        }
+    }
+
+    /**
+     * Adds the statistics of one evaluation of the query with the given description.
+     *
+     * @param queryDescription the description of the query
+     * @param statistics the statistics of the evaluation
+     */
+    public static void record(String queryDescription,
+                              Statistics statistics) {
+        Map<String, Statistics> statisticsByQuery = currentStatisticsByQuery();
+        synchronized (statisticsByQuery) {
+            statisticsByQuery.computeIfAbsent(queryDescription, description -> new Statistics()).add(statistics);
+        }
+    }
+
+    /**
+     * Starts a new, empty profile for the current thread, which discards the statistics the current
+     * thread recorded so far.
+     */
+    public static void reset() {
+        STATISTICS_BY_QUERY.set(new HashMap<>());
+    }
+
+    /**
+     * Returns the aggregated statistics of all queries recorded by the current thread since the last
+     * {@link #reset()} (or of the global profile, if the current thread has none), one line per query and
+     * the query with the longest total wall time first. Returns an empty string if no query was recorded.
+     *
+     * @return the report
+     */
+    public static String report() {
+        Map<String, Statistics> statisticsByQuery = currentStatisticsByQuery();
+        List<Map.Entry<String, Statistics>> entries;
+        synchronized (statisticsByQuery) {
+            entries = new ArrayList<>();
+            statisticsByQuery.forEach((description, statistics) ->
+                entries.add(new AbstractMap.SimpleImmutableEntry<>(description, statistics.copy())));
+        }
+        entries.sort((entry1, entry2) -> Long.compare(entry2.getValue().getWallTimeInNanos(),
+            entry1.getValue().getWallTimeInNanos()));
+        StringBuilder report = new StringBuilder();
+        for (Map.Entry<String, Statistics> entry : entries) {
+            report.append(entry.getKey()).append(": ").append(entry.getValue()).append('\n');
+        }
+        return report.toString();
+    }
+
+    private static Map<String, Statistics> currentStatisticsByQuery() {
+        Map<String, Statistics> statisticsByQuery = STATISTICS_BY_QUERY.get();
+        return statisticsByQuery != null ? statisticsByQuery : GLOBAL_STATISTICS_BY_QUERY;
+    }
+
+    /**
+     * Counts the work done by one or more evaluations of a node query.
+     */
+    public static final class Statistics {
+
+        private long evaluations;
+        private long resultNodes;
+        private long visitedNodes;
+        private long predicateEvaluations;
+        private long allocatedSets;
+        private long wallTimeInNanos;
+
+        public long getEvaluations() {
+            return evaluations;
+        }
+
+        public long getResultNodes() {
+            return resultNodes;
+        }
+
+        public long getVisitedNodes() {
+            return visitedNodes;
+        }
+
+        public long getPredicateEvaluations() {
+            return predicateEvaluations;
+        }
+
+        public long getAllocatedSets() {
+            return allocatedSets;
+        }
+
+        public long getWallTimeInNanos() {
+            return wallTimeInNanos;
+        }
+
+        public void countEvaluation(int resultNodes,
+                                    long wallTimeInNanos) {
+            this.evaluations++;
+            this.resultNodes += resultNodes;
+            this.wallTimeInNanos += wallTimeInNanos;
+        }
+
+        public void countVisitedNode() {
+            visitedNodes++;
+        }
+
+        public void countPredicateEvaluation() {
+            predicateEvaluations++;
+        }
+
+        public void countAllocatedSet() {
+            allocatedSets++;
+        }
+
+        @Override
+        public String toString() {
+            double wallTimeInMillis = NANOSECONDS.toMicros(wallTimeInNanos) / 1000.0;
+            return evaluations + " evaluations, " + resultNodes + " result nodes, " + visitedNodes +
+                " visited nodes, " + predicateEvaluations + " predicate evaluations, " + allocatedSets +
+                " allocated sets, " + String.format(Locale.ROOT, "%.3f ms", wallTimeInMillis);
+        }
+
+        private void add(Statistics statistics) {
+            evaluations += statistics.evaluations;
+            resultNodes += statistics.resultNodes;
+            visitedNodes += statistics.visitedNodes;
+            predicateEvaluations += statistics.predicateEvaluations;
+            allocatedSets += statistics.allocatedSets;
+            wallTimeInNanos += statistics.wallTimeInNanos;
+        }
+
+        private Statistics copy() {
+            Statistics copy = new Statistics();
+            copy.add(this);
+            return copy;
+        }
+
+    }
+
+}
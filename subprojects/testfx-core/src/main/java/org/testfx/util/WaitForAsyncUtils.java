@@ -16,26 +16,24 @@
  */
 package org.testfx.util;
 
-import java.time.Duration;
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.Objects;
+import java.util.Locale;
 import java.util.Queue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.Semaphore;
-import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableBooleanValue;
 
@@ -79,6 +77,9 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
  * somewhere in the application. If the field {@code autoCheckException} is set to
  * {@literal true}, any subsequent calls to one of the {@code async} methods will
  * throw one of those exceptions.
+ * <p>
+ * The exception stack belongs to an {@link ExceptionScope}. Tests running concurrently
+ * in the same JVM can open their own scope to not see the exceptions of each other.
  */
 @Unstable
 public class WaitForAsyncUtils {
@@ -86,9 +87,16 @@ public class WaitForAsyncUtils {
     private static final long CONDITION_SLEEP_IN_MILLIS = 10;
     private static final long SEMAPHORE_SLEEP_IN_MILLIS = 10;
     private static final int SEMAPHORE_LOOPS_COUNT = 5;
+    private static final int IDLE_PROBES_COUNT = 20;
+
+    private static final AsyncThreadFactory THREAD_FACTORY = new AsyncThreadFactory();
+
+    private static volatile AsyncExecutorFactory executorFactory =
+            AsyncExecutorFactory.forName(System.getProperty("testfx.async.executor", "cached"));
+    private static volatile ExecutorService executorService = executorFactory.createExecutorService(THREAD_FACTORY);
 
-    private static ExecutorService executorService = Executors.newCachedThreadPool(new DefaultThreadFactory());
-    private static Queue<Throwable> exceptions = new ConcurrentLinkedQueue<>();
+    private static final Queue<Runnable> FX_SUBMISSIONS = new ConcurrentLinkedQueue<>();
+    private static final AtomicBoolean FX_DRAIN_SCHEDULED = new AtomicBoolean();
 
     /**
      * If {@literal true} any exceptions encountered during execution of the
@@ -109,12 +117,49 @@ public class WaitForAsyncUtils {
      */
     public static boolean checkAllExceptions = true;
 
+    /**
+     * If {@literal true} {@link #waitForFxEvents()} returns as soon as the JavaFX Application Thread
+     * is idle instead of blocking it a fixed number of times. If no idle state is detected the fixed
+     * loop of {@link #waitForFxEvents(int)} is used as a fallback.
+     * Default value: {@literal true}, can be changed with the system property {@code testfx.fxevents.idle}.
+     */
+    public static boolean detectFxIdle = Boolean.parseBoolean(System.getProperty("testfx.fxevents.idle", "true"));
+
+    /**
+     * If {@literal true} the runnables submitted to the JavaFX Application Thread by the {@code asyncFx}
+     * and {@code queueFx} methods are collected in a queue, which is drained by a single
+     * {@link Platform#runLater(Runnable)} call. Bursts of submissions, e.g. the steps of a mouse
+     * move, then cost one hop to the JavaFX Application Thread instead of one per submission.
+     * Note that the queued runnables may then run before runnables passed directly to
+     * {@link Platform#runLater(Runnable)} in between, e.g. by the tested application.
+     * Default value: {@literal false}, can be changed with the system property {@code testfx.async.coalesce}.
+     */
+    public static boolean coalesceFxSubmissions = Boolean.getBoolean("testfx.async.coalesce");
+
     /**
      * If {@literal true} exceptions will be printed when they are fetched by a caller.
      * Even when they are handled properly. This field is mainly for development debug purposes.
      */
     public static final boolean TRACE_FETCH = false;
 
+    /**
+     * Defines if and how the stack trace of the caller of the {@code async} methods is captured, so
+     * that it can be printed if the task fails. Default value: {@link CallerTraceMode#LAZY}, can be
+     * changed with the system property {@code testfx.async.trace} ({@code off}, {@code sampled},
+     * {@code lazy} or {@code eager}).
+     */
+    public static CallerTraceMode callerTraceMode = CallerTraceMode.valueOf(
+            System.getProperty("testfx.async.trace", "lazy").toUpperCase(Locale.ROOT));
+
+    /**
+     * The number of {@code async} calls per captured caller trace if the {@link #callerTraceMode} is
+     * {@link CallerTraceMode#SAMPLED}. Default value: 100, can be changed with the system property
+     * {@code testfx.async.trace.sample}.
+     */
+    public static int callerTraceSampleRate = Integer.getInteger("testfx.async.trace.sample", 100);
+
+    private static final AtomicInteger CALLER_TRACE_SAMPLE_COUNT = new AtomicInteger();
+
     /*
      * Static initialization of WaitForAsyncUtils.
      * Should be initialized with the FXToolkit, but the static initialization ensures
@@ -159,11 +204,54 @@ public class WaitForAsyncUtils {
                 printException(throwable, null);
             }
             // Add exception to stack of occured exceptions
-            exceptions.add(new RuntimeException(throwable));
+            ExceptionScope.current().getExceptions().add(new RuntimeException(throwable));
         }
     }
 
 
+    // ASYNC EXECUTOR.
+
+    /**
+     * Replaces the executor that runs the {@code async} methods with one created by the given
+     * factory. The previous executor is shut down, already submitted tasks are still executed.
+     *
+     * @param asyncExecutorFactory the factory of the new executor
+     */
+    public static synchronized void setAsyncExecutorFactory(AsyncExecutorFactory asyncExecutorFactory) {
+        ExecutorService previousExecutorService = executorService;
+        executorService = asyncExecutorFactory.createExecutorService(THREAD_FACTORY);
+        executorFactory = asyncExecutorFactory;
+        previousExecutorService.shutdown();
+    }
+
+    /**
+     * Returns the factory of the executor that runs the {@code async} methods.
+     *
+     * @return the factory of the current executor
+     */
+    public static AsyncExecutorFactory getAsyncExecutorFactory() {
+        return executorFactory;
+    }
+
+    /**
+     * Returns the executor that runs the {@code async} methods.
+     *
+     * @return the current executor
+     */
+    public static ExecutorService getAsyncExecutorService() {
+        return executorService;
+    }
+
+    /**
+     * Returns the thread factory of the executor that runs the {@code async} methods, which keeps
+     * track of the created threads.
+     *
+     * @return the thread factory
+     */
+    public static AsyncThreadFactory getAsyncThreadFactory() {
+        return THREAD_FACTORY;
+    }
+
     // ASYNC METHODS.
 
     /**
@@ -292,6 +380,35 @@ public class WaitForAsyncUtils {
         return call;
     }
 
+    /**
+     * Runs the given {@link Runnable} on the JavaFX Application Thread at some
+     * unspecified time in the future without creating a {@link Future} for it.
+     * <p>
+     * This is meant for fire-and-forget work, e.g. the events of a robot, where
+     * a {@code Future} would be discarded anyway. Exceptions are added to the
+     * internal exception stack and can be handled with {@link #checkException()}.
+     *
+     * @param runnable the runnable to run
+     */
+    public static void queueFx(Runnable runnable) {
+        if (autoCheckException) {
+            checkExceptionWrapped();
+        }
+        Throwable trace = captureCallerTrace();
+        ExceptionScope scope = ExceptionScope.current();
+        runOnFxThread(() -> scope.runIn(() -> {
+            try {
+                runnable.run();
+            }
+            catch (RuntimeException | Error exception) {
+                if (printException) {
+                    printException(exception, trace != null ? trace.getStackTrace() : null);
+                }
+                scope.getExceptions().add(exception);
+            }
+        }));
+    }
+
     // WAIT-FOR METHODS.
 
     /**
@@ -354,15 +471,80 @@ public class WaitForAsyncUtils {
      */
     public static void waitFor(long timeout, TimeUnit timeUnit, Callable<Boolean> condition)
             throws TimeoutException {
-        Instant start = Instant.now();
+        long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
         while (!callConditionAndReturnResult(condition)) {
             sleep(CONDITION_SLEEP_IN_MILLIS, MILLISECONDS);
-            if (Duration.between(start, Instant.now()).compareTo(Duration.of(timeout, chronoUnit(timeUnit))) >= 0) {
+            if (System.nanoTime() - deadline >= 0) {
                 throw new TimeoutException();
             }
         }
     }
 
+    /**
+     * Waits for given {@link Callable} to return {@literal true} otherwise times out with
+     * a {@link TimeoutException}. Unlike {@link #waitFor(long, TimeUnit, Callable)} the condition
+     * is evaluated on the JavaFX Application Thread: once immediately, after each pulse and
+     * whenever one of the given {@code dependencies} is invalidated. The waiting thread is woken
+     * up as soon as the condition returns {@literal true}.
+     * <p>
+     * The JavaFX toolkit only pulses if something needs to be rendered, so if no {@code dependencies}
+     * are given, the condition is also evaluated every 10 milliseconds to notice changes that do not
+     * cause a pulse. If {@code dependencies} are given, the condition should only depend on them and
+     * on the scene graph.
+     *
+     * @param timeout the timeout to wait for
+     * @param timeUnit the time unit {@code timeout} is in
+     * @param condition the condition to wait for to be {@literal true}
+     * @param dependencies the observables whose invalidation triggers an evaluation of the condition
+     * @throws TimeoutException if the wait timed out
+     */
+    public static void waitForFx(long timeout, TimeUnit timeUnit, Callable<Boolean> condition,
+                                 Observable... dependencies) throws TimeoutException {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        Runnable evaluation = () -> {
+            if (!future.isDone()) {
+                try {
+                    if (condition.call()) {
+                        future.complete(null);
+                    }
+                }
+                catch (Exception exception) {
+                    future.completeExceptionally(exception);
+                }
+            }
+        };
+        InvalidationListener invalidationListener = observable -> runOnFxThread(evaluation);
+        runOnFxThread(() -> {
+            FxPulses.install();
+            FxPulses.addListener(evaluation);
+            for (Observable dependency : dependencies) {
+                dependency.addListener(invalidationListener);
+            }
+            evaluation.run();
+        });
+        try {
+            if (dependencies.length > 0) {
+                waitFor(timeout, timeUnit, future);
+            }
+            else {
+                pollFx(timeout, timeUnit, future, evaluation);
+            }
+            if (!future.isDone()) {
+                // waitFor() returns without a result if the waiting thread was interrupted.
+                Thread.currentThread().interrupt();
+                throw new TimeoutException("interrupted while waiting for the condition");
+            }
+        }
+        finally {
+            FxPulses.removeListener(evaluation);
+            runOnFxThread(() -> {
+                for (Observable dependency : dependencies) {
+                    dependency.removeListener(invalidationListener);
+                }
+            });
+        }
+    }
+
     /**
      * Waits for given {@link ObservableBooleanValue} to return {@literal true} otherwise
      * times out with a {@link TimeoutException}.
@@ -392,8 +574,16 @@ public class WaitForAsyncUtils {
     /**
      * Waits for the event queue of the JavaFX Application Thread to be completed,
      * as well as any new events triggered in it.
+     * <p>
+     * If {@link #detectFxIdle} is {@literal true} this method returns as soon as the event queue
+     * has been probed {@value #SEMAPHORE_LOOPS_COUNT} times in a row without a pulse in between and
+     * no scene needs a layout pass, so events nested as deep as with the fixed loop are waited for.
+     * Otherwise, or if no idle state is detected, it falls back to {@link #waitForFxEvents(int)}.
      */
     public static void waitForFxEvents() {
+        if (detectFxIdle && FxIdleDetector.awaitIdle(IDLE_PROBES_COUNT, SEMAPHORE_LOOPS_COUNT)) {
+            return;
+        }
         waitForFxEvents(SEMAPHORE_LOOPS_COUNT);
     }
 
@@ -499,7 +689,8 @@ public class WaitForAsyncUtils {
 
     /**
      * Checks if an exception in an async task occurred that has not been checked currently.
-     * If so, the first exception will be removed and thrown by this method.
+     * If so, the first exception will be removed and thrown by this method. Only the exceptions
+     * of the {@link ExceptionScope#current() current scope} are checked.
      *
      * @throws Throwable if an exception has occurred in an async task
      */
@@ -512,10 +703,10 @@ public class WaitForAsyncUtils {
     }
 
     /**
-     * Clears all unhandled exceptions.
+     * Clears all unhandled exceptions of the {@link ExceptionScope#current() current scope}.
      */
     public static void clearExceptions() {
-        exceptions.clear();
+        ExceptionScope.current().getExceptions().clear();
     }
 
     // ---------------------------------------------------------------------------------------------
@@ -545,8 +736,8 @@ public class WaitForAsyncUtils {
      * @return the exception or {@literal null} if none in stack
      */
     private static Throwable getCheckException() {
-        if (exceptions.peek() != null) {
-            Throwable throwable = exceptions.poll();
+        Throwable throwable = ExceptionScope.current().getExceptions().poll();
+        if (throwable != null) {
             StackTraceElement stackTraceElement = new StackTraceElement(WaitForAsyncUtils.class.getName(),
                     "---- Delayed Exception: (See Trace Below) ----",
                     WaitForAsyncUtils.class.getSimpleName() + ".java", 0);
@@ -559,6 +750,27 @@ public class WaitForAsyncUtils {
         }
     }
 
+    /**
+     * Waits for the given future and runs the given evaluation on the JavaFX Application Thread
+     * whenever the future was not set within {@link #CONDITION_SLEEP_IN_MILLIS} milliseconds.
+     */
+    private static void pollFx(long timeout, TimeUnit timeUnit, Future<?> future, Runnable evaluation)
+            throws TimeoutException {
+        long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+        while (true) {
+            try {
+                waitFor(CONDITION_SLEEP_IN_MILLIS, MILLISECONDS, future);
+                return;
+            }
+            catch (TimeoutException exception) {
+                if (System.nanoTime() - deadline >= 0) {
+                    throw exception;
+                }
+                runOnFxThread(evaluation);
+            }
+        }
+    }
+
     private static <T> T waitForMillis(long millis, Future<T> future) {
         try {
             // exceptions are thrown on current thread
@@ -572,11 +784,36 @@ public class WaitForAsyncUtils {
     private static void runOnFxThread(Runnable runnable) {
         if (Platform.isFxApplicationThread()) {
             runnable.run();
+        } else if (coalesceFxSubmissions) {
+            FX_SUBMISSIONS.add(runnable);
+            if (FX_DRAIN_SCHEDULED.compareAndSet(false, true)) {
+                Platform.runLater(WaitForAsyncUtils::drainFxSubmissions);
+            }
         } else {
             Platform.runLater(runnable);
         }
     }
 
+    /**
+     * Runs all runnables queued by {@link #runOnFxThread(Runnable)} in submission order. Exceptions are
+     * handed to the uncaught exception handler, like for runnables passed to {@link Platform#runLater(Runnable)},
+     * and do not prevent the remaining runnables from being run.
+     */
+    private static void drainFxSubmissions() {
+        // reset the flag first, so that a runnable added after the queue is found empty schedules a new drain.
+        FX_DRAIN_SCHEDULED.set(false);
+        Runnable runnable;
+        while ((runnable = FX_SUBMISSIONS.poll()) != null) {
+            try {
+                runnable.run();
+            }
+            catch (Throwable throwable) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, throwable);
+            }
+        }
+    }
+
     private static boolean callConditionAndReturnResult(Callable<Boolean> condition) {
         try {
             return condition.call();
@@ -596,6 +833,31 @@ public class WaitForAsyncUtils {
         }
     }
 
+    /**
+     * Captures the stack trace of the current thread according to the {@link #callerTraceMode}.
+     * The frames of a {@link CallerTraceMode#LAZY} trace are only resolved when its stack trace
+     * is requested.
+     *
+     * @return the captured trace or {@literal null} if no trace was captured
+     */
+    private static Throwable captureCallerTrace() {
+        switch (callerTraceMode) {
+            case EAGER:
+                Throwable trace = new Throwable();
+                trace.getStackTrace();
+                return trace;
+            case LAZY:
+                return new Throwable();
+            case SAMPLED:
+                if (CALLER_TRACE_SAMPLE_COUNT.getAndIncrement() % Math.max(1, callerTraceSampleRate) == 0) {
+                    return new Throwable();
+                }
+                return null;
+            default:
+                return null;
+        }
+    }
+
     private static void printException(Throwable e, StackTraceElement[] trace) {
         StringBuilder out = new StringBuilder("--- Exception in Async Thread ---\n");
         out.append(e.getClass().getName()).append(": ").append(e.getMessage()).append('\n');
@@ -629,28 +891,6 @@ public class WaitForAsyncUtils {
         return stackTrace.toString();
     }
 
-    private static ChronoUnit chronoUnit(TimeUnit unit) {
-        Objects.requireNonNull(unit, "unit");
-        switch (unit) {
-            case NANOSECONDS:
-                return ChronoUnit.NANOS;
-            case MICROSECONDS:
-                return ChronoUnit.MICROS;
-            case MILLISECONDS:
-                return ChronoUnit.MILLIS;
-            case SECONDS:
-                return ChronoUnit.SECONDS;
-            case MINUTES:
-                return ChronoUnit.MINUTES;
-            case HOURS:
-                return ChronoUnit.HOURS;
-            case DAYS:
-                return ChronoUnit.DAYS;
-            default:
-                throw new IllegalArgumentException("Unknown TimeUnit constant");
-        }
-    }
-
     /**
      * Internally used {@code Callable} that handles all the async stuff. All external
      * Callables/Runnables must be wrapped in this class.
@@ -667,9 +907,15 @@ public class WaitForAsyncUtils {
         private final boolean throwException;
 
         /**
-         * Holds the stacktrace of the caller, for printing, if an Exception occurs.
+         * Holds the stacktrace of the caller, for printing, if an Exception occurs. Is {@literal null}
+         * if no trace was captured.
+         */
+        private final Throwable trace;
+
+        /**
+         * The scope of the caller, to which the unhandled exception is added.
          */
-        private final StackTraceElement[] trace;
+        private final ExceptionScope scope = ExceptionScope.current();
 
         /**
          * The unhandled exception.
@@ -680,13 +926,13 @@ public class WaitForAsyncUtils {
         public ASyncFXCallable(Runnable runnable, boolean throwException) {
             super(runnable, null);
             this.throwException = throwException;
-            trace = Thread.currentThread().getStackTrace();
+            trace = captureCallerTrace();
         }
 
         public ASyncFXCallable(Callable<X> callable, boolean throwException) {
             super(callable);
             this.throwException = throwException;
-            trace = Thread.currentThread().getStackTrace();
+            trace = captureCallerTrace();
         }
 
         /**
@@ -696,11 +942,11 @@ public class WaitForAsyncUtils {
         protected void setException(Throwable throwable) {
             if (throwException) {
                 if (printException) {
-                    printException(throwable, trace);
+                    printException(throwable, trace != null ? trace.getStackTrace() : null);
                 }
                 exception = transformException(throwable);
                 // Add exception to stack of occured exceptions
-                exceptions.add(exception);
+                scope.getExceptions().add(exception);
             }
             super.setException(throwable);
         }
@@ -724,6 +970,11 @@ public class WaitForAsyncUtils {
             }
         }
 
+        @Override
+        public void run() {
+            scope.runIn(super::run);
+        }
+
         @Override
         public X call() throws Exception {
             run();
@@ -737,7 +988,7 @@ public class WaitForAsyncUtils {
             }
             catch (Exception e) { // exception is thrown to caller, so remove it from stack
                 if (exception != null) {
-                    exceptions.remove(exception);
+                    scope.getExceptions().remove(exception);
                     exception = null;
                 }
                 if (TRACE_FETCH) {
@@ -755,7 +1006,7 @@ public class WaitForAsyncUtils {
             }
             catch (Exception e) { // exception is thrown to caller, so remove it from stack
                 if (exception != null) {
-                    exceptions.remove(exception);
+                    scope.getExceptions().remove(exception);
                     exception = null;
                 }
                 throw e;
@@ -764,15 +1015,32 @@ public class WaitForAsyncUtils {
 
     }
 
-    private static class DefaultThreadFactory implements ThreadFactory {
-        private final AtomicInteger threadCount = new AtomicInteger(1);
+    /**
+     * Defines if and how the stack trace of the caller of the {@code async} methods is captured.
+     */
+    public enum CallerTraceMode {
+
+        /**
+         * No caller trace is captured.
+         */
+        OFF,
+
+        /**
+         * The caller trace is only captured for every {@link WaitForAsyncUtils#callerTraceSampleRate}-th call.
+         */
+        SAMPLED,
+
+        /**
+         * The caller trace is captured for every call, but its frames are only resolved if the
+         * task fails.
+         */
+        LAZY,
+
+        /**
+         * The caller trace is captured and resolved for every call.
+         */
+        EAGER
 
-        @Override
-        public Thread newThread(Runnable r) {
-            final Thread thread = new Thread(r);
-            thread.setDaemon(true);
-            thread.setName(String.format("testfx-async-pool-thread-%d", threadCount.getAndIncrement()));
-            return thread;
-        }
     }
+
 }
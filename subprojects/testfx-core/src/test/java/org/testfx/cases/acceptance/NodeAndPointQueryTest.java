@@ -36,15 +36,18 @@ import org.junit.rules.ExpectedException;
 import org.junit.rules.RuleChain;
 import org.junit.rules.TestRule;
 import org.testfx.api.FxRobot;
+import org.testfx.api.FxRobotBatch;
 import org.testfx.api.FxRobotException;
 import org.testfx.api.FxToolkit;
 import org.testfx.framework.junit.TestFXRule;
+import org.testfx.matcher.base.NodeMatchers;
 import org.testfx.service.query.NodeQuery;
 import org.testfx.service.query.PointQuery;
 
 import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 
@@ -134,6 +137,57 @@ public class NodeAndPointQueryTest {
         fx.point(".missing");
     }
 
+    @Test
+    public void batch_returns_results_of_all_steps() {
+        // when:
+        FxRobotBatch.Result result = fx.batch(batch -> batch
+            .lookup(".button")
+            .bounds(".button")
+            .point(".button")
+            .verify(".label", NodeMatchers.isInvisible()));
+
+        // then:
+        assertThat(result.nodes(".button"), hasItems(button0, button1));
+        assertThat(result.bounds(".button"), notNullValue());
+        assertThat(result.point(".button"), instanceOf(Point2D.class));
+    }
+
+    @Test
+    public void batch_throws_exception_for_missing_node() {
+        // expect:
+        exception.expect(FxRobotException.class);
+        exception.expectMessage("the query \".missing\" returned no nodes.");
+
+        fx.batch(batch -> batch.lookup(".button").point(".missing"));
+    }
+
+    @Test
+    public void batch_throws_assertion_error_for_failed_verification() {
+        // expect:
+        exception.expect(AssertionError.class);
+        exception.expectMessage("Expected: Node is visible");
+
+        fx.batch(batch -> batch.verify(".label", NodeMatchers.isVisible()));
+    }
+
+    @Test
+    public void batch_maps_message_of_failed_verification() {
+        // expect:
+        exception.expect(AssertionError.class);
+        exception.expectMessage("Label check failed");
+
+        fx.batch(batch -> batch.verify(".label", NodeMatchers.isVisible(), sb -> sb.insert(0, "Label check failed")));
+    }
+
+    @Test
+    public void batch_throws_exception_for_missing_node_in_verification() {
+        // expect:
+        exception.expect(FxRobotException.class);
+        exception.expectMessage("the query \".missing\" returned no nodes.");
+
+        fx.batch(batch -> batch.verify(".missing", NodeMatchers.isVisible()));
+    }
+
     @Test
     @Ignore("flaky")
     public void moveTo() {
@@ -23,10 +23,14 @@ import org.testfx.framework.junit.TestFXRule;
 import org.testfx.robot.MouseRobot;
 import org.testfx.robot.ScrollRobot;
 
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 public class ScrollRobotImplTest {
 
@@ -77,4 +81,70 @@ public class ScrollRobotImplTest {
         // then:
         verify(mouseRobot, times(5)).scroll(eq(1));
     }
+
+    @Test
+    public void scrollDown_in_burst_mode() {
+        // given:
+        scrollRobot = new ScrollRobotImpl(mouseRobot, ScrollRobotImpl.ScrollMode.BURST);
+
+        // when:
+        scrollRobot.scrollDown(5);
+
+        // then:
+        verify(mouseRobot, times(4)).scrollNoWait(eq(1));
+        verify(mouseRobot, times(1)).scroll(eq(1));
+        verifyNoMoreInteractions(mouseRobot);
+    }
+
+    @Test
+    public void scrollUp_in_aggregate_mode() {
+        // given:
+        scrollRobot = new ScrollRobotImpl(mouseRobot, ScrollRobotImpl.ScrollMode.AGGREGATE);
+
+        // when:
+        scrollRobot.scrollUp(5);
+
+        // then:
+        verify(mouseRobot, times(1)).scroll(eq(-5));
+        verifyNoMoreInteractions(mouseRobot);
+    }
+
+    @Test
+    public void scroll_mode_from_system_property() {
+        // given:
+        System.setProperty("testfx.robot.scroll", "Aggregate");
+
+        try {
+            // when:
+            scrollRobot = new ScrollRobotImpl(mouseRobot);
+            scrollRobot.scrollDown(3);
+
+            // then:
+            verify(mouseRobot, times(1)).scroll(eq(3));
+            verifyNoMoreInteractions(mouseRobot);
+        }
+        finally {
+            System.clearProperty("testfx.robot.scroll");
+        }
+    }
+
+    @Test
+    public void unknown_scroll_mode_from_system_property() {
+        // given:
+        System.setProperty("testfx.robot.scroll", "smooth");
+
+        try {
+            // when:
+            new ScrollRobotImpl(mouseRobot);
+            fail("unknown scroll mode was accepted");
+        }
+        catch (IllegalStateException exception) {
+            // then:
+            assertThat(exception.getMessage(), is("Unknown scroll mode 'testfx.robot.scroll=smooth'"));
+        }
+        finally {
+            System.clearProperty("testfx.robot.scroll");
+        }
+    }
+
 }
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.robot.impl;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javafx.application.Platform;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.rules.Timeout;
+import org.testfx.api.FxToolkit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class VirtualSleepRobotImplTest {
+
+    @Rule
+    public TestRule rule = Timeout.millis(5000);
+
+    public VirtualSleepRobotImpl sleepRobot;
+
+    @BeforeClass
+    public static void setupSpec() throws Exception {
+        FxToolkit.registerPrimaryStage();
+    }
+
+    @Before
+    public void setup() {
+        sleepRobot = new VirtualSleepRobotImpl();
+    }
+
+    @Test
+    public void sleep_advances_virtual_time() {
+        // when:
+        sleepRobot.sleep(1000);
+        sleepRobot.sleep(1, TimeUnit.MINUTES);
+
+        // then:
+        assertThat(sleepRobot.getVirtualTimeInMillis(), is(61000L));
+    }
+
+    @Test
+    public void sleep_runs_pending_fx_events() {
+        // given:
+        AtomicBoolean eventRun = new AtomicBoolean(false);
+        Platform.runLater(() -> eventRun.set(true));
+
+        // when:
+        sleepRobot.sleep(10);
+
+        // then:
+        assertThat(eventRun.get(), is(true));
+    }
+
+    @Test
+    public void short_sleeps_do_not_wait_for_fx_events() throws Exception {
+        // given:
+        CountDownLatch release = new CountDownLatch(1);
+        Platform.runLater(() -> {
+            try {
+                release.await();
+            }
+            catch (InterruptedException ignore) {
+            }
+        });
+
+        try {
+            // when:
+            for (int step = 0; step < 9; step++) {
+                sleepRobot.sleep(1);
+            }
+
+            // then:
+            assertThat(sleepRobot.getVirtualTimeInMillis(), is(9L));
+        }
+        finally {
+            release.countDown();
+        }
+    }
+
+}
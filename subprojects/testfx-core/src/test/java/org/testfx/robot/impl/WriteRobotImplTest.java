@@ -16,7 +16,9 @@
  */
 package org.testfx.robot.impl;
 
+import java.util.Arrays;
 import javafx.scene.Scene;
+import javafx.scene.control.TextField;
 import javafx.scene.input.KeyCode;
 import javafx.scene.layout.Region;
 import javafx.stage.Stage;
@@ -31,12 +33,16 @@ import org.testfx.robot.BaseRobot;
 import org.testfx.robot.SleepRobot;
 import org.testfx.robot.WriteRobot;
 import org.testfx.service.finder.WindowFinder;
+import org.testfx.util.WaitForAsyncUtils;
 
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 public final class WriteRobotImplTest {
 
@@ -105,4 +111,42 @@ public final class WriteRobotImplTest {
         verify(baseRobot, times(1)).typeKeyboard(eq(scene), eq(KeyCode.UNDEFINED), eq("e"));
     }
 
+    @Test
+    public void write_string_in_batch() {
+        // given:
+        given(windowFinder.targetWindow()).willReturn(stage);
+        writeRobot = new WriteRobotImpl(baseRobot, sleepRobot, windowFinder, true);
+
+        // when:
+        writeRobot.write("a\n");
+
+        // then:
+        verify(baseRobot, times(1)).typeKeyboard(eq(scene), eq(Arrays.asList(KeyCode.UNDEFINED, KeyCode.ENTER)),
+                eq("a\n"));
+        verify(baseRobot, times(1)).awaitEvents();
+        verifyNoMoreInteractions(baseRobot, sleepRobot);
+    }
+
+    @Test
+    public void write_string_in_batch_to_text_field() throws Exception {
+        // given:
+        TextField textField = new TextField();
+        FxToolkit.setupScene(() -> new Scene(textField));
+        FxToolkit.showStage();
+        WaitForAsyncUtils.waitForAsyncFx(1000, textField::requestFocus);
+        given(windowFinder.targetWindow()).willReturn(stage);
+        writeRobot = new WriteRobotImpl(new BaseRobotImpl(), sleepRobot, windowFinder, true);
+
+        try {
+            // when:
+            writeRobot.write("foo bar");
+
+            // then:
+            assertThat(textField.getText(), is("foo bar"));
+        }
+        finally {
+            FxToolkit.hideStage();
+        }
+    }
+
 }
@@ -0,0 +1,296 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.service.adapter.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javafx.event.EventHandler;
+import javafx.geometry.Insets;
+import javafx.geometry.Point2D;
+import javafx.geometry.Pos;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.TextField;
+import javafx.scene.image.Image;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.stage.Stage;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.testfx.api.FxToolkit;
+import org.testfx.framework.junit.TestFXRule;
+import org.testfx.service.locator.PointLocator;
+import org.testfx.service.locator.impl.BoundsLocatorImpl;
+import org.testfx.service.locator.impl.PointLocatorImpl;
+import org.testfx.util.WaitForAsyncUtils;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class JavafxEventRobotAdapterTest {
+
+    @Rule
+    public TestFXRule testFXRule = new TestFXRule();
+
+    public JavafxEventRobotAdapter robotAdapter;
+    public Stage targetStage;
+    public Parent sceneRoot;
+    public Region region;
+    public TextField textField;
+    public Button button;
+    public Point2D regionPoint;
+    public Point2D textFieldPoint;
+    public Point2D buttonPoint;
+
+    @BeforeClass
+    public static void setupSpec() throws Exception {
+        FxToolkit.registerPrimaryStage();
+    }
+
+    @Before
+    public void setup() throws Exception {
+        robotAdapter = new JavafxEventRobotAdapter();
+        targetStage = FxToolkit.setupStage(stage -> {
+            region = new Region();
+            region.setStyle("-fx-background-color: magenta;");
+            textField = new TextField();
+            button = new Button("button");
+
+            VBox box = new VBox(region, textField, button);
+            box.setPadding(new Insets(10));
+            box.setSpacing(10);
+            VBox.setVgrow(region, Priority.ALWAYS);
+
+            sceneRoot = new StackPane(box);
+            Scene scene = new Scene(sceneRoot, 300, 200);
+            stage.setScene(scene);
+            stage.show();
+        });
+
+        PointLocator pointLocator = new PointLocatorImpl(new BoundsLocatorImpl());
+        regionPoint = pointLocator.point(region).atPosition(Pos.CENTER).query();
+        textFieldPoint = pointLocator.point(textField).atPosition(Pos.CENTER).query();
+        buttonPoint = pointLocator.point(button).atPosition(Pos.CENTER).query();
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        robotAdapter.keyRelease(KeyCode.A);
+        robotAdapter.mouseRelease(MouseButton.PRIMARY);
+        robotAdapter.timerWaitForIdle();
+        FxToolkit.hideStage();
+    }
+
+    // ROBOT.
+
+    @Test
+    public void robotCreate() {
+        // when:
+        robotAdapter.robotCreate();
+
+        // then:
+        assertThat(robotAdapter.getRobotInstance(), nullValue());
+    }
+
+    // KEY.
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void keyPress() {
+        // given:
+        EventHandler<KeyEvent> keyEventHandler = mock(EventHandler.class);
+        targetStage.addEventFilter(KeyEvent.KEY_PRESSED, keyEventHandler);
+
+        // when:
+        robotAdapter.keyPress(KeyCode.A);
+
+        // then:
+        robotAdapter.timerWaitForIdle();
+        verify(keyEventHandler, times(1)).handle(any());
+    }
+
+    @Test
+    public void keyPress_types_into_focused_text_field() {
+        // given:
+        WaitForAsyncUtils.waitForAsyncFx(1000, textField::requestFocus);
+
+        // when:
+        robotAdapter.keyPress(KeyCode.A);
+        robotAdapter.keyRelease(KeyCode.A);
+        robotAdapter.keyPress(KeyCode.SHIFT);
+        robotAdapter.keyPress(KeyCode.B);
+        robotAdapter.keyRelease(KeyCode.B);
+        robotAdapter.keyRelease(KeyCode.SHIFT);
+        robotAdapter.keyPress(KeyCode.DIGIT1);
+        robotAdapter.keyRelease(KeyCode.DIGIT1);
+
+        // then:
+        robotAdapter.timerWaitForIdle();
+        assertThat(textField.getText(), is("aB1"));
+    }
+
+    // MOUSE.
+
+    @Test
+    public void mouseMove() {
+        // given:
+        robotAdapter.mouseMove(new Point2D(100, 200));
+
+        // when:
+        robotAdapter.timerWaitForIdle();
+        Point2D mouseLocation = robotAdapter.getMouseLocation();
+
+        // then:
+        assertThat(mouseLocation.getX(), is(100.0));
+        assertThat(mouseLocation.getY(), is(200.0));
+    }
+
+    @Test
+    public void mouseMove_enters_and_exits_nodes() {
+        // given:
+        List<String> events = new ArrayList<>();
+        region.setOnMouseEntered(event -> events.add("region entered"));
+        region.setOnMouseExited(event -> events.add("region exited"));
+        button.setOnMouseEntered(event -> events.add("button entered"));
+
+        // when:
+        robotAdapter.mouseMove(regionPoint);
+        robotAdapter.mouseMove(buttonPoint);
+
+        // then:
+        robotAdapter.timerWaitForIdle();
+        assertThat(events.toString(), is("[region entered, region exited, button entered]"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void mousePress_and_mouseRelease() {
+        // given:
+        EventHandler<MouseEvent> mouseEventHandler = mock(EventHandler.class);
+        region.addEventHandler(MouseEvent.MOUSE_PRESSED, mouseEventHandler);
+        region.addEventHandler(MouseEvent.MOUSE_RELEASED, mouseEventHandler);
+        region.addEventHandler(MouseEvent.MOUSE_CLICKED, mouseEventHandler);
+
+        // and:
+        robotAdapter.mouseMove(regionPoint);
+
+        // when:
+        robotAdapter.mousePress(MouseButton.PRIMARY);
+        robotAdapter.mouseRelease(MouseButton.PRIMARY);
+
+        // then:
+        robotAdapter.timerWaitForIdle();
+        verify(mouseEventHandler, times(3)).handle(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void mouseRelease_on_other_node_does_not_click() {
+        // given:
+        EventHandler<MouseEvent> mouseEventHandler = mock(EventHandler.class);
+        region.addEventHandler(MouseEvent.MOUSE_CLICKED, mouseEventHandler);
+        EventHandler<MouseEvent> draggedEventHandler = mock(EventHandler.class);
+        region.addEventHandler(MouseEvent.MOUSE_DRAGGED, draggedEventHandler);
+
+        // when:
+        robotAdapter.mouseMove(regionPoint);
+        robotAdapter.mousePress(MouseButton.PRIMARY);
+        robotAdapter.mouseMove(buttonPoint);
+        robotAdapter.mouseRelease(MouseButton.PRIMARY);
+
+        // then:
+        robotAdapter.timerWaitForIdle();
+        verify(draggedEventHandler, times(1)).handle(any());
+        verify(mouseEventHandler, never()).handle(any());
+    }
+
+    @Test
+    public void mouseClick_fires_button() {
+        // given:
+        AtomicInteger actionCount = new AtomicInteger();
+        button.setOnAction(event -> actionCount.incrementAndGet());
+
+        // when:
+        robotAdapter.mouseMove(buttonPoint);
+        robotAdapter.mousePress(MouseButton.PRIMARY);
+        robotAdapter.mouseRelease(MouseButton.PRIMARY);
+
+        // then:
+        robotAdapter.timerWaitForIdle();
+        assertThat(actionCount.get(), is(1));
+    }
+
+    @Test
+    public void mouseWheel() {
+        // given:
+        List<Double> deltas = new ArrayList<>();
+        region.addEventHandler(ScrollEvent.SCROLL, event -> deltas.add(event.getDeltaY()));
+
+        // when:
+        robotAdapter.mouseMove(regionPoint);
+        robotAdapter.mouseWheel(1);
+
+        // then:
+        robotAdapter.timerWaitForIdle();
+        assertThat(deltas.toString(), is("[-40.0]"));
+    }
+
+    // CAPTURE.
+
+    @Test
+    public void getCapturePixelColor() {
+        // when:
+        Color pixelColor = robotAdapter.getCapturePixelColor(regionPoint);
+
+        // then:
+        assertThat(pixelColor, is(Color.web("magenta")));
+    }
+
+    @Test
+    public void getCaptureRegion() {
+        // when:
+        Rectangle2D region = new Rectangle2D(regionPoint.getX(), regionPoint.getY(), 10, 20);
+        Image regionImage = robotAdapter.getCaptureRegion(region);
+
+        // then:
+        assertThat(regionImage.getWidth(), is(10.0));
+        assertThat(regionImage.getHeight(), is(20.0));
+        assertThat(regionImage.getPixelReader().getColor(5, 10), is(Color.web("magenta")));
+    }
+
+}
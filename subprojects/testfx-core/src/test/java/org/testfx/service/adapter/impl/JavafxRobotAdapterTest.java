@@ -16,6 +16,7 @@
  */
 package org.testfx.service.adapter.impl;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
@@ -214,6 +215,12 @@ public class JavafxRobotAdapterTest {
         verifyThat(textArea, hasText(text));
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void keyTypeAll_rejects_keys_and_characters_of_different_length() {
+        // expect:
+        robotAdapter.keyTypeAll(Arrays.asList(KeyCode.A, KeyCode.B), "a");
+    }
+
     @Test
     public void keyPressTypeRelease_korean_text() {
         // given:
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.service.finder.impl;
+
+import java.util.Collections;
+import java.util.function.Predicate;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.layout.VBox;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.testfx.api.FxToolkit;
+import org.testfx.framework.junit.TestFXRule;
+import org.testfx.service.finder.NodeFinder;
+import org.testfx.service.finder.WindowFinder;
+import org.testfx.service.query.NodeQuery;
+import org.testfx.service.query.impl.NodeQueryImpl;
+import org.testfx.util.WaitForAsyncUtils;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class CachingNodeFinderTest {
+
+    @Rule
+    public TestFXRule testFXRule = new TestFXRule();
+
+    VBox root;
+    Label label;
+    NodeFinder nodeFinder;
+    WindowFinder windowFinder;
+    CachingNodeFinder cachingNodeFinder;
+
+    @BeforeClass
+    public static void setupSpec() throws Exception {
+        FxToolkit.registerPrimaryStage();
+    }
+
+    @Before
+    public void setup() throws Exception {
+        FxToolkit.setupScene(() -> {
+            label = new Label("label");
+            label.setId("label");
+            root = new VBox(label);
+            return new Scene(root);
+        });
+        FxToolkit.showStage();
+        nodeFinder = mock(NodeFinder.class);
+        given(nodeFinder.lookup("#label")).willAnswer(invocation -> new NodeQueryImpl().from(label));
+        windowFinder = mock(WindowFinder.class);
+        given(windowFinder.listTargetWindows()).willReturn(Collections.singletonList(root.getScene().getWindow()));
+        cachingNodeFinder = new CachingNodeFinder(nodeFinder, windowFinder);
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        FxToolkit.hideStage();
+    }
+
+    @Test
+    public void lookup_is_cached_within_pulse() {
+        // when:
+        WaitForAsyncUtils.waitForAsyncFx(1000, () -> {
+            cachingNodeFinder.lookup("#label").queryAll();
+            assertThat(cachingNodeFinder.lookup("#label").lookup("other").query(), is(nullValue()));
+            assertThat(cachingNodeFinder.lookup("#label").query(), is(label));
+        });
+
+        // then:
+        verify(nodeFinder, times(1)).lookup("#label");
+        assertThat(cachingNodeFinder.getHitCount(), is(2L));
+        assertThat(cachingNodeFinder.getMissCount(), is(1L));
+    }
+
+    @Test
+    public void lookup_is_invalidated_by_pulse() throws Exception {
+        // given:
+        cachingNodeFinder.lookup("#label").query();
+
+        // when:
+        WaitForAsyncUtils.waitForAsyncFx(1000, () -> label.setText("changed"));
+        WaitForAsyncUtils.waitForFxEvents();
+        cachingNodeFinder.lookup("#label").query();
+
+        // then:
+        verify(nodeFinder, times(2)).lookup("#label");
+        assertThat(cachingNodeFinder.getMissCount(), is(2L));
+    }
+
+    @Test
+    public void lookup_is_invalidated_by_scene_graph_change() {
+        // given:
+        SceneGraphIndex sceneGraphIndex = new SceneGraphIndex();
+        cachingNodeFinder = new CachingNodeFinder(nodeFinder, windowFinder, sceneGraphIndex);
+
+        try {
+            // when:
+            WaitForAsyncUtils.waitForAsyncFx(1000, () -> {
+                cachingNodeFinder.lookup("#label").query();
+                root.getChildren().add(new Label("other"));
+                cachingNodeFinder.lookup("#label").query();
+            });
+
+            // then:
+            verify(nodeFinder, times(2)).lookup("#label");
+            assertThat(cachingNodeFinder.getHitCount(), is(0L));
+        }
+        finally {
+            sceneGraphIndex.close();
+        }
+    }
+
+    @Test
+    public void query_stops_at_first_node_and_is_cached() {
+        // given:
+        NodeQuery nodeQuery = mock(NodeQuery.class);
+        given(nodeQuery.<Node>query()).willReturn(label);
+        given(nodeFinder.lookup(".label")).willReturn(nodeQuery);
+
+        // when:
+        WaitForAsyncUtils.waitForAsyncFx(1000, () -> {
+            assertThat(cachingNodeFinder.lookup(".label").query(), is(label));
+            assertThat(cachingNodeFinder.lookup(".label").query(), is(label));
+        });
+
+        // then:
+        verify(nodeFinder, times(1)).lookup(".label");
+        verify(nodeQuery, never()).queryAll();
+        assertThat(cachingNodeFinder.getHitCount(), is(1L));
+    }
+
+    @Test
+    public void lookup_is_invalidated_by_scene_graph_change_of_supplied_index() {
+        // given:
+        SceneGraphIndex[] sceneGraphIndex = new SceneGraphIndex[1];
+        cachingNodeFinder = new CachingNodeFinder(nodeFinder, windowFinder,
+            () -> sceneGraphIndex[0] = new SceneGraphIndex());
+
+        try {
+            // when:
+            cachingNodeFinder.lookup("#label").query();
+            WaitForAsyncUtils.waitForAsyncFx(1000, () -> {
+                cachingNodeFinder.lookup("#label").query();
+                label.setId("changed");
+                cachingNodeFinder.lookup("#label").query();
+            });
+
+            // then:
+            verify(nodeFinder, times(2)).lookup("#label");
+        }
+        finally {
+            sceneGraphIndex[0].close();
+        }
+    }
+
+    @Test
+    public void predicate_lookup_is_not_cached() {
+        // given:
+        Predicate<Node> predicate = node -> node == label;
+        given(nodeFinder.lookup(predicate)).willAnswer(invocation -> new NodeQueryImpl().from(label));
+
+        // when:
+        WaitForAsyncUtils.waitForAsyncFx(1000, () -> {
+            cachingNodeFinder.lookup(predicate).query();
+            cachingNodeFinder.lookup(predicate).query();
+        });
+
+        // then:
+        verify(nodeFinder, times(2)).lookup(predicate);
+    }
+
+}
@@ -233,6 +233,20 @@ public class NodeFinderImplTest {
         assertThat(nodeFinder.lookup(matcher).query(), is(firstIdLabel));
     }
 
+    @Test
+    public void nodes_text_prefix() {
+        // expect:
+        assertThat(nodeFinder.lookupByTextPrefix("sub").queryAll(), hasItems(subLabel, subSubLabel));
+        assertThat(nodeFinder.lookupByTextPrefix("subS").queryAll().size(), is(1));
+    }
+
+    @Test
+    public void nodes_text_pattern() {
+        // expect:
+        assertThat(nodeFinder.lookup(Pattern.compile("f.*t")).query(), is(firstIdLabel));
+        assertThat(nodeFinder.lookup(Pattern.compile("(?i)twin")).queryAll(), hasItems(visibleTwin, invisibleTwin));
+    }
+
     @Test
     public void nodes_string_cssQuery() {
         // expect:
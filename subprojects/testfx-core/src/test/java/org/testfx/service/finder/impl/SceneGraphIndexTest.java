@@ -0,0 +1,208 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.service.finder.impl;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.testfx.api.FxToolkit;
+import org.testfx.framework.junit.TestFXRule;
+import org.testfx.util.WaitForAsyncUtils;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class SceneGraphIndexTest {
+
+    @Rule
+    public TestFXRule testFXRule = new TestFXRule();
+
+    Stage stage;
+    VBox pane;
+    Label firstLabel;
+    Label secondLabel;
+    Button button;
+    List<Window> windows;
+    SceneGraphIndex sceneGraphIndex;
+
+    @BeforeClass
+    public static void setupSpec() throws Exception {
+        FxToolkit.registerPrimaryStage();
+    }
+
+    @Before
+    public void setup() throws Exception {
+        stage = FxToolkit.registerStage(Stage::new);
+        FxToolkit.setupScene(() -> {
+            firstLabel = new Label("first");
+            firstLabel.setId("first");
+            firstLabel.getStyleClass().add("item");
+            secondLabel = new Label("second");
+            secondLabel.getStyleClass().add("item");
+            button = new Button("button");
+            pane = new VBox(firstLabel, new VBox(secondLabel), button);
+            return new Scene(pane);
+        });
+        FxToolkit.showStage();
+        windows = Collections.singletonList(stage);
+        sceneGraphIndex = new SceneGraphIndex();
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        sceneGraphIndex.close();
+        FxToolkit.hideStage();
+    }
+
+    @Test
+    public void lookup_id_and_style_class() {
+        // expect:
+        assertThat(listOf(sceneGraphIndex.lookup("#first", windows)), is(Arrays.asList(firstLabel)));
+        assertThat(listOf(sceneGraphIndex.lookup(".item", windows)), is(Arrays.asList(firstLabel, secondLabel)));
+        assertThat(listOf(sceneGraphIndex.lookupByType(Button.class, windows)), is(Arrays.asList(button)));
+        assertThat(sceneGraphIndex.lookup("#second", windows).isEmpty(), is(true));
+    }
+
+    @Test
+    public void lookup_after_scene_graph_changes() throws Exception {
+        // given:
+        Label thirdLabel = new Label("third");
+        thirdLabel.getStyleClass().add("item");
+
+        // when:
+        WaitForAsyncUtils.waitForAsyncFx(1000, () -> {
+            pane.getChildren().add(0, thirdLabel);
+            pane.getChildren().remove(firstLabel);
+            secondLabel.setId("first");
+            button.getStyleClass().add("item");
+        });
+
+        // then:
+        assertThat(listOf(sceneGraphIndex.lookup("#first", windows)), is(Arrays.asList(secondLabel)));
+        assertThat(listOf(sceneGraphIndex.lookup(".item", windows)),
+                is(Arrays.asList(thirdLabel, secondLabel, button)));
+    }
+
+    @Test
+    public void lookup_text() throws Exception {
+        // when:
+        WaitForAsyncUtils.waitForAsyncFx(1000, () -> secondLabel.setText("first item"));
+
+        // then:
+        assertThat(listOf(sceneGraphIndex.lookupByText("first", windows)), is(Arrays.asList(firstLabel)));
+        assertThat(listOf(sceneGraphIndex.lookupByTextPrefix("first", windows)),
+                is(Arrays.asList(firstLabel, secondLabel)));
+        assertThat(listOf(sceneGraphIndex.lookupByTextPattern(Pattern.compile(".*t+o.*"), windows)),
+                is(Arrays.asList(button)));
+        assertThat(sceneGraphIndex.lookupByText("second", windows).isEmpty(), is(true));
+    }
+
+    @Test
+    public void lookup_in_other_windows() {
+        // expect:
+        assertThat(sceneGraphIndex.lookup("#first", Collections.emptyList()).isEmpty(), is(true));
+    }
+
+    @Test
+    public void close_releases_index() throws Exception {
+        // given:
+        SceneGraphIndex otherIndex = new SceneGraphIndex();
+        WeakReference<SceneGraphIndex> otherIndexReference = new WeakReference<>(otherIndex);
+
+        // when:
+        otherIndex.close();
+        otherIndex = null;
+        for (int attempt = 0; attempt < 20 && otherIndexReference.get() != null; attempt++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+
+        // then:
+        assertThat(otherIndexReference.get() == null, is(true));
+    }
+
+    @Test
+    public void isIndexedSelector() {
+        // expect:
+        for (String selector : Arrays.asList("#first", ".item", ".text-field")) {
+            assertThat(selector, SceneGraphIndex.isIndexedSelector(selector), is(true));
+        }
+        for (String selector : Arrays.asList("Label", "#first .item", ".item:focused", "first", "#")) {
+            assertThat(selector, SceneGraphIndex.isIndexedSelector(selector), is(false));
+        }
+    }
+
+    @Test
+    public void nodeFinder_lookup_with_index() {
+        // given:
+        NodeFinderImplTest.WindowFinderStub windowFinder = new NodeFinderImplTest.WindowFinderStub();
+        windowFinder.windows = windows;
+        NodeFinderImpl nodeFinder = new NodeFinderImpl(windowFinder);
+        nodeFinder.setUseSceneGraphIndex(true);
+
+        try {
+            // expect:
+            assertThat(listOf(nodeFinder.lookup(".item").queryAll()), is(Arrays.asList(firstLabel, secondLabel)));
+            assertThat(nodeFinder.lookup("#first").lookup("first").query(), is(firstLabel));
+            assertThat(nodeFinder.lookup("button").query(), is(button));
+        }
+        finally {
+            nodeFinder.setUseSceneGraphIndex(false);
+        }
+    }
+
+    @Test
+    public void nodeFinder_lookup_text_prefix_and_pattern_with_index() {
+        // given:
+        NodeFinderImplTest.WindowFinderStub windowFinder = new NodeFinderImplTest.WindowFinderStub();
+        windowFinder.windows = windows;
+        NodeFinderImpl nodeFinder = new NodeFinderImpl(windowFinder);
+        nodeFinder.setUseSceneGraphIndex(true);
+
+        try {
+            // expect:
+            assertThat(listOf(nodeFinder.lookupByTextPrefix("se").queryAll()), is(Arrays.asList(secondLabel)));
+            assertThat(listOf(nodeFinder.lookup(Pattern.compile("f.*|b.*")).queryAll()),
+                is(Arrays.asList(firstLabel, button)));
+        }
+        finally {
+            nodeFinder.setUseSceneGraphIndex(false);
+        }
+    }
+
+    private static List<Node> listOf(Collection<? extends Node> nodes) {
+        return new ArrayList<>(nodes);
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.service.finder.impl;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.testfx.api.FxToolkit;
+import org.testfx.framework.junit.TestFXRule;
+import org.testfx.service.finder.impl.SceneGraphSnapshot.NodeRecord;
+import org.testfx.util.WaitForAsyncUtils;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class SceneGraphSnapshotTest {
+
+    @Rule
+    public TestFXRule testFXRule = new TestFXRule();
+
+    // The snapshot only reads the scene graph, so the scene is set on a stage that is never shown.
+    // Showing and hiding the primary stage for every test made the tests wait for the headless
+    // renderer to paint, which intermittently stalled the tests.
+    static Stage stage;
+
+    VBox root;
+    VBox hiddenPane;
+    Label label;
+    Button button;
+    Label hiddenLabel;
+
+    @BeforeClass
+    public static void setupSpec() throws Exception {
+        FxToolkit.registerPrimaryStage();
+        FxToolkit.setupFixture(() -> {
+            stage = new Stage();
+            stage.setScene(new Scene(new Region(), 200, 200));
+        });
+    }
+
+    @Before
+    public void setup() throws Exception {
+        FxToolkit.setupFixture(() -> {
+            label = new Label("label");
+            label.setId("label");
+            button = new Button("button");
+            hiddenLabel = new Label("hidden");
+            hiddenPane = new VBox(hiddenLabel);
+            hiddenPane.setVisible(false);
+            root = new VBox(label, button, hiddenPane);
+            stage.getScene().setRoot(root);
+        });
+    }
+
+    @Test
+    public void capture() {
+        // when:
+        SceneGraphSnapshot snapshot = SceneGraphSnapshot.capture(Collections.singletonList(root));
+
+        // then:
+        NodeRecord rootRecord = snapshot.record(0);
+        assertThat(rootRecord.getNode(), is(root));
+        assertThat(rootRecord.getParentIndex(), is(-1));
+        assertThat(nodesOf(snapshot.children(rootRecord)), is(Arrays.asList(label, button, hiddenPane)));
+        assertThat(snapshot.record(1).getBoundsInScreen(), is(notNullValue()));
+        assertThat(snapshot.record(1).getDepth(), is(1));
+    }
+
+    @Test
+    public void query() {
+        // given:
+        SceneGraphSnapshot snapshot = SceneGraphSnapshot.capture(Collections.singletonList(root));
+
+        // expect:
+        assertThat(nodesOf(snapshot.query(record -> record.hasId("label"))), is(Arrays.asList(label)));
+        assertThat(nodesOf(snapshot.query(record -> record.hasStyleClass("button"))), is(Arrays.asList(button)));
+        assertThat(nodesOf(snapshot.query(record -> record.hasText("hidden"))), is(Arrays.asList(hiddenLabel)));
+        assertThat(nodesOf(snapshot.query(record -> record.isInstanceOf(Label.class) && record.isVisible())),
+            is(Arrays.asList(label)));
+    }
+
+    @Test
+    public void snapshot_is_immutable() throws Exception {
+        // given:
+        SceneGraphSnapshot snapshot = SceneGraphSnapshot.capture(Collections.singletonList(root));
+
+        // when:
+        WaitForAsyncUtils.waitForAsyncFx(1000, () -> {
+            label.setText("changed");
+            root.getChildren().remove(button);
+        });
+
+        // then:
+        assertThat(nodesOf(snapshot.query(record -> record.hasText("label"))), is(Arrays.asList(label)));
+        assertThat(nodesOf(snapshot.query(record -> record.isInstanceOf(Button.class))), is(Arrays.asList(button)));
+    }
+
+    @Test
+    public void nodeFinder_snapshot() {
+        // given:
+        NodeFinderImplTest.WindowFinderStub windowFinder = new NodeFinderImplTest.WindowFinderStub();
+        windowFinder.windows = Collections.singletonList(root.getScene().getWindow());
+
+        // when:
+        SceneGraphSnapshot snapshot = new NodeFinderImpl(windowFinder).snapshot();
+
+        // then:
+        assertThat(snapshot.record(0).getNode(), is(root));
+    }
+
+    private static List<Node> nodesOf(List<NodeRecord> records) {
+        return records.stream().map(NodeRecord::getNode).collect(Collectors.toList());
+    }
+
+}
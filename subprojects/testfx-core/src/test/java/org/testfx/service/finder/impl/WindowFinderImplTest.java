@@ -30,6 +30,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.testfx.api.FxToolkit;
 import org.testfx.framework.junit.TestFXRule;
+import org.testfx.util.WaitForAsyncUtils;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 
@@ -120,6 +121,53 @@ public class WindowFinderImplTest {
         assertThat(orderedWindows, CoreMatchers.hasItems((Window) otherWindow));
     }
 
+    @Test
+    public void listTargetWindows_is_kept_until_target_window_changes() {
+        // given:
+        windowFinder.targetWindow(window);
+
+        // when:
+        List<Window> orderedWindows = windowFinder.listTargetWindows();
+
+        // then:
+        assertThat(orderedWindows.get(0), CoreMatchers.is(window));
+        assertThat(orderedWindows.subList(1, 3), CoreMatchers.hasItems(windowInWindow, windowInWindowInWindow));
+        assertThat(windowFinder.listTargetWindows(), CoreMatchers.sameInstance(orderedWindows));
+
+        // when:
+        windowFinder.targetWindow(otherWindow);
+
+        // then:
+        assertThat(windowFinder.listTargetWindows().get(0), CoreMatchers.is(otherWindow));
+    }
+
+    @Test
+    public void listWindows_is_kept_until_windows_change() throws Exception {
+        // given:
+        windowFinder.listWindows();
+        WaitForAsyncUtils.waitForFxEvents();
+        List<Window> windows = windowFinder.listWindows();
+
+        // expect:
+        assertThat(windowFinder.listWindows(), CoreMatchers.sameInstance(windows));
+
+        // when:
+        Stage newWindow = FxToolkit.setupFixture(() -> {
+            Stage stage = new Stage();
+            stage.show();
+            return stage;
+        });
+
+        try {
+            // then:
+            assertThat(windowFinder.listWindows(), CoreMatchers.hasItems((Window) newWindow));
+        }
+        finally {
+            FxToolkit.setupFixture(newWindow::close);
+        }
+        assertThat(windowFinder.listWindows().contains(newWindow), CoreMatchers.is(false));
+    }
+
     @Test
     public void targetWindow_window() {
         // when:
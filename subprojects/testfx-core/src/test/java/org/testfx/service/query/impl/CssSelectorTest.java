@@ -0,0 +1,132 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.service.query.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ToggleButton;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.testfx.api.FxToolkit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class CssSelectorTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    VBox root;
+    HBox buttons;
+    Button okButton;
+    Button cancelButton;
+    ToggleButton toggleButton;
+    Label label;
+
+    @BeforeClass
+    public static void setupSpec() throws Exception {
+        FxToolkit.registerPrimaryStage();
+    }
+
+    @Before
+    public void setup() {
+        okButton = new Button("OK");
+        okButton.setId("ok");
+        cancelButton = new Button("Cancel");
+        cancelButton.setDisable(true);
+        toggleButton = new ToggleButton("Toggle");
+        toggleButton.setSelected(true);
+        buttons = new HBox(okButton, cancelButton, toggleButton);
+        buttons.getStyleClass().add("buttons");
+        label = new Label("Save as");
+        root = new VBox(buttons, label);
+        root.getStyleClass().add("root-pane");
+    }
+
+    @Test
+    public void matches_simple_selectors() {
+        // expect:
+        assertThat(CssSelector.compile("#ok").matches(okButton), is(true));
+        assertThat(CssSelector.compile(".button").matches(cancelButton), is(true));
+        assertThat(CssSelector.compile("Button").matches(okButton), is(true));
+        assertThat(CssSelector.compile("Labeled").matches(label), is(true));
+        assertThat(CssSelector.compile("Button").matches(label), is(false));
+        assertThat(CssSelector.compile("*").matches(root), is(true));
+    }
+
+    @Test
+    public void matches_pseudo_classes() {
+        // expect:
+        assertThat(CssSelector.compile(".button:disabled").matches(cancelButton), is(true));
+        assertThat(CssSelector.compile(".button:disabled").matches(okButton), is(false));
+        assertThat(CssSelector.compile(":selected").matches(toggleButton), is(true));
+        assertThat(CssSelector.compile(":focused").matches(okButton), is(false));
+    }
+
+    @Test
+    public void matches_attributes() {
+        // expect:
+        assertThat(CssSelector.compile("[text=OK]").matches(okButton), is(true));
+        assertThat(CssSelector.compile("[text='Save as']").matches(label), is(true));
+        assertThat(CssSelector.compile("[text^=Can]").matches(cancelButton), is(true));
+        assertThat(CssSelector.compile("[text$=as]").matches(label), is(true));
+        assertThat(CssSelector.compile("[text*=ave]").matches(label), is(true));
+        assertThat(CssSelector.compile("[disable=true]").matches(cancelButton), is(true));
+        assertThat(CssSelector.compile("[text]").matches(buttons), is(false));
+    }
+
+    @Test
+    public void matches_combinators() {
+        // expect:
+        assertThat(CssSelector.compile(".root-pane .button").matches(okButton), is(true));
+        assertThat(CssSelector.compile(".root-pane > .button").matches(okButton), is(false));
+        assertThat(CssSelector.compile(".root-pane > .buttons > #ok").matches(okButton), is(true));
+        assertThat(CssSelector.compile("VBox Label, #ok").matches(label), is(true));
+    }
+
+    @Test
+    public void lookupAll() {
+        // expect:
+        assertThat(new ArrayList<>(CssSelector.compile(".buttons > Button, Label").lookupAll(root)),
+            is(Arrays.asList(okButton, cancelButton, label)));
+    }
+
+    @Test
+    public void compile_is_cached() {
+        // expect:
+        assertThat(CssSelector.compile("#ok .label"), sameInstance(CssSelector.compile("#ok .label")));
+    }
+
+    @Test
+    public void compile_unsupported_selector() {
+        // expect:
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("Unexpected ':' at position 8 in selector '.button::first'");
+        CssSelector.compile(".button::first");
+    }
+
+}
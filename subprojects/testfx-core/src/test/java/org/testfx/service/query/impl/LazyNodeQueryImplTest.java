@@ -0,0 +1,205 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.service.query.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.control.Button;
+
+import org.junit.Test;
+import org.testfx.service.query.NodeQuery;
+import org.testfx.util.QueryProfiler;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.testfx.util.NodeQueryUtils.rootOfScene;
+
+public class LazyNodeQueryImplTest extends NodeQueryImplTest {
+
+    @Override
+    protected NodeQuery createNodeQuery() {
+        return new LazyNodeQueryImpl();
+    }
+
+    @Test
+    public void query_stops_after_first_match() {
+        // given:
+        List<Node> visitedNodes = new ArrayList<>();
+
+        // when:
+        Node result = nodeQuery
+            .from(rootOfScene(scene))
+            .lookup((Node node) -> visitedNodes.add(node) && node instanceof Button)
+            .query();
+
+        // then:
+        assertThat(result, is(button0));
+        assertThat(visitedNodes.get(visitedNodes.size() - 1), is(button0));
+        assertThat(visitedNodes.contains(button1), is(false));
+        assertThat(visitedNodes.contains(textfield0), is(false));
+    }
+
+    @Test
+    public void nth_stops_after_nth_match() {
+        // given:
+        List<Node> visitedNodes = new ArrayList<>();
+
+        // when:
+        Node result = nodeQuery
+            .from(rootOfScene(scene))
+            .lookup((Node node) -> visitedNodes.add(node) && node instanceof Button)
+            .nth(1)
+            .query();
+
+        // then:
+        assertThat(result, is(button1));
+        assertThat(visitedNodes.contains(button2), is(false));
+    }
+
+    @Test
+    public void queryAll_evaluates_lookups_in_order() {
+        // when:
+        List<Node> result = new ArrayList<>(nodeQuery
+            .from(rootOfScene(scene))
+            .lookup((Node node) -> node instanceof Button)
+            .match((Node node) -> node != button1)
+            .queryAll());
+
+        // then:
+        assertThat(result, is(Arrays.asList(button0, button2)));
+    }
+
+    @Test
+    public void explain_describes_query_and_evaluation() {
+        // given:
+        nodeQuery
+            .from(rootOfScene(scene))
+            .lookup((Node node) -> node instanceof Button)
+            .match((Node node) -> node != button1);
+
+        // when:
+        String explanation = nodeQuery.explain();
+
+        // then:
+        assertThat(explanation, containsString("from(1 nodes).lookup(predicate).match(predicate)\n"));
+        assertThat(explanation, containsString("1 evaluations, 2 result nodes"));
+    }
+
+    @Test
+    @Override
+    public void explain_describes_evaluated_steps() {
+        // given:
+        nodeQuery
+            .from(rootOfScene(scene))
+            .lookup((Node node) -> node instanceof Button)
+            .match((Node node) -> node != button1);
+        int sceneNodes = countNodes(scene.getRoot());
+
+        // when:
+        String explanation = nodeQuery.explain();
+
+        // then:
+        assertThat(explanation, containsString(sceneNodes + " visited nodes, " + (sceneNodes + 3) +
+            " predicate evaluations"));
+    }
+
+    @Test
+    public void evaluations_are_recorded_while_profiler_is_enabled() {
+        // given:
+        QueryProfiler.reset();
+        QueryProfiler.setEnabled(true);
+
+        try {
+            // when:
+            nodeQuery.from(rootOfScene(scene)).lookup((Node node) -> node instanceof Button);
+            nodeQuery.query();
+            nodeQuery.query();
+
+            // then:
+            assertThat(QueryProfiler.report(),
+                containsString("from(1 nodes).lookup(predicate): 2 evaluations, 2 result nodes"));
+        }
+        finally {
+            QueryProfiler.setEnabled(false);
+            QueryProfiler.reset();
+        }
+    }
+
+    @Test
+    public void reportTest_passes_report_to_report_consumer() {
+        // given:
+        List<String> reports = new ArrayList<>();
+        QueryProfiler.setReportConsumer(reports::add);
+        QueryProfiler.reset();
+        QueryProfiler.setEnabled(true);
+
+        try {
+            // when:
+            nodeQuery.from(rootOfScene(scene)).lookup((Node node) -> node instanceof Button).query();
+            QueryProfiler.reportTest("test");
+
+            // then:
+            assertThat(reports.size(), is(1));
+            assertThat(reports.get(0), containsString("Node queries of test:\nfrom(1 nodes).lookup(predicate): "));
+        }
+        finally {
+            QueryProfiler.setEnabled(false);
+            QueryProfiler.reset();
+            QueryProfiler.setReportConsumer(System.err::print);
+        }
+    }
+
+    @Test
+    public void evaluations_are_recorded_per_thread() throws Exception {
+        // given:
+        QueryProfiler.reset();
+        QueryProfiler.setEnabled(true);
+
+        try {
+            // when:
+            nodeQuery.from(rootOfScene(scene)).lookup((Node node) -> node instanceof Button).query();
+            Thread otherTest = new Thread(() -> {
+                QueryProfiler.reset();
+                createNodeQuery().from(rootOfScene(scene)).lookup((Node node) -> node instanceof Button).query();
+            });
+            otherTest.start();
+            otherTest.join();
+
+            // then:
+            assertThat(QueryProfiler.report(), containsString("lookup(predicate): 1 evaluations"));
+        }
+        finally {
+            QueryProfiler.setEnabled(false);
+            QueryProfiler.reset();
+        }
+    }
+
+    private static int countNodes(Node node) {
+        int nodes = 1;
+        if (node instanceof Parent) {
+            for (Node childNode : ((Parent) node).getChildrenUnmodifiable()) {
+                nodes += countNodes(childNode);
+            }
+        }
+        return nodes;
+    }
+
+}
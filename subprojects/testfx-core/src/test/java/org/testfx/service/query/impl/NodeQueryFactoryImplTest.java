@@ -0,0 +1,38 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.service.query.impl;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class NodeQueryFactoryImplTest {
+
+    @Test
+    public void build_creates_eager_query_by_default() {
+        // expect:
+        assertThat(new NodeQueryFactoryImpl().build(), instanceOf(NodeQueryImpl.class));
+    }
+
+    @Test
+    public void build_creates_lazy_query_if_lazy() {
+        // expect:
+        assertThat(new NodeQueryFactoryImpl(true).build(), instanceOf(LazyNodeQueryImpl.class));
+    }
+
+}
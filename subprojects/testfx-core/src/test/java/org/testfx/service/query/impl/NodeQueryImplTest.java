@@ -16,6 +16,8 @@
  */
 package org.testfx.service.query.impl;
 
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.Optional;
 import java.util.Set;
 import javafx.fxml.FXML;
@@ -34,7 +36,9 @@ import org.junit.Test;
 import org.testfx.api.FxToolkit;
 import org.testfx.framework.junit.TestFXRule;
 import org.testfx.service.query.NodeQuery;
+import org.testfx.util.QueryProfiler;
 
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
@@ -72,7 +76,7 @@ public class NodeQueryImplTest {
 
     @Before
     public void setup() throws Exception {
-        nodeQuery = new NodeQueryImpl();
+        nodeQuery = createNodeQuery();
 
         FxToolkit.setupStage((stage) -> {
             FXMLLoader loader = new FXMLLoader();
@@ -311,4 +315,60 @@ public class NodeQueryImplTest {
         assertThat(result, hasItems(button1));
     }
 
+    @Test
+    public void lookup_compound_selector() {
+        // when:
+        Set<Node> result = nodeQuery
+            .from(rootOfScene(scene))
+            .lookup("#buttons > .button[text=1], #labels .label[text^=2]")
+            .queryAll();
+
+        // then:
+        assertThat(result, is(new LinkedHashSet<>(Arrays.asList(label2, button1))));
+    }
+
+    @Test
+    public void explain_describes_evaluated_steps() {
+        // given:
+        QueryProfiler.setEnabled(true);
+
+        try {
+            nodeQuery
+                .from(rootOfScene(scene))
+                .lookup((Node node) -> node instanceof Button)
+                .match((Node node) -> node != button1);
+
+            // when:
+            String explanation = nodeQuery.explain();
+
+            // then:
+            assertThat(explanation, containsString("from(1 nodes).lookup(predicate).match(predicate)\n"));
+            assertThat(explanation, containsString("\n    lookup(predicate): 3 nodes, "));
+            assertThat(explanation, containsString("\n    match(predicate): 2 nodes, "));
+        }
+        finally {
+            QueryProfiler.setEnabled(false);
+            QueryProfiler.reset();
+        }
+    }
+
+    @Test
+    public void explain_describes_result_while_profiler_is_disabled() {
+        // given:
+        nodeQuery
+            .from(rootOfScene(scene))
+            .lookup((Node node) -> node instanceof Button)
+            .match((Node node) -> node != button1);
+
+        // when:
+        String explanation = nodeQuery.explain();
+
+        // then:
+        assertThat(explanation, containsString("2 result nodes"));
+    }
+
+    protected NodeQuery createNodeQuery() {
+        return new NodeQueryImpl();
+    }
+
 }
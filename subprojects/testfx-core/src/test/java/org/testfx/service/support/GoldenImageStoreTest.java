@@ -0,0 +1,202 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.service.support;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.testfx.api.FxToolkit;
+import org.testfx.robot.impl.BaseRobotImpl;
+import org.testfx.service.support.impl.CaptureSupportImpl;
+import org.testfx.service.support.impl.PixelMatcherRgb;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class GoldenImageStoreTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private CaptureSupport captureSupport;
+    private GoldenImageStore goldenImageStore;
+
+    @BeforeClass
+    public static void setupSpec() throws Exception {
+        FxToolkit.registerPrimaryStage();
+    }
+
+    @Before
+    public void setup() {
+        captureSupport = spy(new CaptureSupportImpl(new BaseRobotImpl()));
+        goldenImageStore = new GoldenImageStore(temporaryFolder.getRoot().toPath(), captureSupport);
+    }
+
+    @Test
+    public void save_stores_identical_images_once() throws IOException {
+        // when:
+        goldenImageStore.save("first", createGradientImage(40, 30, false));
+        goldenImageStore.save("second", createGradientImage(40, 30, false));
+        goldenImageStore.save("third", createGradientImage(40, 30, true));
+
+        // then:
+        assertThat(goldenImageStore.contains("first"), is(true));
+        assertThat(goldenImageStore.contains("second"), is(true));
+        assertThat(goldenImageStore.contains("fourth"), is(false));
+        try (Stream<Path> objects = Files.list(temporaryFolder.getRoot().toPath().resolve("objects"))) {
+            assertThat(objects.count(), is(2L));
+        }
+    }
+
+    @Test
+    public void match_skips_decoding_for_equal_hash() {
+        // given:
+        goldenImageStore.save("gradient", createGradientImage(40, 30, false));
+        clearInvocations(captureSupport);
+
+        // when:
+        PixelMatcherResult result = goldenImageStore.match("gradient", createGradientImage(40, 30, false),
+            new PixelMatcherRgb());
+
+        // then:
+        assertThat(result.isExact(), is(true));
+        assertThat(result.getMatchPixels(), is(40L * 30L));
+        verify(captureSupport, never()).loadImage(any());
+
+        // when:
+        result.getMatchImage();
+
+        // then:
+        verify(captureSupport, times(1)).loadImage(any());
+    }
+
+    @Test
+    public void match_decodes_golden_for_different_hash() {
+        // given:
+        goldenImageStore.save("gradient", createGradientImage(40, 30, false));
+        clearInvocations(captureSupport);
+
+        // when:
+        PixelMatcherResult result = goldenImageStore.match("gradient", createGradientImage(40, 30, true),
+            new PixelMatcherRgb());
+
+        // then:
+        verify(captureSupport, times(1)).loadImage(any());
+        assertThat(result.getNonMatchPixels() > 0, is(true));
+    }
+
+    @Test
+    public void match_compares_pixels_of_different_images_with_equal_hash() {
+        // given:
+        WritableImage grayImage = createGradientImage(200, 100, false);
+        WritableImage redImage = new WritableImage(200, 100);
+        for (int y = 0; y < 100; y++) {
+            for (int x = 0; x < 200; x++) {
+                redImage.getPixelWriter().setColor(x, y, Color.color(x / 199.0, 0, 0));
+            }
+        }
+        goldenImageStore.save("gradient", grayImage);
+        clearInvocations(captureSupport);
+
+        // when:
+        PixelMatcherResult result = goldenImageStore.match("gradient", redImage, new PixelMatcherRgb());
+
+        // then:
+        assertThat(GoldenImageStore.differenceHash(redImage), is(GoldenImageStore.differenceHash(grayImage)));
+        verify(captureSupport, times(1)).loadImage(any());
+        assertThat(result.isExact(), is(true));
+        assertThat(result.getNonMatchPixels() > 0, is(true));
+    }
+
+    @Test
+    public void match_compares_pixels_of_single_color_images() {
+        // given:
+        goldenImageStore.save("white", createColorImage(20, 10, Color.WHITE));
+
+        // when:
+        PixelMatcherResult result = goldenImageStore.match("white", createColorImage(20, 10, Color.BLACK),
+            new PixelMatcherRgb());
+
+        // then:
+        assertThat(result.getMatchPixels(), is(0L));
+    }
+
+    @Test
+    public void save_writes_same_reference_for_same_image() throws IOException {
+        // given:
+        Path referenceFile = temporaryFolder.getRoot().toPath().resolve("gradient.golden");
+        goldenImageStore.save("gradient", createGradientImage(40, 30, false));
+        byte[] reference = Files.readAllBytes(referenceFile);
+
+        // when:
+        goldenImageStore.save("gradient", createGradientImage(40, 30, false));
+
+        // then:
+        assertThat(Files.readAllBytes(referenceFile), is(reference));
+    }
+
+    @Test
+    public void differenceHash_differs_for_mirrored_image() {
+        // expect:
+        assertThat(GoldenImageStore.differenceHash(createGradientImage(40, 30, false)),
+            is(GoldenImageStore.differenceHash(createGradientImage(40, 30, false))));
+        assertThat(GoldenImageStore.differenceHash(createGradientImage(40, 30, false)),
+            not(GoldenImageStore.differenceHash(createGradientImage(40, 30, true))));
+    }
+
+    private static WritableImage createColorImage(int width,
+                                                  int height,
+                                                  Color color) {
+        WritableImage image = new WritableImage(width, height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.getPixelWriter().setColor(x, y, color);
+            }
+        }
+        return image;
+    }
+
+    private static WritableImage createGradientImage(int width,
+                                                     int height,
+                                                     boolean mirrored) {
+        WritableImage image = new WritableImage(width, height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                double value = (mirrored ? width - 1 - x : x) / (double) (width - 1);
+                image.getPixelWriter().setColor(x, y, Color.gray(value));
+            }
+        }
+        return image;
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.service.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.testfx.api.FxToolkit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class PixelMaskTest {
+
+    @BeforeClass
+    public static void setupSpec() throws Exception {
+        FxToolkit.registerPrimaryStage();
+    }
+
+    @Test
+    public void regionsOfInterest_merges_overlapping_regions() {
+        // when:
+        PixelMask pixelMask = PixelMask.regionsOfInterest(10, 4, Arrays.asList(
+            new Rectangle2D(1, 1, 3, 2), new Rectangle2D(3, 2, 4, 1), new Rectangle2D(8, 0, 5, 1)));
+
+        // then:
+        assertThat(spansOf(pixelMask), is(Arrays.asList("8-10", "1-4", "1-7", "")));
+        assertThat(pixelMask.getPixelCount(), is(2L + 3L + 6L));
+    }
+
+    @Test
+    public void ignoringRegions_selects_all_other_pixels() {
+        // when:
+        PixelMask pixelMask = PixelMask.ignoringRegions(10, 3, Arrays.asList(
+            new Rectangle2D(0, 0, 2, 1), new Rectangle2D(4, 1, 2, 1), new Rectangle2D(8, 1, 4, 1)));
+
+        // then:
+        assertThat(spansOf(pixelMask), is(Arrays.asList("2-10", "0-4 6-8", "0-10")));
+        assertThat(pixelMask.getPixelCount(), is(8L + 6L + 10L));
+        assertThat(pixelMask.contains(4, 1), is(false));
+        assertThat(pixelMask.contains(7, 1), is(true));
+    }
+
+    @Test
+    public void ignoringRegions_without_regions_selects_all_pixels() {
+        // when:
+        PixelMask pixelMask = PixelMask.ignoringRegions(5, 2, Collections.emptyList());
+
+        // then:
+        assertThat(spansOf(pixelMask), is(Arrays.asList("0-5", "0-5")));
+    }
+
+    @Test
+    public void ignoringImage_ignores_painted_pixels() {
+        // given:
+        WritableImage ignoreImage = new WritableImage(6, 2);
+        ignoreImage.getPixelWriter().setColor(2, 0, Color.BLACK);
+        ignoreImage.getPixelWriter().setColor(3, 0, Color.BLACK);
+        ignoreImage.getPixelWriter().setColor(5, 1, Color.BLACK);
+
+        // when:
+        PixelMask pixelMask = PixelMask.ignoringImage(ignoreImage);
+
+        // then:
+        assertThat(spansOf(pixelMask), is(Arrays.asList("0-2 4-6", "0-5")));
+    }
+
+    @Test
+    public void ignoringImage_shares_spans_of_identical_rows() {
+        // given:
+        WritableImage ignoreImage = new WritableImage(6, 3);
+        ignoreImage.getPixelWriter().setColor(2, 0, Color.BLACK);
+        ignoreImage.getPixelWriter().setColor(2, 1, Color.BLACK);
+
+        // when:
+        PixelMask pixelMask = PixelMask.ignoringImage(ignoreImage);
+
+        // then:
+        assertThat(pixelMask.getSpans(1), sameInstance(pixelMask.getSpans(0)));
+        assertThat(spansOf(pixelMask), is(Arrays.asList("0-2 3-6", "0-2 3-6", "0-6")));
+    }
+
+    private static List<String> spansOf(PixelMask pixelMask) {
+        List<String> rows = new ArrayList<>();
+        for (int y = 0; y < pixelMask.getHeight(); y++) {
+            int[] spans = pixelMask.getSpans(y);
+            StringBuilder row = new StringBuilder();
+            for (int index = 0; index < spans.length; index += 2) {
+                row.append(index > 0 ? " " : "").append(spans[index]).append('-').append(spans[index + 1]);
+            }
+            rows.add(row.toString());
+        }
+        return rows;
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.service.support;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javafx.application.Platform;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.scene.layout.Region;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.testfx.api.FxToolkit;
+import org.testfx.util.WaitForAsyncUtils;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class WaitUntilSupportTest {
+
+    WaitUntilSupport waitUntilSupport = new WaitUntilSupport();
+
+    @BeforeClass
+    public static void setupSpec() throws Exception {
+        FxToolkit.registerPrimaryStage();
+    }
+
+    @Test(timeout = 2000)
+    public void waitUntil_node_notices_change_without_pulse() {
+        // given:
+        Region node = new Region();
+
+        // when:
+        WaitForAsyncUtils.async(() -> {
+            WaitForAsyncUtils.sleepWithException(50, TimeUnit.MILLISECONDS);
+            Platform.runLater(() -> node.setUserData("done"));
+            return null;
+        });
+
+        // then:
+        waitUntilSupport.waitUntil(node, (Region region) -> "done".equals(region.getUserData()), 1);
+    }
+
+    @Test(timeout = 2000)
+    public void waitUntil_node_evaluates_condition_on_calling_thread() {
+        // given:
+        Region node = new Region();
+        AtomicBoolean evaluatedOnFxThread = new AtomicBoolean();
+
+        // when:
+        waitUntilSupport.waitUntil(node, (Region region) -> {
+            evaluatedOnFxThread.set(Platform.isFxApplicationThread());
+            return true;
+        }, 1);
+
+        // then:
+        assertThat(evaluatedOnFxThread.get(), is(false));
+    }
+
+    @Test(timeout = 2000)
+    public void waitUntil_node_with_dependencies_evaluates_condition_on_fx_thread() {
+        // given:
+        Region node = new Region();
+        StringProperty state = new SimpleStringProperty();
+        AtomicBoolean evaluatedOnFxThread = new AtomicBoolean();
+
+        // when:
+        WaitForAsyncUtils.async(() -> {
+            WaitForAsyncUtils.sleepWithException(50, TimeUnit.MILLISECONDS);
+            Platform.runLater(() -> state.set("done"));
+            return null;
+        });
+        waitUntilSupport.waitUntil(node, (Region region) -> {
+            evaluatedOnFxThread.set(Platform.isFxApplicationThread());
+            return "done".equals(state.get());
+        }, 1, state);
+
+        // then:
+        assertThat(evaluatedOnFxThread.get(), is(true));
+    }
+
+}
@@ -48,6 +48,7 @@ import org.testfx.service.support.CaptureSupport;
 import org.testfx.service.support.PixelMatcherResult;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.testfx.api.FxAssert.verifyThat;
 
@@ -135,6 +136,22 @@ public class CaptureSupportImplTest extends FxRobot {
         verifyThat(result.getNonMatchFactor(), closeTo(0.02, /* tolerance */ 0.01));
     }
 
+    @Test
+    public void match_images_with_budget() {
+        // given:
+        Image image0 = capturer.loadImage(resourcePath(getClass(), "res/acme-login-expected.png"));
+        Image image1 = capturer.loadImage(resourcePath(getClass(), "res/acme-login-actual.png"));
+
+        // when:
+        PixelMatcherRgb matcher = new PixelMatcherRgb();
+        PixelMatcherResult result = capturer.matchImages(image0, image1, matcher, 0.01);
+
+        // then:
+        verifyThat(result.isExact(), equalTo(false));
+        verifyThat(result.getMinNonMatchPixels(), equalTo((long) (0.01 * result.getTotalPixels()) + 1));
+        verifyThat(result.getMatchImage(), notNullValue());
+    }
+
     @Test
     @Ignore
     public void match_images_from_scene() {
@@ -0,0 +1,316 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.service.support.impl;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.testfx.api.FxToolkit;
+import org.testfx.service.support.PixelMask;
+import org.testfx.service.support.PixelMatcher;
+import org.testfx.service.support.PixelMatcherResult;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class PixelMatcherRgbTest {
+
+    @BeforeClass
+    public static void setupSpec() throws Exception {
+        FxToolkit.registerPrimaryStage();
+    }
+
+    @Test
+    public void match_counts_matching_pixels() {
+        // given:
+        WritableImage image0 = createImage(2, 1, Color.WHITE);
+        WritableImage image1 = createImage(2, 1, Color.WHITE);
+        image1.getPixelWriter().setColor(1, 0, Color.BLACK);
+
+        // when:
+        PixelMatcherResult result = new PixelMatcherRgb().match(image0, image1);
+
+        // then:
+        assertThat(result.getMatchPixels(), is(1L));
+        assertThat(result.getNonMatchPixels(), is(1L));
+        assertThat(result.getMatchImage().getPixelReader().getColor(1, 0), is(Color.RED));
+    }
+
+    @Test
+    public void match_is_equal_to_match_of_colors() {
+        // given:
+        Random random = new Random(42);
+        WritableImage image0 = createRandomImage(64, 48, random);
+        WritableImage image1 = createRandomImage(64, 48, random);
+        PixelMatcherRgb matcher = new PixelMatcherRgb(0.5, 0.75);
+        PixelMatcherBase colorMatcher = new ColorPixelMatcher(matcher);
+
+        // when:
+        PixelMatcherResult result = matcher.match(image0, image1);
+        PixelMatcherResult colorResult = colorMatcher.match(image0, image1);
+
+        // then:
+        assertThat(result.getMatchPixels(), is(colorResult.getMatchPixels()));
+        assertSameImage(result.getMatchImage(), colorResult.getMatchImage());
+    }
+
+    @Test
+    public void match_in_parallel_is_equal_to_sequential_match() {
+        // given:
+        Random random = new Random(7);
+        WritableImage image0 = createRandomImage(120, 150, random);
+        WritableImage image1 = createRandomImage(120, 150, random);
+        PixelMatcherRgb matcher = new PixelMatcherRgb(0.5, 0.75);
+        PixelMatcherRgb parallelMatcher = new PixelMatcherRgb(0.5, 0.75);
+        ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+        parallelMatcher.setForkJoinPool(forkJoinPool);
+
+        try {
+            // when:
+            PixelMatcherResult result = matcher.match(image0, image1);
+            PixelMatcherResult parallelResult = parallelMatcher.match(image0, image1);
+
+            // then:
+            assertThat(parallelResult.getMatchPixels(), is(result.getMatchPixels()));
+            assertThat(parallelResult.getTotalPixels(), is(result.getTotalPixels()));
+            assertSameImage(parallelResult.getMatchImage(), result.getMatchImage());
+        }
+        finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    @Test
+    public void match_with_budget_stops_when_budget_is_exceeded() {
+        // given:
+        WritableImage image0 = createImage(100, 100, Color.WHITE);
+        WritableImage image1 = createImage(100, 100, Color.BLACK);
+        PixelMatcherRgb matcher = new PixelMatcherRgb();
+
+        // when:
+        PixelMatcherResult result = matcher.match(image0, image1, 0.1);
+
+        // then:
+        assertThat(result.isExact(), is(false));
+        assertThat(result.getMatchPixels(), is(0L));
+        assertThat(result.getMinNonMatchPixels(), is(1001L));
+        assertSameImage(result.getMatchImage(), matcher.match(image0, image1).getMatchImage());
+    }
+
+    @Test
+    public void match_with_budget_stops_when_budget_cannot_be_exceeded() {
+        // given:
+        WritableImage image0 = createImage(100, 100, Color.WHITE);
+        WritableImage image1 = createImage(100, 100, Color.WHITE);
+
+        // when:
+        PixelMatcherResult result = new PixelMatcherRgb().match(image0, image1, 0.5);
+
+        // then:
+        assertThat(result.isExact(), is(false));
+        assertThat(result.getMatchPixels(), is(5000L));
+        assertThat(result.getNonMatchPixels(), is(5000L));
+        assertThat(result.getMinNonMatchPixels(), is(0L));
+    }
+
+    @Test
+    public void match_with_budget_compares_all_pixels_of_matching_images() {
+        // given:
+        WritableImage image = createRandomImage(40, 30, new Random(11));
+        PixelMatcherRgb matcher = new PixelMatcherRgb();
+
+        // when:
+        PixelMatcherResult result = matcher.match(image, image, 0.0);
+
+        // then:
+        assertThat(result.isExact(), is(true));
+        assertThat(result.getMatchPixels(), is(1200L));
+        assertSameImage(result.getMatchImage(), matcher.match(image, image).getMatchImage());
+    }
+
+    @Test
+    public void match_with_pixel_mask_compares_selected_pixels_only() {
+        // given:
+        WritableImage image0 = createImage(20, 10, Color.WHITE);
+        WritableImage image1 = createImage(20, 10, Color.WHITE);
+        for (int y = 2; y < 4; y++) {
+            for (int x = 5; x < 8; x++) {
+                image1.getPixelWriter().setColor(x, y, Color.BLACK);
+            }
+        }
+        PixelMask pixelMask = PixelMask.ignoringRegions(20, 10,
+            Collections.singletonList(new Rectangle2D(5, 2, 3, 2)));
+
+        // when:
+        PixelMatcherResult result = new PixelMatcherRgb().match(image0, image1, pixelMask);
+
+        // then:
+        assertThat(result.getTotalPixels(), is(200L - 6L));
+        assertThat(result.getNonMatchPixels(), is(0L));
+        assertThat(result.getMatchImage().getPixelReader().getArgb(5, 2), is(0));
+    }
+
+    @Test
+    public void match_with_pixel_mask_is_equal_to_default_match_with_pixel_mask() {
+        // given:
+        Random random = new Random(11);
+        WritableImage image0 = createRandomImage(30, 20, random);
+        WritableImage image1 = createRandomImage(30, 20, random);
+        PixelMatcherRgb matcher = new PixelMatcherRgb(0.5, 0.75);
+        PixelMatcher defaultMatcher = new DelegatePixelMatcher(matcher);
+        PixelMask pixelMask = PixelMask.regionsOfInterest(30, 20,
+            Arrays.asList(new Rectangle2D(2, 3, 10, 5), new Rectangle2D(20, 0, 6, 20)));
+
+        // when:
+        PixelMatcherResult result = matcher.match(image0, image1, pixelMask);
+        PixelMatcherResult defaultResult = defaultMatcher.match(image0, image1, pixelMask);
+
+        // then:
+        assertThat(defaultResult.getTotalPixels(), is(50L + 120L));
+        assertThat(defaultResult.getMatchPixels(), is(result.getMatchPixels()));
+        assertSameImage(defaultResult.getMatchImage(), result.getMatchImage());
+    }
+
+    @Test
+    public void match_with_empty_pixel_mask_matches() {
+        // given:
+        WritableImage image0 = createImage(4, 4, Color.WHITE);
+        WritableImage image1 = createImage(4, 4, Color.BLACK);
+        PixelMask pixelMask = PixelMask.regionsOfInterest(4, 4, Collections.emptyList());
+
+        // when:
+        PixelMatcherResult result = new PixelMatcherRgb().match(image0, image1, pixelMask);
+
+        // then:
+        assertThat(result.getTotalPixels(), is(0L));
+        assertThat(result.getMatchFactor(), is(1.0));
+        assertThat(result.getNonMatchFactor(), is(0.0));
+    }
+
+    private static void assertSameImage(Image image,
+                                        Image expectedImage) {
+        for (int y = 0; y < (int) expectedImage.getHeight(); y++) {
+            for (int x = 0; x < (int) expectedImage.getWidth(); x++) {
+                assertThat(image.getPixelReader().getArgb(x, y), is(expectedImage.getPixelReader().getArgb(x, y)));
+            }
+        }
+    }
+
+    private static WritableImage createImage(int width,
+                                             int height,
+                                             Color color) {
+        WritableImage image = new WritableImage(width, height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.getPixelWriter().setColor(x, y, color);
+            }
+        }
+        return image;
+    }
+
+    private static WritableImage createRandomImage(int width,
+                                                   int height,
+                                                   Random random) {
+        WritableImage image = new WritableImage(width, height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.getPixelWriter().setArgb(x, y, random.nextInt());
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Implements only the abstract methods of {@link PixelMatcher}, so that its default methods are used.
+     */
+    private static class DelegatePixelMatcher implements PixelMatcher {
+
+        private final PixelMatcherRgb matcher;
+
+        DelegatePixelMatcher(PixelMatcherRgb matcher) {
+            this.matcher = matcher;
+        }
+
+        @Override
+        public PixelMatcherResult match(Image image0, Image image1) {
+            return matcher.match(image0, image1);
+        }
+
+        @Override
+        public boolean matchColors(Color color0, Color color1) {
+            return matcher.matchColors(color0, color1);
+        }
+
+        @Override
+        public WritableImage createEmptyMatchImage(Image image0, Image image1) {
+            return matcher.createEmptyMatchImage(image0, image1);
+        }
+
+        @Override
+        public Color createMatchColor(Color color0, Color color1) {
+            return matcher.createMatchColor(color0, color1);
+        }
+
+        @Override
+        public Color createNonMatchColor(Color color0, Color color1) {
+            return matcher.createNonMatchColor(color0, color1);
+        }
+
+    }
+
+    /**
+     * Matches by the {@link Color} methods of the given matcher only.
+     */
+    private static class ColorPixelMatcher extends PixelMatcherBase {
+
+        private final PixelMatcherRgb matcher;
+
+        ColorPixelMatcher(PixelMatcherRgb matcher) {
+            this.matcher = matcher;
+        }
+
+        @Override
+        public boolean matchColors(Color color0, Color color1) {
+            return matcher.matchColors(color0, color1);
+        }
+
+        @Override
+        public WritableImage createEmptyMatchImage(Image image0, Image image1) {
+            return matcher.createEmptyMatchImage(image0, image1);
+        }
+
+        @Override
+        public Color createMatchColor(Color color0, Color color1) {
+            return matcher.createMatchColor(color0, color1);
+        }
+
+        @Override
+        public Color createNonMatchColor(Color color0, Color color1) {
+            return matcher.createNonMatchColor(color0, color1);
+        }
+
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.RuleChain;
+import org.junit.rules.TestRule;
+import org.junit.rules.Timeout;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class AsyncExecutorFactoryTest {
+
+    @Rule
+    public TestRule rule = RuleChain.outerRule(Timeout.millis(5000)).around(exception = ExpectedException.none());
+    public ExpectedException exception;
+
+    @After
+    public void cleanup() {
+        WaitForAsyncUtils.setAsyncExecutorFactory(AsyncExecutorFactory.cached());
+    }
+
+    @Test
+    public void bounded_limits_threads() throws Exception {
+        // given:
+        WaitForAsyncUtils.setAsyncExecutorFactory(AsyncExecutorFactory.bounded(2));
+        CountDownLatch latch = new CountDownLatch(1);
+        List<Future<Void>> futures = new ArrayList<>();
+
+        // when:
+        for (int i = 0; i < 10; i++) {
+            futures.add(WaitForAsyncUtils.async(() -> {
+                latch.await();
+                return null;
+            }));
+        }
+        WaitForAsyncUtils.sleep(50, MILLISECONDS);
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) WaitForAsyncUtils.getAsyncExecutorService();
+        int poolSize = executor.getPoolSize();
+        latch.countDown();
+        for (Future<Void> future : futures) {
+            future.get();
+        }
+
+        // then:
+        assertThat(poolSize, is(2));
+    }
+
+    @Test
+    public void async_threads_are_named_and_counted() throws Exception {
+        // given:
+        WaitForAsyncUtils.setAsyncExecutorFactory(AsyncExecutorFactory.forName("bounded:1"));
+        AsyncThreadFactory threadFactory = WaitForAsyncUtils.getAsyncThreadFactory();
+        int createdThreadCount = threadFactory.getCreatedThreadCount();
+
+        // when:
+        Thread thread = WaitForAsyncUtils.async(Thread::currentThread).get();
+
+        // then:
+        assertThat(thread.getName(), startsWith("testfx-async-pool-thread-"));
+        assertThat(thread.isDaemon(), is(true));
+        assertThat(threadFactory.getCreatedThreadCount(), is(createdThreadCount + 1));
+    }
+
+    @Test
+    public void virtual_runs_tasks() throws Exception {
+        // given:
+        WaitForAsyncUtils.setAsyncExecutorFactory(AsyncExecutorFactory.forName("virtual"));
+
+        // expect:
+        assertThat(WaitForAsyncUtils.async(() -> "foo").get(), is("foo"));
+    }
+
+    @Test
+    public void forName_with_factory_class() {
+        // expect:
+        assertThat(AsyncExecutorFactory.forName(SingleThreadExecutorFactory.class.getName()),
+                instanceOf(SingleThreadExecutorFactory.class));
+    }
+
+    @Test
+    public void forName_with_unknown_name() {
+        // expect:
+        exception.expect(IllegalArgumentException.class);
+        AsyncExecutorFactory.forName("unknown");
+    }
+
+    public static class SingleThreadExecutorFactory implements AsyncExecutorFactory {
+        @Override
+        public ExecutorService createExecutorService(ThreadFactory threadFactory) {
+            return Executors.newSingleThreadExecutor(threadFactory);
+        }
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.util;
+
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.rules.Timeout;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class ExceptionScopeTest {
+
+    @Rule
+    public TestRule rule = Timeout.millis(5000);
+
+    @Before
+    public void setup() {
+        WaitForAsyncUtils.printException = false;
+        WaitForAsyncUtils.clearExceptions();
+    }
+
+    @After
+    public void cleanup() {
+        WaitForAsyncUtils.printException = true;
+    }
+
+    @Test
+    public void open_and_close() {
+        // when:
+        ExceptionScope scope = ExceptionScope.open();
+
+        // then:
+        assertThat(ExceptionScope.current(), is(sameInstance(scope)));
+        scope.close();
+        assertThat(ExceptionScope.current(), is(sameInstance(ExceptionScope.global())));
+    }
+
+    @Test
+    public void checkException_in_scope() throws Throwable {
+        try (ExceptionScope ignored = ExceptionScope.open()) {
+            // given:
+            Future<Void> future = failAsync();
+            WaitForAsyncUtils.waitFor(250, MILLISECONDS, future::isDone);
+
+            // when:
+            try {
+                WaitForAsyncUtils.checkException();
+                fail("checkException didn't detect Exception");
+            }
+
+            // then:
+            catch (UnsupportedOperationException ignore) {
+            }
+        }
+    }
+
+    @Test
+    public void checkException_outside_of_scope() throws Throwable {
+        // given:
+        Future<Void> future;
+        try (ExceptionScope ignored = ExceptionScope.open()) {
+            future = failAsync();
+            WaitForAsyncUtils.waitFor(250, MILLISECONDS, future::isDone);
+        }
+
+        // when:
+        WaitForAsyncUtils.checkException();
+
+        // then:
+        assertThat(future.isDone(), is(true));
+    }
+
+    @Test
+    public void checkException_of_concurrent_scope() throws Throwable {
+        // given:
+        Future<Throwable> otherTest = WaitForAsyncUtils.async(() -> {
+            try (ExceptionScope ignored = ExceptionScope.open()) {
+                Future<Void> future = failAsync();
+                WaitForAsyncUtils.waitFor(250, MILLISECONDS, future::isDone);
+                try {
+                    WaitForAsyncUtils.checkException();
+                    return null;
+                }
+                catch (Throwable throwable) {
+                    return throwable;
+                }
+            }
+        });
+
+        // when:
+        Throwable otherException = WaitForAsyncUtils.waitFor(250, MILLISECONDS, otherTest);
+        WaitForAsyncUtils.checkException();
+
+        // then:
+        assertThat(otherException, instanceOf(UnsupportedOperationException.class));
+    }
+
+    private static Future<Void> failAsync() {
+        return WaitForAsyncUtils.async(() -> {
+            throw new UnsupportedOperationException();
+        });
+    }
+
+}
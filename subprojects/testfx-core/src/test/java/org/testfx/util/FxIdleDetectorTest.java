@@ -0,0 +1,63 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.util;
+
+import java.util.concurrent.CountDownLatch;
+import javafx.application.Platform;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.testfx.api.FxToolkit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class FxIdleDetectorTest {
+
+    @BeforeClass
+    public static void setupSpec() throws Exception {
+        FxToolkit.registerPrimaryStage();
+    }
+
+    @Test(timeout = 5000)
+    public void awaitIdle_detects_idle_fx_thread() {
+        // expect:
+        assertThat(FxIdleDetector.awaitIdle(20, 5), is(true));
+    }
+
+    @Test(timeout = 5000)
+    public void awaitIdle_gives_up_on_blocked_fx_thread() throws Exception {
+        // given:
+        CountDownLatch release = new CountDownLatch(1);
+        Platform.runLater(() -> {
+            try {
+                release.await();
+            }
+            catch (InterruptedException ignore) {
+            }
+        });
+
+        try {
+            // expect:
+            assertThat(FxIdleDetector.awaitIdle(20, 5), is(false));
+        }
+        finally {
+            release.countDown();
+        }
+    }
+
+}
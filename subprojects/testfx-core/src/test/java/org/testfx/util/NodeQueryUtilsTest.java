@@ -0,0 +1,113 @@
+/*
+ * Copyright 2013-2014 SmartBear Software
+ * Copyright 2014-2017 The TestFX Contributors
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved by the
+ * European Commission - subsequent versions of the EUPL (the "Licence"); You may
+ * not use this work except in compliance with the Licence.
+ *
+ * You may obtain a copy of the Licence at:
+ * http://ec.europa.eu/idabc/eupl.html
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the Licence is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the Licence for the
+ * specific language governing permissions and limitations under the Licence.
+ */
+package org.testfx.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.layout.Pane;
+import javafx.scene.shape.Rectangle;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.testfx.util.NodeQueryUtils.TraversalAction;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class NodeQueryUtilsTest {
+
+    Pane root;
+    Pane firstPane;
+    Rectangle firstRectangle;
+    Rectangle secondRectangle;
+    Pane secondPane;
+    Rectangle thirdRectangle;
+
+    @Before
+    public void setup() {
+        firstRectangle = new Rectangle();
+        secondRectangle = new Rectangle();
+        firstPane = new Pane(firstRectangle, secondRectangle);
+        thirdRectangle = new Rectangle();
+        secondPane = new Pane(thirdRectangle);
+        root = new Pane(firstPane, secondPane);
+    }
+
+    @Test
+    public void byPredicate() {
+        // when:
+        Set<Node> result = NodeQueryUtils.byPredicate(node -> node instanceof Rectangle).apply(root);
+
+        // then:
+        assertThat(new ArrayList<>(result), is(Arrays.asList(firstRectangle, secondRectangle, thirdRectangle)));
+    }
+
+    @Test
+    public void byPredicate_with_pruning() {
+        // given:
+        firstPane.setVisible(false);
+
+        // when:
+        Set<Node> result = NodeQueryUtils.byPredicate(node -> node instanceof Rectangle,
+            node -> !node.isVisible()).apply(root);
+
+        // then:
+        assertThat(new ArrayList<>(result), is(Arrays.asList(thirdRectangle)));
+    }
+
+    @Test
+    public void byPredicate_with_deep_scene_graph() {
+        // given:
+        Group parent = new Group();
+        Group deepRoot = parent;
+        for (int depth = 0; depth < 3000; depth++) {
+            Group child = new Group();
+            parent.getChildren().add(child);
+            parent = child;
+        }
+        parent.getChildren().add(firstRectangle);
+
+        // when:
+        Set<Node> result = NodeQueryUtils.byPredicate(node -> node instanceof Rectangle).apply(deepRoot);
+
+        // then:
+        assertThat(new ArrayList<>(result), is(Arrays.asList(firstRectangle)));
+    }
+
+    @Test
+    public void traverse() {
+        // given:
+        List<Node> visitedNodes = new ArrayList<>();
+
+        // when:
+        NodeQueryUtils.traverse(root, node -> {
+            visitedNodes.add(node);
+            if (node == firstPane) {
+                return TraversalAction.SKIP_SUBTREE;
+            }
+            return node == thirdRectangle ? TraversalAction.TERMINATE : TraversalAction.CONTINUE;
+        });
+
+        // then:
+        assertThat(visitedNodes, is(Arrays.asList(root, firstPane, secondPane, thirdRectangle)));
+    }
+
+}
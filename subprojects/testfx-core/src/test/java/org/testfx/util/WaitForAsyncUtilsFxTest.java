@@ -16,10 +16,19 @@
  */
 package org.testfx.util;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javafx.application.Platform;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.StackPane;
 
 import org.junit.BeforeClass;
 import org.junit.Rule;
@@ -32,6 +41,8 @@ import org.testfx.api.FxToolkit;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -117,6 +128,207 @@ public class WaitForAsyncUtilsFxTest {
         waitForThreads(future);
     }
 
+    @Test
+    public void queueFx_runs_in_submission_order() {
+        // given:
+        List<Integer> executed = new ArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+
+        // when:
+        for (int index = 0; index < 200; index++) {
+            int value = index;
+            WaitForAsyncUtils.queueFx(() -> executed.add(value));
+            expected.add(value);
+        }
+        WaitForAsyncUtils.waitForFxEvents();
+
+        // then:
+        assertThat(executed, is(expected));
+    }
+
+    @Test
+    public void queueFx_runs_in_submission_order_when_coalesced() {
+        // given:
+        List<Integer> executed = new ArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+        WaitForAsyncUtils.coalesceFxSubmissions = true;
+
+        try {
+            // when:
+            for (int index = 0; index < 200; index++) {
+                int value = index;
+                WaitForAsyncUtils.queueFx(() -> executed.add(value));
+                expected.add(value);
+            }
+            WaitForAsyncUtils.waitForFxEvents();
+        }
+        finally {
+            WaitForAsyncUtils.coalesceFxSubmissions = false;
+        }
+
+        // then:
+        assertThat(executed, is(expected));
+    }
+
+    @Test
+    public void queueFx_keeps_order_with_runLater() {
+        // given:
+        List<Integer> executed = new ArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+
+        // when:
+        for (int index = 0; index < 200; index++) {
+            int value = index;
+            if (index % 2 == 0) {
+                WaitForAsyncUtils.queueFx(() -> executed.add(value));
+            }
+            else {
+                Platform.runLater(() -> executed.add(value));
+            }
+            expected.add(value);
+        }
+        WaitForAsyncUtils.waitForFxEvents();
+
+        // then:
+        assertThat(executed, is(expected));
+    }
+
+    @Test
+    public void queueFx_with_exception() throws Throwable {
+        // given:
+        WaitForAsyncUtils.printException = false;
+        WaitForAsyncUtils.clearExceptions();
+
+        // when:
+        WaitForAsyncUtils.queueFx(() -> {
+            throw new UnsupportedOperationException();
+        });
+        WaitForAsyncUtils.waitForFxEvents();
+
+        // then:
+        try {
+            WaitForAsyncUtils.checkException();
+            fail("checkException didn't detect Exception");
+        }
+        catch (UnsupportedOperationException ignore) {
+        }
+        finally {
+            WaitForAsyncUtils.printException = true;
+        }
+    }
+
+    @Test
+    public void waitForFxEvents_runs_nested_events() {
+        // given:
+        AtomicBoolean nestedEventRun = new AtomicBoolean(false);
+
+        // when:
+        Platform.runLater(() -> Platform.runLater(() -> nestedEventRun.set(true)));
+        WaitForAsyncUtils.waitForFxEvents();
+
+        // then:
+        assertThat(nestedEventRun.get(), is(true));
+    }
+
+    @Test
+    public void waitForFxEvents_runs_deeply_nested_events() {
+        // given:
+        AtomicInteger nestedEventsRun = new AtomicInteger();
+        Runnable nestedEvent = new Runnable() {
+            @Override
+            public void run() {
+                WaitForAsyncUtils.sleep(10, MILLISECONDS);
+                if (nestedEventsRun.incrementAndGet() < 5) {
+                    Platform.runLater(this);
+                }
+            }
+        };
+
+        // when:
+        Platform.runLater(nestedEvent);
+        WaitForAsyncUtils.waitForFxEvents();
+
+        // then:
+        assertThat(nestedEventsRun.get(), is(5));
+    }
+
+    @Test
+    public void waitForFxEvents_waits_for_layout() throws Exception {
+        // given:
+        StackPane root = new StackPane();
+        FxToolkit.setupSceneRoot(() -> root);
+        FxToolkit.showStage();
+        WaitForAsyncUtils.waitForFxEvents();
+
+        // when:
+        WaitForAsyncUtils.asyncFx(() -> root.getChildren().add(new Region()));
+        WaitForAsyncUtils.waitForFxEvents();
+
+        // then:
+        assertThat(root.isNeedsLayout(), is(false));
+    }
+
+    @Test
+    public void waitForFx_with_dependency() throws Exception {
+        // given:
+        BooleanProperty property = new SimpleBooleanProperty(false);
+
+        // when:
+        WaitForAsyncUtils.async(() -> {
+            WaitForAsyncUtils.sleepWithException(50, MILLISECONDS);
+            property.set(true);
+            return null;
+        });
+
+        // then:
+        WaitForAsyncUtils.waitForFx(250, MILLISECONDS, property::get, property);
+    }
+
+    @Test
+    public void waitForFx_with_change_without_pulse() throws Exception {
+        // given:
+        AtomicBoolean value = new AtomicBoolean();
+
+        // when:
+        WaitForAsyncUtils.async(() -> {
+            WaitForAsyncUtils.sleepWithException(50, MILLISECONDS);
+            value.set(true);
+            return null;
+        });
+
+        // then:
+        WaitForAsyncUtils.waitForFx(250, MILLISECONDS, value::get);
+    }
+
+    @Test
+    public void waitForFx_with_false() throws Exception {
+        // expect:
+        exception.expect(TimeoutException.class);
+        WaitForAsyncUtils.waitForFx(250, MILLISECONDS, () -> false);
+    }
+
+    @Test
+    public void waitForFx_with_interrupt() throws Exception {
+        // expect:
+        exception.expect(TimeoutException.class);
+        Thread.currentThread().interrupt();
+        try {
+            WaitForAsyncUtils.waitForFx(250, MILLISECONDS, () -> false, new SimpleBooleanProperty());
+        }
+        finally {
+            assertTrue(Thread.interrupted());
+        }
+    }
+
+    @Test
+    public void waitForFx_with_exception() throws Exception {
+        // expect:
+        exception.expectCause(instanceOf(UnsupportedOperationException.class));
+        WaitForAsyncUtils.waitForFx(250, MILLISECONDS, () -> {
+            throw new UnsupportedOperationException();
+        });
+    }
+
     protected void waitForException(Future<?> f) throws InterruptedException {
         Thread.sleep(50);
         assertTrue(f.isDone());
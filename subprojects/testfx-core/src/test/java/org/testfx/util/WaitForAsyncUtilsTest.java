@@ -32,6 +32,7 @@ import org.junit.rules.TestRule;
 import org.junit.rules.Timeout;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.isA;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertTrue;
@@ -306,6 +307,41 @@ public class WaitForAsyncUtilsTest {
         WaitForAsyncUtils.waitFor(250, MILLISECONDS, property);
     }
 
+    @Test
+    public void async_callable_with_exception_and_caller_trace_modes() throws Exception {
+        // given:
+        WaitForAsyncUtils.printException = false;
+        WaitForAsyncUtils.callerTraceSampleRate = 2;
+
+        try {
+            for (WaitForAsyncUtils.CallerTraceMode mode : WaitForAsyncUtils.CallerTraceMode.values()) {
+                WaitForAsyncUtils.callerTraceMode = mode;
+
+                WaitForAsyncUtils.clearExceptions();
+
+                // when:
+                Future<Void> future = WaitForAsyncUtils.async(() -> {
+                    throw new UnsupportedOperationException();
+                });
+
+                // then:
+                waitForException(future);
+                try {
+                    WaitForAsyncUtils.checkException();
+                    fail("checkException didn't detect Exception in mode " + mode);
+                }
+                catch (Throwable e) {
+                    assertThat(e, instanceOf(UnsupportedOperationException.class));
+                }
+            }
+        }
+        finally {
+            WaitForAsyncUtils.callerTraceMode = WaitForAsyncUtils.CallerTraceMode.LAZY;
+            WaitForAsyncUtils.callerTraceSampleRate = 100;
+            WaitForAsyncUtils.printException = true;
+        }
+    }
+
     @Test
     public void daemonThreads() throws Exception {
         final Future<Thread> future = WaitForAsyncUtils.async(Thread::currentThread);
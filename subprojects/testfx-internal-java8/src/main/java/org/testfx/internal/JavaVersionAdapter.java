@@ -19,16 +19,29 @@ package org.testfx.internal;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javafx.scene.Node;
 import javafx.scene.input.KeyCode;
 import javafx.stage.Window;
 
+import com.sun.javafx.tk.TKPulseListener;
+import com.sun.javafx.tk.Toolkit;
+
 /**
  * Provides consistent API for TestFX-Core subproject regardless of whether Java 8 or Java 9 is being used.
  */
 public final class JavaVersionAdapter {
 
+    /**
+     * The toolkit only holds weak references to its pulse listeners.
+     */
+    private static final Set<TKPulseListener> PULSE_LISTENERS = ConcurrentHashMap.newKeySet();
+
+    private static final Map<Runnable, TKPulseListener> WINDOWS_LISTENERS = new ConcurrentHashMap<>();
+
     @SuppressWarnings("deprecated")
     public static int convertToKeyCodeId(KeyCode keyCode) {
         return keyCode.impl_getCode();
@@ -47,4 +60,44 @@ public final class JavaVersionAdapter {
         return !node.isVisible() || !node.impl_isTreeVisible();
     }
 
+    /**
+     * Adds a listener that is run on the JavaFX Application Thread after the scenes have been
+     * updated (CSS and layout) during each pulse.
+     */
+    public static void addPostPulseListener(Runnable listener) {
+        TKPulseListener pulseListener = listener::run;
+        PULSE_LISTENERS.add(pulseListener);
+        Toolkit.getToolkit().addPostSceneTkPulseListener(pulseListener);
+    }
+
+    /**
+     * Returns whether the list of windows is observable, i.e. whether a listener added with
+     * {@link #addWindowsListener(Runnable)} is run as soon as windows are shown or hidden. The list
+     * of windows is not observable in Java 8.
+     */
+    public static boolean isWindowsListObservable() {
+        return false;
+    }
+
+    /**
+     * Adds a listener that is run on the JavaFX Application Thread whenever windows are shown or
+     * hidden. The list of windows is not observable in Java 8, so the listener is run after each
+     * pulse and may run without any change of the windows.
+     */
+    public static void addWindowsListener(Runnable listener) {
+        TKPulseListener pulseListener = listener::run;
+        WINDOWS_LISTENERS.put(listener, pulseListener);
+        Toolkit.getToolkit().addPostSceneTkPulseListener(pulseListener);
+    }
+
+    /**
+     * Removes a listener that was added with {@link #addWindowsListener(Runnable)}.
+     */
+    public static void removeWindowsListener(Runnable listener) {
+        TKPulseListener pulseListener = WINDOWS_LISTENERS.remove(listener);
+        if (pulseListener != null) {
+            Toolkit.getToolkit().removePostSceneTkPulseListener(pulseListener);
+        }
+    }
+
 }
@@ -18,8 +18,14 @@ package org.testfx.internal;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import javafx.beans.InvalidationListener;
+import javafx.beans.value.ChangeListener;
+import javafx.collections.ListChangeListener;
 import javafx.scene.Node;
+import javafx.scene.Scene;
 import javafx.scene.input.KeyCode;
 import javafx.stage.Window;
 
@@ -28,6 +34,8 @@ import javafx.stage.Window;
  */
 public final class JavaVersionAdapter {
 
+    private static final Map<Runnable, InvalidationListener> WINDOWS_LISTENERS = new ConcurrentHashMap<>();
+
     public static int convertToKeyCodeId(KeyCode keyCode) {
         return keyCode.getCode();
     }
@@ -40,4 +48,67 @@ public final class JavaVersionAdapter {
         return !node.isVisible();
     }
 
+    /**
+     * Adds a listener that is run on the JavaFX Application Thread after the scenes have been
+     * updated (CSS and layout) during each pulse. The listener is registered with the scene of
+     * every window and may therefore run once per scene and pulse. Needs to be called on the
+     * JavaFX Application Thread.
+     */
+    public static void addPostPulseListener(Runnable listener) {
+        ChangeListener<Scene> sceneListener = (observable, oldScene, newScene) -> {
+            if (oldScene != null) {
+                oldScene.removePostLayoutPulseListener(listener);
+            }
+            if (newScene != null) {
+                newScene.addPostLayoutPulseListener(listener);
+            }
+        };
+        Window.getWindows().addListener((ListChangeListener<Window>) change -> {
+            while (change.next()) {
+                for (Window window : change.getRemoved()) {
+                    window.sceneProperty().removeListener(sceneListener);
+                    sceneListener.changed(window.sceneProperty(), window.getScene(), null);
+                }
+                for (Window window : change.getAddedSubList()) {
+                    window.sceneProperty().addListener(sceneListener);
+                    sceneListener.changed(window.sceneProperty(), null, window.getScene());
+                }
+            }
+        });
+        for (Window window : Window.getWindows()) {
+            window.sceneProperty().addListener(sceneListener);
+            sceneListener.changed(window.sceneProperty(), null, window.getScene());
+        }
+    }
+
+    /**
+     * Returns whether the list of windows is observable, i.e. whether a listener added with
+     * {@link #addWindowsListener(Runnable)} is run as soon as windows are shown or hidden.
+     */
+    public static boolean isWindowsListObservable() {
+        return true;
+    }
+
+    /**
+     * Adds a listener that is run on the JavaFX Application Thread whenever windows are shown or
+     * hidden, i.e. whenever the list returned by {@link #getWindows()} changes. Needs to be called
+     * on the JavaFX Application Thread.
+     */
+    public static void addWindowsListener(Runnable listener) {
+        InvalidationListener windowsListener = observable -> listener.run();
+        WINDOWS_LISTENERS.put(listener, windowsListener);
+        Window.getWindows().addListener(windowsListener);
+    }
+
+    /**
+     * Removes a listener that was added with {@link #addWindowsListener(Runnable)}. Needs to be called
+     * on the JavaFX Application Thread.
+     */
+    public static void removeWindowsListener(Runnable listener) {
+        InvalidationListener windowsListener = WINDOWS_LISTENERS.remove(listener);
+        if (windowsListener != null) {
+            Window.getWindows().removeListener(windowsListener);
+        }
+    }
+
 }
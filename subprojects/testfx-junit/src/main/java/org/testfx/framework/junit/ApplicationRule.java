@@ -24,6 +24,7 @@ import org.junit.runner.Description;
 import org.junit.runners.model.Statement;
 import org.testfx.api.FxRobot;
 import org.testfx.api.FxToolkit;
+import org.testfx.util.QueryProfiler;
 
 public class ApplicationRule extends FxRobot
         implements ApplicationFixture, TestRule {
@@ -59,15 +60,18 @@ public class ApplicationRule extends FxRobot
     }
 
     private void before() throws Exception {
+        QueryProfiler.reset();
         FxToolkit.registerPrimaryStage();
         FxToolkit.setupApplication(() -> new ApplicationAdapter(this));
     }
 
-    private void after() throws Exception {
+    private void after(Description description) throws Exception {
         FxToolkit.cleanupApplication(new ApplicationAdapter(this));
+        QueryProfiler.reportTest(description.getDisplayName());
     }
 
-    private Statement externalResource(final Statement base) {
+    private Statement externalResource(final Statement base,
+                                       final Description description) {
         return new Statement() {
             @Override
             public void evaluate() throws Throwable {
@@ -75,7 +79,7 @@ public class ApplicationRule extends FxRobot
                 try {
                     base.evaluate();
                 } finally {
-                    after();
+                    after(description);
                 }
             }
         };
@@ -83,7 +87,7 @@ public class ApplicationRule extends FxRobot
 
     @Override
     public Statement apply(Statement base, Description description) {
-        return externalResource(base);
+        return externalResource(base, description);
     }
 
 }
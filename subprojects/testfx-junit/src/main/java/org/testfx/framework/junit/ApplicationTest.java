@@ -26,13 +26,38 @@ import javafx.stage.Stage;
 
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
+import org.junit.rules.TestRule;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
 import org.testfx.api.FxRobot;
 import org.testfx.api.FxToolkit;
 import org.testfx.api.annotation.Unstable;
+import org.testfx.util.QueryProfiler;
 
 @Unstable(reason = "might be renamed to ApplicationTestBase")
 public abstract class ApplicationTest extends FxRobot implements ApplicationFixture {
 
+    //---------------------------------------------------------------------------------------------
+    // FIELDS.
+    //---------------------------------------------------------------------------------------------
+
+    /**
+     * Profiles the node queries of each test, see {@link QueryProfiler#reportTest(String)}.
+     */
+    @Rule
+    public final TestRule queryProfilerRule = new TestWatcher() {
+        @Override
+        protected void starting(Description description) {
+            QueryProfiler.reset();
+        }
+
+        @Override
+        protected void finished(Description description) {
+            QueryProfiler.reportTest(description.getDisplayName());
+        }
+    };
+
     //---------------------------------------------------------------------------------------------
     // STATIC METHODS.
     //---------------------------------------------------------------------------------------------
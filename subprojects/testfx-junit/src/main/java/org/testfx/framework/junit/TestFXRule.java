@@ -24,6 +24,7 @@ import org.junit.rules.TestWatcher;
 import org.junit.runner.Description;
 import org.junit.runners.model.Statement;
 import org.testfx.api.FxToolkit;
+import org.testfx.util.QueryProfiler;
 import org.testfx.util.WaitForAsyncUtils;
 
 /**
@@ -38,6 +39,9 @@ import org.testfx.util.WaitForAsyncUtils;
  * public TestFXRule testFXRule = new TestFXRule();
  * }</pre>
  * <p>
+ * While the {@link QueryProfiler} is enabled, the rule reports the profile of the node queries
+ * of each test after the test has finished, see {@link QueryProfiler#reportTest(String)}.
+ * <p>
  * Developer's Note: TestFX uses this rule for its' own tests.
  */
 public class TestFXRule extends TestWatcher {
@@ -102,6 +106,12 @@ public class TestFXRule extends TestWatcher {
                 throw new RuntimeException("JavaFX platform was not initialized in time");
             }
         }
+        QueryProfiler.reset();
+    }
+
+    @Override
+    protected void finished(Description description) {
+        QueryProfiler.reportTest(description.getDisplayName());
     }
 
     private static class RetryException extends RuntimeException {
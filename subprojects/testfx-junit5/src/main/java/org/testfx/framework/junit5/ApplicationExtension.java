@@ -31,6 +31,7 @@ import org.junit.jupiter.api.extension.ParameterResolver;
 import org.junit.jupiter.api.extension.TestInstancePostProcessor;
 import org.testfx.api.FxRobot;
 import org.testfx.api.FxToolkit;
+import org.testfx.util.QueryProfiler;
 
 public class ApplicationExtension extends FxRobot implements BeforeEachCallback, AfterEachCallback,
         TestInstancePostProcessor, ParameterResolver {
@@ -76,6 +77,7 @@ public class ApplicationExtension extends FxRobot implements BeforeEachCallback,
 
     @Override
     public void beforeEach(ExtensionContext context) throws Exception {
+        QueryProfiler.reset();
         FxToolkit.registerPrimaryStage();
         FxToolkit.setupApplication(() -> new ApplicationAdapter(applicationFixture));
     }
@@ -83,6 +85,7 @@ public class ApplicationExtension extends FxRobot implements BeforeEachCallback,
     @Override
     public void afterEach(ExtensionContext context) throws Exception {
         FxToolkit.cleanupApplication(new ApplicationAdapter(applicationFixture));
+        QueryProfiler.reportTest(context.getDisplayName());
     }
 
     private Method validateInitMethod(Method initMethod) {
@@ -26,9 +26,11 @@ import javafx.stage.Stage;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.TestInfo;
 import org.testfx.api.FxRobot;
 import org.testfx.api.FxToolkit;
 import org.testfx.api.annotation.Unstable;
+import org.testfx.util.QueryProfiler;
 
 @Unstable(reason = "might be renamed to ApplicationTestBase")
 public abstract class ApplicationTest extends FxRobot implements ApplicationFixture {
@@ -52,19 +54,21 @@ public abstract class ApplicationTest extends FxRobot implements ApplicationFixt
     @Unstable(reason = "is missing apidocs")
     public final void internalBefore()
                               throws Exception {
+        QueryProfiler.reset();
         FxToolkit.registerPrimaryStage();
         FxToolkit.setupApplication(() -> new ApplicationAdapter(this));
     }
 
     @AfterEach
     @Unstable(reason = "is missing apidocs")
-    public final void internalAfter()
+    public final void internalAfter(TestInfo testInfo)
                              throws Exception {
         // release all keys
         release(new KeyCode[0]);
         // release all mouse buttons
         release(new MouseButton[0]);
         FxToolkit.cleanupApplication(new ApplicationAdapter(this));
+        QueryProfiler.reportTest(testInfo.getDisplayName());
     }
 
     @Override